@@ -0,0 +1,59 @@
+package ch.obermuhlner.scriptengine.benchmark;
+
+import ch.obermuhlner.scriptengine.java.JavaCompiledScript;
+import ch.obermuhlner.scriptengine.java.JavaScriptEngine;
+import ch.obermuhlner.scriptengine.java.bindings.WriteBackMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.script.Bindings;
+import javax.script.ScriptException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures copying the bindings into the public fields of a script instance before the evaluation
+ * and writing the fields back into the bindings after the evaluation,
+ * depending on the number of bindings and the {@link WriteBackMode}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BindingBenchmark {
+
+    @Param({ "1", "10", "100" })
+    public int bindingCount;
+
+    @Param({ "AllFields", "ChangedFields", "AnnotatedFields" })
+    public WriteBackMode writeBackMode;
+
+    private JavaCompiledScript compiledScript;
+    private Bindings bindings;
+
+    @Setup
+    public void setup() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        engine.setWriteBackMode(writeBackMode);
+        compiledScript = engine.compile(Scripts.createSumScript(bindingCount));
+
+        bindings = engine.createBindings();
+        for (int i = 0; i < bindingCount; i++) {
+            bindings.put("x" + i, (double) i);
+        }
+    }
+
+    @Benchmark
+    public Object evalBindings() throws ScriptException {
+        return compiledScript.eval(bindings);
+    }
+
+    @Benchmark
+    public double evalDoubleBindings() throws ScriptException {
+        return compiledScript.evalDouble(bindings);
+    }
+}
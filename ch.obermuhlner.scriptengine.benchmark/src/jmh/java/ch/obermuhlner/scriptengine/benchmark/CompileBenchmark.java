@@ -0,0 +1,57 @@
+package ch.obermuhlner.scriptengine.benchmark;
+
+import ch.obermuhlner.scriptengine.java.JavaCompiledScript;
+import ch.obermuhlner.scriptengine.java.JavaScriptEngine;
+import ch.obermuhlner.scriptengine.java.cache.CompiledScriptCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.script.ScriptException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures compiling a script.
+ *
+ * <ul>
+ *     <li>{@link #compileCold()} compiles with a new {@link JavaScriptEngine}</li>
+ *     <li>{@link #compileUncached()} runs the java compiler with an existing {@link JavaScriptEngine}</li>
+ *     <li>{@link #compileWarm()} finds the compiled class in the {@link CompiledScriptCache}</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CompileBenchmark {
+
+    private JavaScriptEngine uncachedEngine;
+    private JavaScriptEngine cachedEngine;
+
+    @Setup
+    public void setup() throws ScriptException {
+        uncachedEngine = new JavaScriptEngine();
+
+        cachedEngine = new JavaScriptEngine();
+        cachedEngine.setCompiledScriptCache(new CompiledScriptCache(100));
+        cachedEngine.compile(Scripts.SCRIPT_ALPHA_BETA);
+    }
+
+    @Benchmark
+    public JavaCompiledScript compileCold() throws ScriptException {
+        return new JavaScriptEngine().compile(Scripts.SCRIPT_ALPHA_BETA);
+    }
+
+    @Benchmark
+    public JavaCompiledScript compileUncached() throws ScriptException {
+        return uncachedEngine.compile(Scripts.SCRIPT_ALPHA_BETA);
+    }
+
+    @Benchmark
+    public JavaCompiledScript compileWarm() throws ScriptException {
+        return cachedEngine.compile(Scripts.SCRIPT_ALPHA_BETA);
+    }
+}
@@ -0,0 +1,82 @@
+package ch.obermuhlner.scriptengine.benchmark;
+
+import ch.obermuhlner.scriptengine.java.JavaCompiledScript;
+import ch.obermuhlner.scriptengine.java.JavaScriptEngine;
+import ch.obermuhlner.scriptengine.java.instance.InstanceStrategyFactory;
+import ch.obermuhlner.scriptengine.java.instance.NewInstanceStrategy;
+import ch.obermuhlner.scriptengine.java.instance.PooledInstanceStrategy;
+import ch.obermuhlner.scriptengine.java.instance.StripedInstanceStrategy;
+import ch.obermuhlner.scriptengine.java.instance.ThreadLocalInstanceStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import javax.script.Bindings;
+import javax.script.ScriptException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of evaluating a single {@link JavaCompiledScript} from multiple threads
+ * with the thread-safe {@link ch.obermuhlner.scriptengine.java.instance.InstanceStrategy} implementations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(Threads.MAX)
+public class ConcurrentEvalBenchmark {
+
+    @Param({ "ThreadLocal", "New", "Pooled", "Striped" })
+    public String instanceStrategy;
+
+    private JavaCompiledScript compiledScript;
+
+    @State(Scope.Thread)
+    public static class ThreadBindings {
+        Bindings bindings;
+
+        @Setup
+        public void setup(ConcurrentEvalBenchmark benchmark) {
+            bindings = benchmark.compiledScript.getEngine().createBindings();
+            bindings.put("alpha", 2.0);
+            bindings.put("beta", 3.0);
+        }
+    }
+
+    @Setup
+    public void setup() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        engine.setInstanceStrategyFactory(createInstanceStrategyFactory(instanceStrategy));
+        compiledScript = engine.compile(Scripts.SCRIPT_ALPHA_BETA);
+    }
+
+    @Benchmark
+    public Object eval(ThreadBindings threadBindings) throws ScriptException {
+        return compiledScript.eval(threadBindings.bindings);
+    }
+
+    @Benchmark
+    public double evalDouble(ThreadBindings threadBindings) throws ScriptException {
+        return compiledScript.evalDouble(threadBindings.bindings);
+    }
+
+    private static InstanceStrategyFactory createInstanceStrategyFactory(String name) {
+        switch (name) {
+            case "ThreadLocal":
+                return (clazz, compiledInstance, constructorStrategy) -> new ThreadLocalInstanceStrategy(clazz, constructorStrategy);
+            case "New":
+                return (clazz, compiledInstance, constructorStrategy) -> new NewInstanceStrategy(clazz, constructorStrategy);
+            case "Pooled":
+                return (clazz, compiledInstance, constructorStrategy) -> new PooledInstanceStrategy(clazz, constructorStrategy, Runtime.getRuntime().availableProcessors());
+            case "Striped":
+                return (clazz, compiledInstance, constructorStrategy) -> new StripedInstanceStrategy(clazz, constructorStrategy);
+            default:
+                throw new IllegalArgumentException("Unknown instance strategy: " + name);
+        }
+    }
+}
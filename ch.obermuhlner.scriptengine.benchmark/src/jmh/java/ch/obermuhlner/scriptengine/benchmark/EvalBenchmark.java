@@ -0,0 +1,65 @@
+package ch.obermuhlner.scriptengine.benchmark;
+
+import ch.obermuhlner.scriptengine.java.JavaCompiledScript;
+import ch.obermuhlner.scriptengine.java.JavaScriptEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.script.Bindings;
+import javax.script.ScriptException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares evaluating a script with {@link JavaScriptEngine#eval(String)},
+ * which compiles the script every time, against evaluating a {@link JavaCompiledScript}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EvalBenchmark {
+
+    private JavaScriptEngine engine;
+    private JavaCompiledScript compiledScript;
+    private Bindings bindings;
+
+    @Setup
+    public void setup() throws ScriptException {
+        engine = new JavaScriptEngine();
+        compiledScript = engine.compile(Scripts.SCRIPT_ALPHA_BETA);
+
+        bindings = engine.createBindings();
+        bindings.put("alpha", 2.0);
+        bindings.put("beta", 3.0);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object evalString() throws ScriptException {
+        return engine.eval(Scripts.SCRIPT_ALPHA_BETA);
+    }
+
+    @Benchmark
+    public Object evalCompiled() throws ScriptException {
+        return compiledScript.eval();
+    }
+
+    @Benchmark
+    public Object evalCompiledBindings() throws ScriptException {
+        return compiledScript.eval(bindings);
+    }
+
+    @Benchmark
+    public double evalDouble() throws ScriptException {
+        return compiledScript.evalDouble();
+    }
+
+    @Benchmark
+    public double evalDoubleBindings() throws ScriptException {
+        return compiledScript.evalDouble(bindings);
+    }
+}
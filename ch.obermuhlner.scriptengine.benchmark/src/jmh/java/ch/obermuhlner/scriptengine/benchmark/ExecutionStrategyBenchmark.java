@@ -0,0 +1,87 @@
+package ch.obermuhlner.scriptengine.benchmark;
+
+import ch.obermuhlner.scriptengine.java.JavaCompiledScript;
+import ch.obermuhlner.scriptengine.java.JavaScriptEngine;
+import ch.obermuhlner.scriptengine.java.execution.DefaultExecutionStrategy;
+import ch.obermuhlner.scriptengine.java.execution.ExecutionStrategy;
+import ch.obermuhlner.scriptengine.java.execution.MethodExecutionStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.script.ScriptException;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link ExecutionStrategy} implementations against calling the script method with {@link Method#invoke(Object, Object...)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExecutionStrategyBenchmark {
+    private static final String SCRIPT_METHODS = "" +
+            "public class Script {" +
+            "   public double alpha = 2;" +
+            "   public double beta = 3;" +
+            "   public double calculate() {" +
+            "       return alpha + beta;" +
+            "   }" +
+            "   public double calculate(String name, int factor) {" +
+            "       return (alpha + beta) * factor;" +
+            "   }" +
+            "}";
+
+    private Object supplierInstance;
+    private ExecutionStrategy supplierExecutionStrategy;
+
+    private Object methodInstance;
+    private Method method;
+    private ExecutionStrategy defaultExecutionStrategy;
+    private ExecutionStrategy methodExecutionStrategy;
+
+    @Setup
+    public void setup() throws ScriptException, NoSuchMethodException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+
+        JavaCompiledScript supplierScript = engine.compile(Scripts.SCRIPT_ALPHA_BETA);
+        supplierInstance = supplierScript.getCompiledInstance();
+        supplierExecutionStrategy = new DefaultExecutionStrategy(supplierScript.getCompiledClass());
+
+        JavaCompiledScript methodScript = engine.compile(SCRIPT_METHODS);
+        methodInstance = methodScript.getCompiledInstance();
+        Class<?> methodClass = methodScript.getCompiledClass();
+        method = methodClass.getMethod("calculate");
+        defaultExecutionStrategy = new DefaultExecutionStrategy(methodClass);
+        methodExecutionStrategy = MethodExecutionStrategy.byMethod(methodClass.getMethod("calculate", String.class, int.class), "test", 2);
+    }
+
+    @Benchmark
+    public Object reflection() throws ReflectiveOperationException {
+        return method.invoke(methodInstance);
+    }
+
+    @Benchmark
+    public Object defaultSingleMethod() throws ScriptException {
+        return defaultExecutionStrategy.execute(methodInstance);
+    }
+
+    @Benchmark
+    public Object defaultSupplier() throws ScriptException {
+        return supplierExecutionStrategy.execute(supplierInstance);
+    }
+
+    @Benchmark
+    public double defaultSupplierDouble() throws ScriptException {
+        return supplierExecutionStrategy.executeDouble(supplierInstance);
+    }
+
+    @Benchmark
+    public Object methodWithArguments() throws ScriptException {
+        return methodExecutionStrategy.execute(methodInstance);
+    }
+}
@@ -0,0 +1,107 @@
+package ch.obermuhlner.scriptengine.benchmark;
+
+import ch.obermuhlner.scriptengine.java.JavaCompiledExpression;
+import ch.obermuhlner.scriptengine.java.JavaCompiledScript;
+import ch.obermuhlner.scriptengine.java.JavaScriptEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.script.Bindings;
+import javax.script.ScriptException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleBinaryOperator;
+
+/**
+ * Compares compiling and evaluating one-line expressions as expressions and as full scripts.
+ *
+ * <ul>
+ *     <li>{@link #compileScripts()} compiles every expression as a separate script class with {@link JavaScriptEngine#compileAll(Map)}</li>
+ *     <li>{@link #compileExpressions()} compiles all expressions into a single class with {@link JavaScriptEngine#compileExpressions(Map, Map, Class)}</li>
+ *     <li>{@link #evalScript()} evaluates a compiled script with bindings</li>
+ *     <li>{@link #evalExpression()} evaluates a compiled expression with bindings</li>
+ *     <li>{@link #evalExpressionAs()} calls a compiled expression as {@link DoubleBinaryOperator}</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExpressionBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int expressionCount;
+
+    private JavaScriptEngine engine;
+    private Map<String, String> scripts;
+    private Map<String, String> expressions;
+    private Map<String, Class<?>> variableTypes;
+    private Bindings bindings;
+    private JavaCompiledScript compiledScript;
+    private JavaCompiledExpression compiledExpression;
+    private DoubleBinaryOperator operator;
+
+    @Setup
+    public void setup() throws ScriptException {
+        engine = new JavaScriptEngine();
+
+        scripts = new LinkedHashMap<>();
+        expressions = new LinkedHashMap<>();
+        for (int i = 0; i < expressionCount; i++) {
+            String expression = "alpha * beta + " + i;
+            expressions.put("e" + i, expression);
+            scripts.put("e" + i, "" +
+                    "public class Script" + i + " implements java.util.function.DoubleSupplier {" +
+                    "   public double alpha;" +
+                    "   public double beta;" +
+                    "   public double getAsDouble() {" +
+                    "       return " + expression + ";" +
+                    "   }" +
+                    "}");
+        }
+
+        variableTypes = new HashMap<>();
+        variableTypes.put("alpha", double.class);
+        variableTypes.put("beta", double.class);
+
+        bindings = engine.createBindings();
+        bindings.put("alpha", 2.0);
+        bindings.put("beta", 3.0);
+
+        compiledScript = engine.compile(Scripts.SCRIPT_ALPHA_BETA);
+        compiledExpression = engine.compileExpression("alpha * beta", variableTypes, double.class);
+        operator = compiledExpression.as(DoubleBinaryOperator.class);
+    }
+
+    @Benchmark
+    public Map<String, JavaCompiledScript> compileScripts() throws ScriptException {
+        return engine.compileAll(scripts);
+    }
+
+    @Benchmark
+    public Map<String, JavaCompiledExpression> compileExpressions() throws ScriptException {
+        return engine.compileExpressions(expressions, variableTypes, double.class);
+    }
+
+    @Benchmark
+    public Object evalScript() throws ScriptException {
+        return compiledScript.eval(bindings);
+    }
+
+    @Benchmark
+    public Object evalExpression() throws ScriptException {
+        return compiledExpression.eval(bindings);
+    }
+
+    @Benchmark
+    public double evalExpressionAs() {
+        return operator.applyAsDouble(2.0, 3.0);
+    }
+}
@@ -0,0 +1,66 @@
+package ch.obermuhlner.scriptengine.benchmark;
+
+import ch.obermuhlner.scriptengine.java.JavaCompiledScript;
+import ch.obermuhlner.scriptengine.java.JavaScriptEngine;
+import ch.obermuhlner.scriptengine.java.metrics.ScriptEngineMetrics;
+import ch.obermuhlner.scriptengine.java.metrics.ScriptProfiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.script.Bindings;
+import javax.script.ScriptException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of the {@link ScriptEngineMetrics} and the {@link ScriptProfiler} on the evaluation of a compiled script.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InstrumentationBenchmark {
+
+    @Param({ "None", "Metrics", "Profiler", "ProfilerWithAllocation" })
+    public String instrumentation;
+
+    private JavaCompiledScript compiledScript;
+    private Bindings bindings;
+
+    @Setup
+    public void setup() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        switch (instrumentation) {
+            case "Metrics":
+                engine.setMetricsListener(new ScriptEngineMetrics(engine.getClassLoaderTracker()));
+                break;
+            case "Profiler":
+                engine.setScriptProfiler(new ScriptProfiler(false));
+                break;
+            case "ProfilerWithAllocation":
+                engine.setScriptProfiler(new ScriptProfiler(true));
+                break;
+            default:
+                break;
+        }
+        compiledScript = engine.compile(Scripts.SCRIPT_ALPHA_BETA);
+
+        bindings = engine.createBindings();
+        bindings.put("alpha", 2.0);
+        bindings.put("beta", 3.0);
+    }
+
+    @Benchmark
+    public Object evalBindings() throws ScriptException {
+        return compiledScript.eval(bindings);
+    }
+
+    @Benchmark
+    public double evalDouble() throws ScriptException {
+        return compiledScript.evalDouble();
+    }
+}
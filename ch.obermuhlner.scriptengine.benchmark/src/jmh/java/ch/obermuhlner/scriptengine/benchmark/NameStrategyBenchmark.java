@@ -0,0 +1,54 @@
+package ch.obermuhlner.scriptengine.benchmark;
+
+import ch.obermuhlner.scriptengine.java.name.DefaultNameStrategy;
+import ch.obermuhlner.scriptengine.java.name.NameStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.script.ScriptException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing the fully qualified class name of scripts of different sizes with the {@link DefaultNameStrategy}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NameStrategyBenchmark {
+
+    @Param({ "0", "100", "10000" })
+    public int leadingCommentLength;
+
+    private final NameStrategy nameStrategy = new DefaultNameStrategy();
+
+    private String script;
+    private String packageScript;
+
+    @Setup
+    public void setup() {
+        StringBuilder comment = new StringBuilder("// ");
+        for (int i = 0; i < leadingCommentLength; i++) {
+            comment.append('x');
+        }
+        comment.append('\n');
+
+        script = comment + Scripts.SCRIPT_ALPHA_BETA;
+        packageScript = comment + "package ch.obermuhlner.example;" + Scripts.SCRIPT_ALPHA_BETA;
+    }
+
+    @Benchmark
+    public String getFullName() throws ScriptException {
+        return nameStrategy.getFullName(script);
+    }
+
+    @Benchmark
+    public String getFullNameWithPackage() throws ScriptException {
+        return nameStrategy.getFullName(packageScript);
+    }
+}
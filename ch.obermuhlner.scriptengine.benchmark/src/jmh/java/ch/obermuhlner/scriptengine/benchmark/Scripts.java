@@ -0,0 +1,42 @@
+package ch.obermuhlner.scriptengine.benchmark;
+
+/**
+ * The scripts shared by the benchmarks.
+ */
+final class Scripts {
+
+    static final String SCRIPT_ALPHA_BETA = "" +
+            "public class Script implements java.util.function.DoubleSupplier {" +
+            "   public double alpha = 2;" +
+            "   public double beta = 3;" +
+            "   public double getAsDouble() {" +
+            "       return alpha * beta;" +
+            "   }" +
+            "}";
+
+    private Scripts() {
+        // no instances
+    }
+
+    /**
+     * Creates a script with the specified number of public {@code double} fields {@code x0, x1, ...}
+     * that returns the sum of all fields.
+     *
+     * @param fieldCount the number of fields
+     * @return the script
+     */
+    static String createSumScript(int fieldCount) {
+        StringBuilder script = new StringBuilder();
+        script.append("public class SumScript").append(fieldCount).append(" implements java.util.function.DoubleSupplier {");
+        for (int i = 0; i < fieldCount; i++) {
+            script.append("public double x").append(i).append(";");
+        }
+        script.append("public double getAsDouble() { return 0");
+        for (int i = 0; i < fieldCount; i++) {
+            script.append(" + x").append(i);
+        }
+        script.append("; }");
+        script.append("}");
+        return script.toString();
+    }
+}
@@ -0,0 +1,58 @@
+package ch.obermuhlner.scriptengine.java;
+
+import javax.script.ScriptException;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The {@link ScriptException} thrown by {@link JavaScriptEngine#compileAll(Map)}
+ * if one or more scripts could not be compiled,
+ * or by {@link JavaScriptEngine#compileExpressions(Map)} if one or more expressions could not be compiled.
+ *
+ * The compiler diagnostics are mapped back to the keys of the scripts that caused them.
+ */
+public class BatchCompilationException extends ScriptException {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Map<String, List<Diagnostic<? extends JavaFileObject>>> scriptDiagnostics;
+    private final Set<String> failedScripts;
+
+    /**
+     * Constructs a {@link BatchCompilationException}.
+     *
+     * @param message the message containing all diagnostics
+     * @param scriptDiagnostics the map of script keys to the diagnostics reported for this script
+     * @param failedScripts the keys of the scripts that have compilation errors
+     */
+    public BatchCompilationException(String message, Map<String, List<Diagnostic<? extends JavaFileObject>>> scriptDiagnostics, Set<String> failedScripts) {
+        super(message);
+        this.scriptDiagnostics = scriptDiagnostics;
+        this.failedScripts = failedScripts;
+    }
+
+    /**
+     * Returns the keys of the scripts that have compilation errors.
+     *
+     * @return the keys of the failed scripts
+     */
+    public Set<String> getFailedScripts() {
+        return Collections.unmodifiableSet(failedScripts);
+    }
+
+    /**
+     * Returns the diagnostics (errors and warnings) reported for the script with the specified key.
+     *
+     * @param key the key of the script
+     * @return the list of {@link Diagnostic}s, empty if no diagnostics were reported for this script
+     */
+    public List<Diagnostic<? extends JavaFileObject>> getDiagnostics(String key) {
+        if (scriptDiagnostics == null) {
+            return Collections.emptyList();
+        }
+        return scriptDiagnostics.getOrDefault(key, Collections.emptyList());
+    }
+}
@@ -0,0 +1,151 @@
+package ch.obermuhlner.scriptengine.java;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the {@link ClassLoader}s created by a {@link JavaScriptEngine} for compiled scripts.
+ *
+ * The class loaders are only referenced weakly, so tracking does not prevent them from being garbage collected.
+ * A class loader (together with the script classes it defined) can only be collected
+ * after all {@link JavaCompiledScript}s, instances and cache entries of its classes are unreachable.
+ * A growing number of live class loaders indicates that old scripts are still referenced somewhere.
+ *
+ * The metaspace used by the script classes cannot be measured per class loader,
+ * {@link #getEstimatedMetaspaceSize()} is only a rough estimate based on the size of the bytecode.
+ */
+public class ClassLoaderTracker {
+
+    /**
+     * The estimated metaspace used by a class in addition to its bytecode.
+     */
+    static final long ESTIMATED_CLASS_OVERHEAD = 1024;
+
+    private final Set<TrackedClassLoader> trackedClassLoaders = ConcurrentHashMap.newKeySet();
+    private final ReferenceQueue<ClassLoader> collectedClassLoaders = new ReferenceQueue<>();
+
+    private final AtomicLong liveClassCount = new AtomicLong();
+    private final AtomicLong liveBytecodeSize = new AtomicLong();
+    private final AtomicLong registeredCount = new AtomicLong();
+    private final AtomicLong collectedCount = new AtomicLong();
+
+    /**
+     * Starts tracking a class loader.
+     *
+     * @param classLoader the {@link ClassLoader} of compiled scripts
+     * @param classCount the number of classes the class loader can define
+     * @param bytecodeSize the total size of the bytecode of these classes
+     * @return the handle to add more classes to the tracked class loader
+     */
+    TrackedClassLoader register(ClassLoader classLoader, int classCount, long bytecodeSize) {
+        expungeCollected();
+
+        TrackedClassLoader trackedClassLoader = new TrackedClassLoader(classLoader, collectedClassLoaders);
+        trackedClassLoaders.add(trackedClassLoader);
+        registeredCount.incrementAndGet();
+        addClasses(trackedClassLoader, classCount, bytecodeSize);
+        return trackedClassLoader;
+    }
+
+    /**
+     * Adds classes to a tracked class loader that defines more classes after it was registered.
+     *
+     * @param trackedClassLoader the handle returned by {@link #register(ClassLoader, int, long)}
+     * @param classCount the number of added classes
+     * @param bytecodeSize the total size of the bytecode of the added classes
+     */
+    void addClasses(TrackedClassLoader trackedClassLoader, int classCount, long bytecodeSize) {
+        trackedClassLoader.classCount.addAndGet(classCount);
+        trackedClassLoader.bytecodeSize.addAndGet(bytecodeSize);
+        liveClassCount.addAndGet(classCount);
+        liveBytecodeSize.addAndGet(bytecodeSize);
+    }
+
+    /**
+     * Returns the number of tracked class loaders that have not been garbage collected yet.
+     *
+     * @return the number of live class loaders
+     */
+    public int getLiveClassLoaderCount() {
+        expungeCollected();
+        return trackedClassLoaders.size();
+    }
+
+    /**
+     * Returns the number of classes in the tracked class loaders that have not been garbage collected yet.
+     *
+     * @return the number of live script classes
+     */
+    public long getLiveClassCount() {
+        expungeCollected();
+        return liveClassCount.get();
+    }
+
+    /**
+     * Returns the total bytecode size of the classes in the tracked class loaders that have not been garbage collected yet.
+     *
+     * @return the live bytecode size in bytes
+     */
+    public long getLiveBytecodeSize() {
+        expungeCollected();
+        return liveBytecodeSize.get();
+    }
+
+    /**
+     * Returns a rough estimate of the metaspace used by the classes in the tracked class loaders
+     * that have not been garbage collected yet.
+     *
+     * The estimate assumes that a class uses about twice its bytecode size plus a fixed overhead.
+     *
+     * @return the estimated metaspace size in bytes
+     */
+    public long getEstimatedMetaspaceSize() {
+        expungeCollected();
+        return 2 * liveBytecodeSize.get() + ESTIMATED_CLASS_OVERHEAD * liveClassCount.get();
+    }
+
+    /**
+     * Returns the number of class loaders that were registered since this tracker was created.
+     *
+     * @return the number of registered class loaders
+     */
+    public long getRegisteredClassLoaderCount() {
+        return registeredCount.get();
+    }
+
+    /**
+     * Returns the number of tracked class loaders that have been garbage collected.
+     *
+     * @return the number of collected class loaders
+     */
+    public long getCollectedClassLoaderCount() {
+        expungeCollected();
+        return collectedCount.get();
+    }
+
+    private void expungeCollected() {
+        Reference<? extends ClassLoader> reference;
+        while ((reference = collectedClassLoaders.poll()) != null) {
+            TrackedClassLoader trackedClassLoader = (TrackedClassLoader) reference;
+            if (trackedClassLoaders.remove(trackedClassLoader)) {
+                liveClassCount.addAndGet(-trackedClassLoader.classCount.get());
+                liveBytecodeSize.addAndGet(-trackedClassLoader.bytecodeSize.get());
+                collectedCount.incrementAndGet();
+            }
+        }
+    }
+
+    static class TrackedClassLoader extends WeakReference<ClassLoader> {
+        final AtomicInteger classCount = new AtomicInteger();
+        final AtomicLong bytecodeSize = new AtomicLong();
+
+        TrackedClassLoader(ClassLoader classLoader, ReferenceQueue<ClassLoader> queue) {
+            super(classLoader, queue);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package ch.obermuhlner.scriptengine.java;
+
+import ch.obermuhlner.scriptengine.java.util.SourceUtil;
+
+import javax.lang.model.SourceVersion;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Generates the source of a single class that contains one public static method per expression.
+ *
+ * The parameters of every method are the variables referenced by its expression, in the order of their first use.
+ * Every method is declared on its own lines, so that the compiler diagnostics can be mapped back to the expressions.
+ */
+class ExpressionSource {
+    static final String CLASS_NAME = "Expressions";
+
+    private static final Pattern IDENTIFIER_PATTERN = Pattern.compile("(?<![\\w$.])([A-Za-z_$][\\w$]*)(?![\\w$])(?!\\s*\\()");
+    private static final Pattern LAMBDA_PARAMETER_PATTERN = Pattern.compile("([A-Za-z_$][\\w$]*)\\s*->");
+    private static final Pattern LAMBDA_PARAMETERS_PATTERN = Pattern.compile("\\(([^()]*)\\)\\s*->");
+    private static final Pattern LAST_IDENTIFIER_PATTERN = Pattern.compile("([A-Za-z_$][\\w$]*)\\s*$");
+
+    private final String source;
+    private final Map<String, String> methodNames = new LinkedHashMap<>();
+    private final Map<String, List<String>> parameterNames = new HashMap<>();
+    private final List<String> lineKeys = new ArrayList<>();
+
+    /**
+     * Generates the source for the specified expressions.
+     *
+     * @param expressions the map of keys to expressions
+     * @param variableTypes the map of variable names to their types
+     * @param resultType the result type of all expressions
+     */
+    ExpressionSource(Map<String, String> expressions, Map<String, Class<?>> variableTypes, Class<?> resultType) {
+        StringBuilder builder = new StringBuilder();
+        builder.append("public class ").append(CLASS_NAME).append(" {\n");
+        lineKeys.add(null);
+
+        int index = 0;
+        for (Map.Entry<String, String> entry : expressions.entrySet()) {
+            String key = entry.getKey();
+            String expression = entry.getValue();
+            String methodName = "expression" + index++;
+            List<String> names = findParameterNames(expression, variableTypes.keySet());
+            methodNames.put(key, methodName);
+            parameterNames.put(key, names);
+
+            builder.append("    public static ").append(typeName(resultType)).append(" ").append(methodName).append("(");
+            for (int i = 0; i < names.size(); i++) {
+                if (i > 0) {
+                    builder.append(", ");
+                }
+                builder.append(typeName(variableTypes.get(names.get(i)))).append(" ").append(names.get(i));
+            }
+            // the closing parenthesis is on a separate line in case the expression ends with a line comment
+            builder.append(") { return (").append(expression).append("\n    ); }\n");
+
+            for (int i = 0; i <= countLines(expression) + 1; i++) {
+                lineKeys.add(key);
+            }
+        }
+
+        builder.append("}\n");
+        source = builder.toString();
+    }
+
+    String getSource() {
+        return source;
+    }
+
+    String getMethodName(String key) {
+        return methodNames.get(key);
+    }
+
+    List<String> getParameterNames(String key) {
+        return parameterNames.get(key);
+    }
+
+    /**
+     * Returns the key of the expression declared on the specified line of the generated source.
+     *
+     * @param lineNumber the line number (starting with 1)
+     * @return the key of the expression or {@code null} if the line does not belong to an expression
+     */
+    String getKey(long lineNumber) {
+        if (lineNumber < 1 || lineNumber > lineKeys.size()) {
+            return null;
+        }
+        return lineKeys.get((int) lineNumber - 1);
+    }
+
+    /**
+     * Finds the variables referenced by an expression.
+     *
+     * Identifiers inside comments, string and character literals, text blocks,
+     * qualified names (for example {@code Math.PI}) and method names are ignored.
+     * Names declared as lambda parameters (for example {@code x} in {@code list.stream().map(x -> x * 2)}) are ignored as well,
+     * since a parameter with the same name cannot be declared by the generated method.
+     *
+     * @param expression the expression
+     * @param variableNames the names of the known variables
+     * @return the referenced variable names in the order of their first use
+     */
+    static List<String> findParameterNames(String expression, Set<String> variableNames) {
+        String masked = SourceUtil.mask(expression);
+        Set<String> lambdaParameterNames = findLambdaParameterNames(masked);
+        Set<String> result = new LinkedHashSet<>();
+        Matcher matcher = IDENTIFIER_PATTERN.matcher(masked);
+        while (matcher.find()) {
+            String name = matcher.group(1);
+            if (variableNames.contains(name) && SourceVersion.isName(name) && !lambdaParameterNames.contains(name)) {
+                result.add(name);
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    private static Set<String> findLambdaParameterNames(String masked) {
+        Set<String> result = new HashSet<>();
+        Matcher matcher = LAMBDA_PARAMETER_PATTERN.matcher(masked);
+        while (matcher.find()) {
+            result.add(matcher.group(1));
+        }
+        matcher = LAMBDA_PARAMETERS_PATTERN.matcher(masked);
+        while (matcher.find()) {
+            for (String parameter : matcher.group(1).split(",")) {
+                Matcher nameMatcher = LAST_IDENTIFIER_PATTERN.matcher(parameter);
+                if (nameMatcher.find()) {
+                    result.add(nameMatcher.group(1));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the type of a variable with the specified value.
+     *
+     * Boxed primitive values are declared with their primitive type,
+     * values of non-public classes with their nearest public superclass.
+     *
+     * @param value the value or {@code null}
+     * @return the type to declare
+     */
+    static Class<?> variableType(Object value) {
+        if (value == null) {
+            return Object.class;
+        }
+        Class<?> type = value.getClass();
+        Class<?> primitiveType = MethodType.methodType(type).unwrap().returnType();
+        if (primitiveType != type) {
+            return primitiveType;
+        }
+        while (!Modifier.isPublic(type.getModifiers()) || type.getCanonicalName() == null) {
+            type = type.getSuperclass();
+        }
+        return type;
+    }
+
+    private static String typeName(Class<?> type) {
+        String name = type.getCanonicalName();
+        return name != null ? name : "Object";
+    }
+
+    private static int countLines(String text) {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+}
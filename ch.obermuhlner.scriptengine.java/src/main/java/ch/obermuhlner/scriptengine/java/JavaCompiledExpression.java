@@ -0,0 +1,220 @@
+package ch.obermuhlner.scriptengine.java;
+
+import javax.script.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandleProxies;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A Java expression compiled by {@link JavaScriptEngine#compileExpression(String)}
+ * or {@link JavaScriptEngine#compileExpressions(Map)}.
+ *
+ * The expression is compiled into a public static method of a generated class.
+ * The parameters of the method are the bindings referenced by the expression,
+ * so no instance is constructed and no public fields are pushed or pulled during the evaluation.
+ * Many expressions compiled together share a single generated class, one method per expression.
+ *
+ * Since the method is static and stateless, a compiled expression can be evaluated concurrently by multiple threads.
+ */
+public class JavaCompiledExpression extends CompiledScript {
+    private final JavaScriptEngine engine;
+    private final String expression;
+    private final Method method;
+    private final List<String> parameterNames;
+    private final MethodHandle methodHandle;
+    private final MethodHandle spreadMethodHandle;
+
+    /**
+     * Constructs a {@link JavaCompiledExpression}.
+     *
+     * @param engine the {@link JavaScriptEngine} that compiled this expression
+     * @param expression the expression
+     * @param method the public static {@link Method} that evaluates the expression
+     * @param parameterNames the names of the bindings passed as parameters to the method
+     * @throws ScriptException if the method is not accessible
+     */
+    JavaCompiledExpression(JavaScriptEngine engine, String expression, Method method, List<String> parameterNames) throws ScriptException {
+        this.engine = engine;
+        this.expression = expression;
+        this.method = method;
+        this.parameterNames = Collections.unmodifiableList(parameterNames);
+        try {
+            this.methodHandle = MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw new ScriptException(e);
+        }
+        this.spreadMethodHandle = methodHandle
+                .asType(methodHandle.type().generic())
+                .asSpreader(Object[].class, parameterNames.size());
+    }
+
+    /**
+     * Returns the expression.
+     *
+     * @return the expression
+     */
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * Returns the names of the bindings referenced by the expression,
+     * in the order of the parameters of the generated method.
+     *
+     * @return the unmodifiable list of parameter names
+     */
+    public List<String> getParameterNames() {
+        return parameterNames;
+    }
+
+    /**
+     * Returns the types of the parameters of the generated method.
+     *
+     * @return the list of parameter types, in the order of {@link #getParameterNames()}
+     */
+    public List<Class<?>> getParameterTypes() {
+        return Arrays.asList(method.getParameterTypes());
+    }
+
+    /**
+     * Returns the result type of the generated method.
+     *
+     * @return the result type
+     */
+    public Class<?> getResultType() {
+        return method.getReturnType();
+    }
+
+    /**
+     * Returns the generated public static method that evaluates the expression.
+     *
+     * @return the {@link Method}
+     */
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Returns a {@link MethodHandle} of the generated method, with the exact parameter and result types.
+     *
+     * This allows to call the expression with {@link MethodHandle#invokeExact(Object...)} without boxing.
+     *
+     * @return the {@link MethodHandle}
+     */
+    public MethodHandle getMethodHandle() {
+        return methodHandle;
+    }
+
+    /**
+     * Returns the expression as an instance of the specified functional interface.
+     *
+     * The parameters of the functional interface method must be compatible with the parameters
+     * of the generated method (in the order of {@link #getParameterNames()}).
+     * For example an expression {@code alpha * beta} with two {@code double} parameters and result type {@code double}
+     * can be called as {@link java.util.function.DoubleBinaryOperator} without any boxing.
+     *
+     * @param type the functional interface
+     * @param <T> the type of the functional interface
+     * @return the instance of the functional interface that calls the generated method
+     * @throws ScriptException if the type is not a functional interface or the types of its method are not compatible
+     */
+    public <T> T as(Class<T> type) throws ScriptException {
+        try {
+            return MethodHandleProxies.asInterfaceInstance(type, methodHandle);
+        } catch (IllegalArgumentException | WrongMethodTypeException e) {
+            throw new ScriptException("Expression " + expression + " cannot be called as " + type.getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Evaluates the expression with the specified arguments.
+     *
+     * @param arguments the arguments, in the order of {@link #getParameterNames()}
+     * @return the result of the expression
+     * @throws ScriptException if the arguments do not match the parameters or the expression threw an exception
+     */
+    public Object invoke(Object... arguments) throws ScriptException {
+        checkArguments(arguments);
+        try {
+            return spreadMethodHandle.invokeExact(arguments);
+        } catch (Exception e) {
+            throw new ScriptException(e);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ScriptException(new RuntimeException(e));
+        }
+    }
+
+    private void checkArguments(Object[] arguments) throws ScriptException {
+        if (arguments.length != parameterNames.size()) {
+            throw new ScriptException("Expected " + parameterNames.size() + " arguments " + parameterNames + " but got " + arguments.length);
+        }
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < arguments.length; i++) {
+            if (!isCompatible(parameterTypes[i], arguments[i])) {
+                throw new ScriptException("Argument " + arguments[i] + " does not match parameter " + parameterNames.get(i) + " of type " + parameterTypes[i].getName());
+            }
+        }
+    }
+
+    private static boolean isCompatible(Class<?> parameterType, Object argument) {
+        if (!parameterType.isPrimitive()) {
+            return argument == null || parameterType.isInstance(argument);
+        }
+        if (parameterType == boolean.class) {
+            return argument instanceof Boolean;
+        }
+        if (parameterType == char.class) {
+            return argument instanceof Character;
+        }
+        return argument instanceof Number || argument instanceof Character;
+    }
+
+    @Override
+    public Object eval(ScriptContext context) throws ScriptException {
+        Object[] arguments = new Object[parameterNames.size()];
+        for (int i = 0; i < arguments.length; i++) {
+            String name = parameterNames.get(i);
+            int scope = context.getAttributesScope(name);
+            if (scope == -1) {
+                throw new ScriptException("No binding for parameter " + name + " of expression: " + expression);
+            }
+            arguments[i] = context.getAttribute(name, scope);
+        }
+        return invoke(arguments);
+    }
+
+    @Override
+    public Object eval(Bindings bindings) throws ScriptException {
+        Bindings globalBindings = engine.getContext().getBindings(ScriptContext.GLOBAL_SCOPE);
+        Object[] arguments = new Object[parameterNames.size()];
+        for (int i = 0; i < arguments.length; i++) {
+            String name = parameterNames.get(i);
+            if (bindings.containsKey(name)) {
+                arguments[i] = bindings.get(name);
+            } else if (globalBindings != null && globalBindings.containsKey(name)) {
+                arguments[i] = globalBindings.get(name);
+            } else {
+                throw new ScriptException("No binding for parameter " + name + " of expression: " + expression);
+            }
+        }
+        return invoke(arguments);
+    }
+
+    @Override
+    public ScriptEngine getEngine() {
+        return engine;
+    }
+
+    @Override
+    public String toString() {
+        return "JavaCompiledExpression{" + expression + "}";
+    }
+}
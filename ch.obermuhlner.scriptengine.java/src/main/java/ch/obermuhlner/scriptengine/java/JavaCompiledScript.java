@@ -1,22 +1,55 @@
 package ch.obermuhlner.scriptengine.java;
 
+import ch.obermuhlner.scriptengine.java.async.ScriptExecutors;
 import ch.obermuhlner.scriptengine.java.bindings.BindingStrategy;
+import ch.obermuhlner.scriptengine.java.bindings.FieldAccessors;
+import ch.obermuhlner.scriptengine.java.bindings.WriteBackMode;
+import ch.obermuhlner.scriptengine.java.cache.ScriptCacheKey;
+import ch.obermuhlner.scriptengine.java.constructor.ConstructorStrategy;
 import ch.obermuhlner.scriptengine.java.execution.ExecutionStrategy;
+import ch.obermuhlner.scriptengine.java.instance.InstanceFactory;
+import ch.obermuhlner.scriptengine.java.instance.InstanceStrategy;
+import ch.obermuhlner.scriptengine.java.metrics.MetricsListener;
+import ch.obermuhlner.scriptengine.java.metrics.MetricsPhase;
+import ch.obermuhlner.scriptengine.java.metrics.ScriptProfiler;
 
 import javax.script.*;
-import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * The compiled Java script created by a {@link JavaScriptEngine}.
+ *
+ * Before the evaluation the bindings are copied into the public fields of the script instance with the same name
+ * and after the evaluation the fields are copied back into the bindings.
+ * Every binding in the engine scope must have a matching public field,
+ * bindings in the global scope without matching field are ignored.
+ *
+ * Whether a compiled script can be evaluated concurrently by multiple threads
+ * depends on its {@link InstanceStrategy}.
+ *
+ * A compiled script that is not used anymore should be {@link #close() closed},
+ * so that its class can be unloaded as soon as the script is not referenced anymore.
  */
-public class JavaCompiledScript extends CompiledScript {
+public class JavaCompiledScript extends CompiledScript implements AutoCloseable {
     private final JavaScriptEngine engine;
     private final Class<?> compiledClass;
     private final Object compiledInstance;
-    private ExecutionStrategy executionStrategy;
-    private BindingStrategy bindingStrategy;
+    private final FieldAccessors fieldAccessors;
+    private final ConstructorStrategy constructorStrategy;
+    private volatile ExecutionStrategy executionStrategy;
+    private volatile BindingStrategy bindingStrategy;
+    private volatile InstanceStrategy instanceStrategy;
+    private volatile WriteBackMode writeBackMode;
+    private volatile ScriptCacheKey cacheKey;
+    private volatile boolean closed;
 
     /**
      * Construct a {@link JavaCompiledScript}.
@@ -26,14 +59,22 @@ public class JavaCompiledScript extends CompiledScript {
      * @param compiledInstance the instance of the compiled {@link Class} or {@code null}
      *                         if no instance was created and only static methods will be called
      *                         by the the {@link ExecutionStrategy}.
+     * @param constructorStrategy the {@link ConstructorStrategy} used to construct additional instances
      * @param executionStrategy the {@link ExecutionStrategy}
+     * @param bindingStrategy the {@link BindingStrategy} or {@code null}
+     * @param instanceStrategy the {@link InstanceStrategy}
+     * @param writeBackMode the {@link WriteBackMode}
      */
-    JavaCompiledScript(JavaScriptEngine engine, Class<?> compiledClass, Object compiledInstance, ExecutionStrategy executionStrategy, BindingStrategy bindingStrategy) {
+    JavaCompiledScript(JavaScriptEngine engine, Class<?> compiledClass, Object compiledInstance, ConstructorStrategy constructorStrategy, ExecutionStrategy executionStrategy, BindingStrategy bindingStrategy, InstanceStrategy instanceStrategy, WriteBackMode writeBackMode) {
         this.engine = engine;
         this.compiledClass = compiledClass;
         this.compiledInstance = compiledInstance;
+        this.fieldAccessors = FieldAccessors.of(compiledClass);
+        this.constructorStrategy = constructorStrategy;
         this.executionStrategy = executionStrategy;
         this.bindingStrategy = bindingStrategy;
+        this.instanceStrategy = instanceStrategy;
+        this.writeBackMode = writeBackMode;
     }
 
     /**
@@ -48,6 +89,9 @@ public class JavaCompiledScript extends CompiledScript {
     /**
      * Returns the instance of the compiled {@link Class}.
      *
+     * This is the instance constructed when the script was compiled.
+     * Depending on the {@link InstanceStrategy} the script may be evaluated on other instances.
+     *
      * @return the instance of the compiled {@link Class} or {@code null}
      *         if no instance was created and only static methods will be called
      *         by the the {@link ExecutionStrategy}.
@@ -56,6 +100,63 @@ public class JavaCompiledScript extends CompiledScript {
         return compiledInstance;
     }
 
+    /**
+     * Returns the instance of the compiled {@link Class} as the specified interface (or superclass).
+     *
+     * The returned instance is called directly, without pushing or pulling any bindings
+     * and without going through the {@link ExecutionStrategy}.
+     * This is the fastest way to call a compiled script repeatedly,
+     * for example a script implementing {@link java.util.function.DoubleUnaryOperator}.
+     *
+     * The returned instance is the instance constructed when the script was compiled,
+     * use {@link #asFactory(Class)} to create separate instances (for example one per thread).
+     *
+     * @param type the interface or class that the compiled class implements
+     * @param <T> the type of the returned instance
+     * @return the instance of the compiled {@link Class}
+     * @throws ScriptException if the compiled class does not implement the specified type
+     *         or if no instance was constructed
+     */
+    public <T> T as(Class<T> type) throws ScriptException {
+        checkOpen();
+        checkAssignable(type);
+        if (compiledInstance == null) {
+            throw new ScriptException("No instance of " + compiledClass.getName() + " was constructed");
+        }
+        return type.cast(compiledInstance);
+    }
+
+    /**
+     * Returns a factory that constructs new instances of the compiled {@link Class} as the specified interface (or superclass).
+     *
+     * The instances are constructed with the {@link ConstructorStrategy} of the {@link JavaScriptEngine}
+     * that compiled this script.
+     *
+     * @param type the interface or class that the compiled class implements
+     * @param <T> the type of the created instances
+     * @return the {@link InstanceFactory}
+     * @throws ScriptException if the compiled class does not implement the specified type
+     * @see #as(Class)
+     */
+    public <T> InstanceFactory<T> asFactory(Class<T> type) throws ScriptException {
+        checkOpen();
+        checkAssignable(type);
+        return () -> {
+            checkOpen();
+            Object instance = constructorStrategy.construct(compiledClass);
+            if (instance == null) {
+                throw new ScriptException("No instance of " + compiledClass.getName() + " was constructed");
+            }
+            return type.cast(instance);
+        };
+    }
+
+    private void checkAssignable(Class<?> type) throws ScriptException {
+        if (!type.isAssignableFrom(compiledClass)) {
+            throw new ScriptException("Compiled class " + compiledClass.getName() + " does not implement " + type.getName());
+        }
+    }
+
     /**
      * Returns the compiled {@link Class}.
      *
@@ -91,50 +192,535 @@ public class JavaCompiledScript extends CompiledScript {
         this.executionStrategy = executionStrategy;
     }
 
+    /**
+     * Sets the {@link InstanceStrategy} that provides the instances this script is evaluated on.
+     *
+     * @param instanceStrategy the {@link InstanceStrategy}
+     */
+    public void setInstanceStrategy(InstanceStrategy instanceStrategy) {
+        Objects.requireNonNull(instanceStrategy);
+        this.instanceStrategy = instanceStrategy;
+    }
+
+    /**
+     * Returns the {@link InstanceStrategy} that provides the instances this script is evaluated on.
+     *
+     * @return the {@link InstanceStrategy}
+     */
+    public InstanceStrategy getInstanceStrategy() {
+        return instanceStrategy;
+    }
+
+    /**
+     * Sets the {@link WriteBackMode} that defines which public fields are written back into the bindings after an evaluation.
+     *
+     * The {@link WriteBackMode} is ignored if a {@link BindingStrategy} is used.
+     *
+     * @param writeBackMode the {@link WriteBackMode}
+     */
+    public void setWriteBackMode(WriteBackMode writeBackMode) {
+        Objects.requireNonNull(writeBackMode);
+        this.writeBackMode = writeBackMode;
+    }
+
+    /**
+     * Returns the {@link WriteBackMode} that defines which public fields are written back into the bindings after an evaluation.
+     *
+     * @return the {@link WriteBackMode}
+     */
+    public WriteBackMode getWriteBackMode() {
+        return writeBackMode;
+    }
+
     @Override
     public ScriptEngine getEngine() {
         return engine;
     }
 
+    /**
+     * Closes this compiled script.
+     *
+     * The compiled class is removed from the {@link ch.obermuhlner.scriptengine.java.cache.CompiledScriptCache}
+     * of the {@link JavaScriptEngine}, so that the engine does not keep the class loaded.
+     * The class is unloaded by the garbage collector as soon as this script,
+     * the instances of the class and all other scripts sharing the same class are not referenced anymore,
+     * see {@link JavaScriptEngine#getClassLoaderTracker()}.
+     * The {@link InstanceStrategy} is {@link InstanceStrategy#close() closed} as well,
+     * so that it drops the instances it keeps (for example per thread).
+     *
+     * A closed script cannot be evaluated anymore.
+     * Closing a script that is already closed does nothing.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        instanceStrategy.close();
+        engine.release(this);
+    }
+
+    /**
+     * Returns whether this compiled script is closed.
+     *
+     * @return {@code true} if this script is closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    ScriptCacheKey getCacheKey() {
+        return cacheKey;
+    }
+
+    void setCacheKey(ScriptCacheKey cacheKey) {
+        this.cacheKey = cacheKey;
+    }
+
+    private void checkOpen() throws ScriptException {
+        if (closed) {
+            throw new ScriptException("Compiled script is closed: " + compiledClass.getName());
+        }
+    }
+
     @Override
     public Object eval(ScriptContext context) throws ScriptException {
         Bindings globalBindings = context.getBindings(ScriptContext.GLOBAL_SCOPE);
         Bindings engineBindings = context.getBindings(ScriptContext.ENGINE_SCOPE);
 
-        pushVariables(globalBindings, engineBindings);
-        Object result = executionStrategy.execute(compiledInstance);
-        pullVariables(globalBindings, engineBindings);
+        return eval(globalBindings, engineBindings);
+    }
 
-        return result;
+    @Override
+    public Object eval(Bindings bindings) throws ScriptException {
+        // avoids the temporary ScriptContext created by CompiledScript.eval(Bindings)
+        ScriptContext context = engine.getContext();
+        if (bindings == null) {
+            return eval(context);
+        }
+        return eval(context.getBindings(ScriptContext.GLOBAL_SCOPE), bindings);
     }
 
-    private void pushVariables(Bindings globalBindings, Bindings engineBindings) throws ScriptException {
-        Map<String, Object> mergedBindings = mergeBindings(globalBindings, engineBindings);
-        
-        if (bindingStrategy != null)
-        {
-        	bindingStrategy.associateBindings(compiledClass, compiledInstance, mergedBindings);
-        	return;
+    /**
+     * Evaluates the script asynchronously with the bindings of the {@link ScriptContext} of the engine.
+     *
+     * @return the {@link CompletableFuture} of the result
+     * @see #evalAsync(Bindings)
+     */
+    public CompletableFuture<Object> evalAsync() {
+        return evalAsync(null);
+    }
+
+    /**
+     * Evaluates the script asynchronously with the async executor of the {@link JavaScriptEngine} that compiled this script.
+     *
+     * Concurrent evaluations of the same script must be supported by the {@link InstanceStrategy}.
+     *
+     * @param bindings the engine scope {@link Bindings} or {@code null} to use the bindings of the {@link ScriptContext} of the engine
+     * @return the {@link CompletableFuture} of the result,
+     *         it fails with a {@link ScriptException} if the script could not be evaluated
+     *         or with a {@link java.util.concurrent.RejectedExecutionException} if the executor has too many pending tasks
+     * @see JavaScriptEngine#setAsyncExecutor(java.util.concurrent.Executor)
+     */
+    public CompletableFuture<Object> evalAsync(Bindings bindings) {
+        return ScriptExecutors.supplyAsync(() -> eval(bindings), engine.getAsyncExecutor());
+    }
+
+    /**
+     * Evaluates the script with the bindings of the {@link ScriptContext} of the engine and returns a {@code double}.
+     *
+     * @return the {@code double} result of the script
+     * @throws ScriptException if the script could not be evaluated or does not return a {@code double}
+     * @see #evalDouble(Bindings)
+     */
+    public double evalDouble() throws ScriptException {
+        return evalDouble(null);
+    }
+
+    /**
+     * Evaluates the script with the specified bindings and returns a {@code double}.
+     *
+     * The result is not boxed if the script class implements {@link java.util.function.DoubleSupplier}
+     * (or the {@link ExecutionStrategy} returns the primitive value directly).
+     *
+     * @param bindings the engine scope {@link Bindings} or {@code null} to use the bindings of the {@link ScriptContext} of the engine
+     * @return the {@code double} result of the script
+     * @throws ScriptException if the script could not be evaluated or does not return a {@code double}
+     * @see ExecutionStrategy#executeDouble(Object)
+     */
+    public double evalDouble(Bindings bindings) throws ScriptException {
+        return Double.longBitsToDouble(evalPrimitive(bindings, PrimitiveResult.DoubleResult));
+    }
+
+    /**
+     * Evaluates the script with the bindings of the {@link ScriptContext} of the engine and returns a {@code int}.
+     *
+     * @return the {@code int} result of the script
+     * @throws ScriptException if the script could not be evaluated or does not return a {@code int}
+     * @see #evalInt(Bindings)
+     */
+    public int evalInt() throws ScriptException {
+        return evalInt(null);
+    }
+
+    /**
+     * Evaluates the script with the specified bindings and returns a {@code int}.
+     *
+     * The result is not boxed if the script class implements {@link java.util.function.IntSupplier}
+     * (or the {@link ExecutionStrategy} returns the primitive value directly).
+     *
+     * @param bindings the engine scope {@link Bindings} or {@code null} to use the bindings of the {@link ScriptContext} of the engine
+     * @return the {@code int} result of the script
+     * @throws ScriptException if the script could not be evaluated or does not return a {@code int}
+     * @see ExecutionStrategy#executeInt(Object)
+     */
+    public int evalInt(Bindings bindings) throws ScriptException {
+        return (int) evalPrimitive(bindings, PrimitiveResult.IntResult);
+    }
+
+    /**
+     * Evaluates the script with the bindings of the {@link ScriptContext} of the engine and returns a {@code long}.
+     *
+     * @return the {@code long} result of the script
+     * @throws ScriptException if the script could not be evaluated or does not return a {@code long}
+     * @see #evalLong(Bindings)
+     */
+    public long evalLong() throws ScriptException {
+        return evalLong(null);
+    }
+
+    /**
+     * Evaluates the script with the specified bindings and returns a {@code long}.
+     *
+     * The result is not boxed if the script class implements {@link java.util.function.LongSupplier}
+     * (or the {@link ExecutionStrategy} returns the primitive value directly).
+     *
+     * @param bindings the engine scope {@link Bindings} or {@code null} to use the bindings of the {@link ScriptContext} of the engine
+     * @return the {@code long} result of the script
+     * @throws ScriptException if the script could not be evaluated or does not return a {@code long}
+     * @see ExecutionStrategy#executeLong(Object)
+     */
+    public long evalLong(Bindings bindings) throws ScriptException {
+        return evalPrimitive(bindings, PrimitiveResult.LongResult);
+    }
+
+    /**
+     * Evaluates the script with the bindings of the {@link ScriptContext} of the engine and returns a {@code boolean}.
+     *
+     * @return the {@code boolean} result of the script
+     * @throws ScriptException if the script could not be evaluated or does not return a {@code boolean}
+     * @see #evalBoolean(Bindings)
+     */
+    public boolean evalBoolean() throws ScriptException {
+        return evalBoolean(null);
+    }
+
+    /**
+     * Evaluates the script with the specified bindings and returns a {@code boolean}.
+     *
+     * The result is not boxed if the script class implements {@link java.util.function.BooleanSupplier}
+     * (or the {@link ExecutionStrategy} returns the primitive value directly).
+     *
+     * @param bindings the engine scope {@link Bindings} or {@code null} to use the bindings of the {@link ScriptContext} of the engine
+     * @return the {@code boolean} result of the script
+     * @throws ScriptException if the script could not be evaluated or does not return a {@code boolean}
+     * @see ExecutionStrategy#executeBoolean(Object)
+     */
+    public boolean evalBoolean(Bindings bindings) throws ScriptException {
+        return evalPrimitive(bindings, PrimitiveResult.BooleanResult) != 0;
+    }
+
+    /**
+     * Evaluates the script once for every row of the specified columns and returns the {@code double} results.
+     *
+     * Every column is written directly into the public field with the same name before each evaluation,
+     * without going through any {@link Bindings}.
+     * Public fields without matching column keep their values and nothing is written back after the evaluations.
+     *
+     * The script is evaluated on a single instance provided by the {@link InstanceStrategy}.
+     *
+     * @param columns the input values per field name, all columns must have the same length
+     * @return the results, one per row
+     * @throws ScriptException if a column has no matching public field,
+     *         the columns have different lengths or the script could not be evaluated
+     * @see #evalDouble(Bindings)
+     */
+    public double[] evalDoubleBatch(Map<String, double[]> columns) throws ScriptException {
+        BatchColumns batchColumns = new BatchColumns(columns);
+        double[] results = new double[batchColumns.rowCount];
+
+        checkOpen();
+        InstanceStrategy instanceStrategy = this.instanceStrategy;
+        Object instance = instanceStrategy.acquire();
+        try {
+            evalDoubleBatch(batchColumns, instance, 0, batchColumns.rowCount, results);
+        } finally {
+            instanceStrategy.release(instance);
         }
+        return results;
+    }
+
+    /**
+     * Evaluates the script once for every row of the specified columns in parallel and returns the {@code double} results.
+     *
+     * The rows are split into one chunk per worker of the {@link ForkJoinPool}.
+     * Every chunk is evaluated on a separate instance
+     * constructed with the {@link ConstructorStrategy} of the {@link JavaScriptEngine} that compiled this script.
+     *
+     * @param columns the input values per field name, all columns must have the same length
+     * @param pool the {@link ForkJoinPool} that evaluates the chunks
+     * @return the results, one per row
+     * @throws ScriptException if a column has no matching public field,
+     *         the columns have different lengths, no instance could be constructed or the script could not be evaluated
+     * @see #evalDoubleBatch(Map)
+     */
+    public double[] evalDoubleBatch(Map<String, double[]> columns, ForkJoinPool pool) throws ScriptException {
+        checkOpen();
+        BatchColumns batchColumns = new BatchColumns(columns);
+        int rowCount = batchColumns.rowCount;
+        double[] results = new double[rowCount];
 
-        for (Map.Entry<String, Object> entry : mergedBindings.entrySet()) {
-            String name = entry.getKey();
-            Object value = entry.getValue();
+        int chunkCount = Math.max(1, Math.min(pool.getParallelism(), rowCount));
+        List<ForkJoinTask<Void>> tasks = new ArrayList<>(chunkCount);
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            int startRow = (int) ((long) rowCount * chunk / chunkCount);
+            int endRow = (int) ((long) rowCount * (chunk + 1) / chunkCount);
+            Object instance = constructorStrategy.construct(compiledClass);
+            if (instance == null) {
+                throw new ScriptException("No instance of " + compiledClass.getName() + " was constructed");
+            }
+            tasks.add(pool.submit(() -> {
+                evalDoubleBatch(batchColumns, instance, startRow, endRow, results);
+                return null;
+            }));
+        }
 
+        for (ForkJoinTask<Void> task : tasks) {
             try {
-                Field field = compiledClass.getField(name);
-                field.set(compiledInstance, value);
-            } catch (NoSuchFieldException | IllegalAccessException e) {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
                 throw new ScriptException(e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof ScriptException) {
+                    throw (ScriptException) cause;
+                }
+                throw new ScriptException(cause instanceof Exception ? (Exception) cause : e);
+            }
+        }
+        return results;
+    }
+
+    private void evalDoubleBatch(BatchColumns batchColumns, Object instance, int startRow, int endRow, double[] results) throws ScriptException {
+        ExecutionStrategy executionStrategy = this.executionStrategy;
+        int[] fieldIndexes = batchColumns.fieldIndexes;
+        double[][] values = batchColumns.values;
+        for (int row = startRow; row < endRow; row++) {
+            for (int column = 0; column < fieldIndexes.length; column++) {
+                fieldAccessors.setDouble(fieldIndexes[column], instance, values[column][row]);
             }
+            results[row] = executionStrategy.executeDouble(instance);
         }
     }
 
-    private void pullVariables(Bindings globalBindings, Bindings engineBindings) throws ScriptException {
+    /**
+     * The columns of a batch evaluation resolved to the field indexes of the compiled class.
+     */
+    private class BatchColumns {
+        final int[] fieldIndexes;
+        final double[][] values;
+        final int rowCount;
+
+        BatchColumns(Map<String, double[]> columns) throws ScriptException {
+            fieldIndexes = new int[columns.size()];
+            values = new double[columns.size()][];
+
+            int rows = -1;
+            int column = 0;
+            for (Map.Entry<String, double[]> entry : columns.entrySet()) {
+                int fieldIndex = fieldAccessors.indexOf(entry.getKey());
+                if (fieldIndex < 0) {
+                    throw new ScriptException("No public field for column: " + entry.getKey());
+                }
+                double[] columnValues = Objects.requireNonNull(entry.getValue());
+                if (rows >= 0 && columnValues.length != rows) {
+                    throw new ScriptException("Column " + entry.getKey() + " has " + columnValues.length + " rows instead of " + rows);
+                }
+                rows = columnValues.length;
+                fieldIndexes[column] = fieldIndex;
+                values[column] = columnValues;
+                column++;
+            }
+            rowCount = Math.max(rows, 0);
+        }
+    }
+
+    private Object eval(Bindings globalBindings, Bindings engineBindings) throws ScriptException {
+        checkOpen();
+        MetricsListener metrics = engine.getMetricsListener();
+        ScriptProfiler profiler = engine.getScriptProfiler();
+        if (metrics != null || profiler != null) {
+            return eval(globalBindings, engineBindings, metrics, profiler);
+        }
+
+        InstanceStrategy instanceStrategy = this.instanceStrategy;
+        Object instance = instanceStrategy.acquire();
+        try {
+            WriteBackMode writeBackMode = this.writeBackMode;
+            Object[] snapshot = pushVariables(instance, globalBindings, engineBindings, writeBackMode);
+            Object result = executionStrategy.execute(instance);
+            pullVariables(instance, globalBindings, engineBindings, writeBackMode, snapshot);
+
+            return result;
+        } finally {
+            instanceStrategy.release(instance);
+        }
+    }
+
+    private Object eval(Bindings globalBindings, Bindings engineBindings, MetricsListener metrics, ScriptProfiler profiler) throws ScriptException {
+        long startNanos = System.nanoTime();
+        long startBytes = profiler != null ? profiler.getCurrentThreadAllocatedBytes() : 0;
+        boolean success = false;
+        InstanceStrategy instanceStrategy = this.instanceStrategy;
+        Object instance = instanceStrategy.acquire();
+        try {
+            long phaseNanos = metrics != null ? System.nanoTime() : 0;
+            WriteBackMode writeBackMode = this.writeBackMode;
+            Object[] snapshot = pushVariables(instance, globalBindings, engineBindings, writeBackMode);
+            phaseNanos = reportPhase(metrics, MetricsPhase.Push, phaseNanos);
+            Object result = executionStrategy.execute(instance);
+            phaseNanos = reportPhase(metrics, MetricsPhase.Execution, phaseNanos);
+            pullVariables(instance, globalBindings, engineBindings, writeBackMode, snapshot);
+            reportPhase(metrics, MetricsPhase.Pull, phaseNanos);
+
+            success = true;
+            return result;
+        } finally {
+            instanceStrategy.release(instance);
+            reportEvaluation(metrics, profiler, startNanos, startBytes, success);
+        }
+    }
+
+    /**
+     * Evaluates the script with the specified bindings and a primitive result,
+     * shared by {@link #evalDouble(Bindings)}, {@link #evalInt(Bindings)}, {@link #evalLong(Bindings)} and {@link #evalBoolean(Bindings)}.
+     *
+     * The primitive result is returned as raw bits in a {@code long}, so that it is never boxed.
+     *
+     * @param bindings the engine scope {@link Bindings} or {@code null} to use the bindings of the {@link ScriptContext} of the engine
+     * @param resultType the {@link PrimitiveResult} that defines how the script is executed
+     * @return the raw bits of the primitive result
+     * @throws ScriptException if the script could not be evaluated
+     */
+    private long evalPrimitive(Bindings bindings, PrimitiveResult resultType) throws ScriptException {
+        ScriptContext context = engine.getContext();
+        Bindings globalBindings = context.getBindings(ScriptContext.GLOBAL_SCOPE);
+        Bindings engineBindings = bindings != null ? bindings : context.getBindings(ScriptContext.ENGINE_SCOPE);
+
+        checkOpen();
+        MetricsListener metrics = engine.getMetricsListener();
+        ScriptProfiler profiler = engine.getScriptProfiler();
+        long startNanos = metrics != null || profiler != null ? System.nanoTime() : 0;
+        long startBytes = profiler != null ? profiler.getCurrentThreadAllocatedBytes() : 0;
+        boolean success = false;
+        InstanceStrategy instanceStrategy = this.instanceStrategy;
+        Object instance = instanceStrategy.acquire();
+        try {
+            long phaseNanos = metrics != null ? System.nanoTime() : 0;
+            WriteBackMode writeBackMode = this.writeBackMode;
+            Object[] snapshot = pushVariables(instance, globalBindings, engineBindings, writeBackMode);
+            phaseNanos = reportPhase(metrics, MetricsPhase.Push, phaseNanos);
+            long result = resultType.execute(executionStrategy, instance);
+            phaseNanos = reportPhase(metrics, MetricsPhase.Execution, phaseNanos);
+            pullVariables(instance, globalBindings, engineBindings, writeBackMode, snapshot);
+            reportPhase(metrics, MetricsPhase.Pull, phaseNanos);
+
+            success = true;
+            return result;
+        } finally {
+            instanceStrategy.release(instance);
+            reportEvaluation(metrics, profiler, startNanos, startBytes, success);
+        }
+    }
+
+    private static long reportPhase(MetricsListener metrics, MetricsPhase phase, long startNanos) {
+        if (metrics == null) {
+            return startNanos;
+        }
+        long endNanos = System.nanoTime();
+        metrics.phaseCompleted(phase, endNanos - startNanos);
+        return endNanos;
+    }
+
+    private void reportEvaluation(MetricsListener metrics, ScriptProfiler profiler, long startNanos, long startBytes, boolean success) {
+        if (metrics == null && profiler == null) {
+            return;
+        }
+
+        long nanos = System.nanoTime() - startNanos;
+        if (metrics != null) {
+            if (success) {
+                metrics.scriptEvaluated(nanos);
+            } else {
+                metrics.evaluationFailed();
+            }
+        }
+        if (profiler != null) {
+            long allocatedBytes = profiler.getCurrentThreadAllocatedBytes() - startBytes;
+            profiler.record(compiledClass.getName(), nanos, allocatedBytes, !success);
+        }
+    }
+
+    private Object[] pushVariables(Object instance, Bindings globalBindings, Bindings engineBindings, WriteBackMode writeBackMode) throws ScriptException {
+        BindingStrategy bindingStrategy = this.bindingStrategy;
+        if (bindingStrategy != null)
+        {
+        	Map<String, Object> mergedBindings = mergeBindings(globalBindings, engineBindings);
+        	bindingStrategy.associateBindings(compiledClass, instance, mergedBindings);
+        	return null;
+        }
+
+        // looks up the known fields in the bindings instead of merging the bindings, so that no memory is allocated
+        int engineMatches = 0;
+        for (int i = 0; i < fieldAccessors.size(); i++) {
+            if (fieldAccessors.isHidden(i)) {
+                continue;
+            }
+
+            String name = fieldAccessors.getName(i);
+            if (containsKey(engineBindings, name)) {
+                fieldAccessors.set(i, instance, engineBindings.get(name));
+                engineMatches++;
+            } else if (containsKey(globalBindings, name)) {
+                fieldAccessors.set(i, instance, globalBindings.get(name));
+            }
+        }
+
+        if (engineMatches != size(engineBindings)) {
+            throw new ScriptException("No public field for binding: " + findUnknownBinding(engineBindings));
+        }
+
+        return writeBackMode == WriteBackMode.ChangedFields ? snapshotVariables(instance) : null;
+    }
+
+    private Object[] snapshotVariables(Object instance) throws ScriptException {
+        Object[] snapshot = new Object[fieldAccessors.size()];
+        for (int i = 0; i < snapshot.length; i++) {
+            if (!fieldAccessors.isHidden(i)) {
+                snapshot[i] = fieldAccessors.get(i, instance);
+            }
+        }
+        return snapshot;
+    }
+
+    private void pullVariables(Object instance, Bindings globalBindings, Bindings engineBindings, WriteBackMode writeBackMode, Object[] snapshot) throws ScriptException {
     	
+        BindingStrategy bindingStrategy = this.bindingStrategy;
         if (bindingStrategy != null)
         {
-        	Map<String, Object> retrievedBindings = bindingStrategy.retrieveBindings(compiledClass, compiledInstance);
+        	Map<String, Object> retrievedBindings = bindingStrategy.retrieveBindings(compiledClass, instance);
         	
         	for (Map.Entry<String, Object> entry : retrievedBindings.entrySet()) {
                   String name = entry.getKey();
@@ -147,25 +733,56 @@ public class JavaCompiledScript extends CompiledScript {
         }
     	
     	
-        for (Field field : compiledClass.getFields()) {
-            try {
-                String name = field.getName();
-                Object value = field.get(compiledInstance);
-                setBindingsValue(globalBindings, engineBindings, name, value);
-            } catch (IllegalAccessException e) {
-                throw new ScriptException(e);
+        for (int i = 0; i < fieldAccessors.size(); i++) {
+            if (fieldAccessors.isHidden(i)) {
+                continue;
+            }
+
+            if (writeBackMode == WriteBackMode.AnnotatedFields && !fieldAccessors.isOutput(i)) {
+                continue;
+            }
+
+            String name = fieldAccessors.getName(i);
+            Object value = fieldAccessors.get(i, instance);
+            if (snapshot != null && isUnchanged(i, snapshot[i], value)) {
+                continue;
             }
+            setBindingsValue(globalBindings, engineBindings, name, value);
         }
     }
 
+    private boolean isUnchanged(int index, Object oldValue, Object newValue) {
+        if (fieldAccessors.isPrimitive(index)) {
+            return Objects.equals(oldValue, newValue);
+        }
+        return oldValue == newValue;
+    }
+
     private void setBindingsValue(Bindings globalBindings, Bindings engineBindings, String name, Object value) {
-        if (!engineBindings.containsKey(name) && globalBindings.containsKey(name)) {
+        if (!engineBindings.containsKey(name) && containsKey(globalBindings, name)) {
             globalBindings.put(name, value);
         } else {
             engineBindings.put(name, value);
         }
     }
 
+    private String findUnknownBinding(Bindings bindings) {
+        for (String name : bindings.keySet()) {
+            if (fieldAccessors.indexOf(name) < 0) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    private static boolean containsKey(Bindings bindings, String name) {
+        return bindings != null && bindings.containsKey(name);
+    }
+
+    private static int size(Bindings bindings) {
+        return bindings == null ? 0 : bindings.size();
+    }
+
     private Map<String, Object> mergeBindings(Bindings... bindingsToMerge) {
         Map<String, Object> variables = new HashMap<>();
 
@@ -179,4 +796,36 @@ public class JavaCompiledScript extends CompiledScript {
 
         return variables;
     }
+
+    /**
+     * The primitive result types of {@link #evalPrimitive(Bindings, PrimitiveResult)}.
+     */
+    private enum PrimitiveResult {
+        DoubleResult {
+            @Override
+            long execute(ExecutionStrategy executionStrategy, Object instance) throws ScriptException {
+                return Double.doubleToRawLongBits(executionStrategy.executeDouble(instance));
+            }
+        },
+        IntResult {
+            @Override
+            long execute(ExecutionStrategy executionStrategy, Object instance) throws ScriptException {
+                return executionStrategy.executeInt(instance);
+            }
+        },
+        LongResult {
+            @Override
+            long execute(ExecutionStrategy executionStrategy, Object instance) throws ScriptException {
+                return executionStrategy.executeLong(instance);
+            }
+        },
+        BooleanResult {
+            @Override
+            long execute(ExecutionStrategy executionStrategy, Object instance) throws ScriptException {
+                return executionStrategy.executeBoolean(instance) ? 1 : 0;
+            }
+        };
+
+        abstract long execute(ExecutionStrategy executionStrategy, Object instance) throws ScriptException;
+    }
 }
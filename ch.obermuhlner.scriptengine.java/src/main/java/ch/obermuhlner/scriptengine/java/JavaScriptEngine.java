@@ -1,15 +1,27 @@
 package ch.obermuhlner.scriptengine.java;
 
+import ch.obermuhlner.scriptengine.java.async.ScriptExecutors;
 import ch.obermuhlner.scriptengine.java.bindings.BindingStrategy;
+import ch.obermuhlner.scriptengine.java.bindings.WriteBackMode;
+import ch.obermuhlner.scriptengine.java.cache.BytecodeCache;
+import ch.obermuhlner.scriptengine.java.cache.CompiledScriptCache;
+import ch.obermuhlner.scriptengine.java.cache.ScriptCacheKey;
 import ch.obermuhlner.scriptengine.java.compilation.CompilationStrategy;
 import ch.obermuhlner.scriptengine.java.compilation.DefaultCompilationStrategy;
 import ch.obermuhlner.scriptengine.java.compilation.NoInterceptorStrategy;
 import ch.obermuhlner.scriptengine.java.compilation.ScriptInterceptorStrategy;
+import ch.obermuhlner.scriptengine.java.compilation.StandardFileManagerPool;
 import ch.obermuhlner.scriptengine.java.constructor.ConstructorStrategy;
 import ch.obermuhlner.scriptengine.java.constructor.DefaultConstructorStrategy;
 import ch.obermuhlner.scriptengine.java.execution.DefaultExecutionStrategy;
 import ch.obermuhlner.scriptengine.java.execution.ExecutionStrategy;
 import ch.obermuhlner.scriptengine.java.execution.ExecutionStrategyFactory;
+import ch.obermuhlner.scriptengine.java.instance.InstanceStrategy;
+import ch.obermuhlner.scriptengine.java.instance.InstanceStrategyFactory;
+import ch.obermuhlner.scriptengine.java.instance.SharedInstanceStrategy;
+import ch.obermuhlner.scriptengine.java.metrics.MetricsListener;
+import ch.obermuhlner.scriptengine.java.metrics.MetricsPhase;
+import ch.obermuhlner.scriptengine.java.metrics.ScriptProfiler;
 import ch.obermuhlner.scriptengine.java.name.NameStrategy;
 import ch.obermuhlner.scriptengine.java.packagelisting.PackageResourceListingStrategy;
 import ch.obermuhlner.scriptengine.java.name.DefaultNameStrategy;
@@ -19,27 +31,51 @@ import javax.tools.*;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
  * Script engine to compile and run a Java class on the fly.
+ *
+ * The configuration of the script engine may be changed and scripts may be compiled from multiple threads.
+ * Whether a compiled script can be evaluated concurrently depends on the {@link InstanceStrategyFactory},
+ * see {@link #setInstanceStrategyFactory(InstanceStrategyFactory)}.
  */
 public class JavaScriptEngine implements ScriptEngine, Compilable {
 
-    private NameStrategy nameStrategy = new DefaultNameStrategy();
-    private ConstructorStrategy constructorStrategy = DefaultConstructorStrategy.byDefaultConstructor();
-    private ExecutionStrategyFactory executionStrategyFactory = clazz -> new DefaultExecutionStrategy(clazz);
-    private Isolation isolation = Isolation.CallerClassLoader;
-    private List<String> compilationOptions = null;
-    private PackageResourceListingStrategy packageResourceListingStrategy = null;
-    private BindingStrategy bindingStrategy = null;
-    private CompilationStrategy compilationStrategy = new DefaultCompilationStrategy();
-    private ScriptInterceptorStrategy scriptInterceptorStrategy = new NoInterceptorStrategy();
+    private volatile NameStrategy nameStrategy = new DefaultNameStrategy();
+    private volatile ConstructorStrategy constructorStrategy = DefaultConstructorStrategy.byDefaultConstructor();
+    private volatile ExecutionStrategyFactory executionStrategyFactory = clazz -> new DefaultExecutionStrategy(clazz);
+    private volatile InstanceStrategyFactory instanceStrategyFactory = (clazz, compiledInstance, constructorStrategy) -> new SharedInstanceStrategy(compiledInstance);
+    private volatile Isolation isolation = Isolation.CallerClassLoader;
+    private volatile List<String> compilationOptions = null;
+    private volatile PackageResourceListingStrategy packageResourceListingStrategy = null;
+    private volatile BindingStrategy bindingStrategy = null;
+    private volatile WriteBackMode writeBackMode = WriteBackMode.AllFields;
+    private volatile CompilationStrategy compilationStrategy = new DefaultCompilationStrategy();
+    private volatile ScriptInterceptorStrategy scriptInterceptorStrategy = new NoInterceptorStrategy();
+    private volatile CompiledScriptCache compiledScriptCache = null;
+    private volatile BytecodeCache bytecodeCache = null;
+    private volatile StandardFileManagerPool fileManagerPool;
+    private volatile Executor asyncExecutor = null;
+    private volatile boolean compilationCoalescing = true;
+    private volatile MetricsListener metricsListener = null;
+    private volatile ScriptProfiler scriptProfiler = null;
 
-    private ScriptContext context = new SimpleScriptContext();
+    private final ConcurrentMap<ScriptCacheKey, CompletableFuture<CompiledClass>> inFlightCompilations = new ConcurrentHashMap<>();
+    private final AtomicLong coalescedCompilationCount = new AtomicLong();
+    private final ClassLoaderTracker classLoaderTracker = new ClassLoaderTracker();
 
-    private ClassLoader executionClassLoader = getClass().getClassLoader();
+    private volatile ScriptContext context = new SimpleScriptContext();
+
+    private volatile ClassLoader executionClassLoader = getClass().getClassLoader();
 
     /**
      * Sets the name strategy used to determine the Java class name from a script.
@@ -67,6 +103,19 @@ public class JavaScriptEngine implements ScriptEngine, Compilable {
         this.bindingStrategy = bindingStrategy;
     }
 
+    /**
+     * Sets the mode that defines which public fields of a script are written back into the bindings after an evaluation.
+     *
+     * The default is {@link WriteBackMode#AllFields}.
+     * The {@link WriteBackMode} is ignored if a {@link BindingStrategy} is set.
+     *
+     * @param writeBackMode the {@link WriteBackMode} to use for scripts compiled by this script engine
+     */
+    public void setWriteBackMode(WriteBackMode writeBackMode) {
+        Objects.requireNonNull(writeBackMode);
+        this.writeBackMode = writeBackMode;
+    }
+
     public void setCompilationStrategy(CompilationStrategy compilationStrategy) {
         this.compilationStrategy = compilationStrategy;
     }
@@ -75,6 +124,169 @@ public class JavaScriptEngine implements ScriptEngine, Compilable {
         this.scriptInterceptorStrategy = scriptInterceptorStrategy;
     }
 
+    /**
+     * Sets the cache of compiled script classes.
+     *
+     * If a cache is set, compiling a script that was already compiled
+     * (with the same compilation options, isolation and execution class loader)
+     * reuses the cached class instead of running the java compiler again.
+     *
+     * @param compiledScriptCache the {@link CompiledScriptCache} or {@code null} to disable caching
+     */
+    public void setCompiledScriptCache(CompiledScriptCache compiledScriptCache) {
+        this.compiledScriptCache = compiledScriptCache;
+    }
+
+    /**
+     * Returns the cache of compiled script classes.
+     *
+     * @return the {@link CompiledScriptCache} or {@code null} if caching is disabled
+     */
+    public CompiledScriptCache getCompiledScriptCache() {
+        return compiledScriptCache;
+    }
+
+    /**
+     * Sets the persistent cache of the bytecode of compiled scripts.
+     *
+     * If a bytecode cache is set, compiling a script that was already compiled
+     * (possibly in an earlier run of the JVM) loads the cached bytecode instead of running the java compiler.
+     * The cache is keyed by {@link ScriptCacheKey#getPersistentHash()}, which changes
+     * if the script, the compilation options, the isolation, the JDK or the classpath change.
+     *
+     * @param bytecodeCache the {@link BytecodeCache} or {@code null} to disable the bytecode cache
+     */
+    public void setBytecodeCache(BytecodeCache bytecodeCache) {
+        this.bytecodeCache = bytecodeCache;
+    }
+
+    /**
+     * Sets the pool of standard file managers used by the java compiler.
+     *
+     * By default all script engines share {@link StandardFileManagerPool#getDefault()},
+     * which is only looked up when a script is compiled.
+     *
+     * @param fileManagerPool the {@link StandardFileManagerPool}
+     */
+    public void setFileManagerPool(StandardFileManagerPool fileManagerPool) {
+        Objects.requireNonNull(fileManagerPool);
+        this.fileManagerPool = fileManagerPool;
+    }
+
+    /**
+     * Returns the pool of standard file managers used by the java compiler.
+     *
+     * @return the {@link StandardFileManagerPool}
+     * @throws IllegalStateException if no pool was set and no system java compiler is available
+     */
+    public StandardFileManagerPool getFileManagerPool() {
+        StandardFileManagerPool pool = fileManagerPool;
+        return pool != null ? pool : StandardFileManagerPool.getDefault();
+    }
+
+    /**
+     * Sets the {@link Executor} that runs asynchronous compilations and evaluations.
+     *
+     * By default all script engines share {@link ScriptExecutors#getDefault()},
+     * which uses virtual threads if the JDK supports them and rejects new tasks if too many tasks are pending.
+     *
+     * @param asyncExecutor the {@link Executor} or {@code null} to use the default executor
+     * @see #compileAsync(String)
+     * @see #evalAsync(String, Bindings)
+     */
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    /**
+     * Returns the {@link Executor} that runs asynchronous compilations and evaluations.
+     *
+     * @return the {@link Executor}
+     */
+    public Executor getAsyncExecutor() {
+        Executor result = asyncExecutor;
+        return result != null ? result : ScriptExecutors.getDefault();
+    }
+
+    /**
+     * Sets whether concurrent compilations of the same script share a single run of the java compiler.
+     *
+     * If enabled (the default), a thread that compiles a script while another thread is already compiling
+     * the same script (with the same compilation options, isolation and execution class loader)
+     * waits for the running compilation and shares its compiled class, instead of running the java compiler again.
+     *
+     * @param compilationCoalescing {@code true} to coalesce concurrent compilations of the same script
+     * @see #getCoalescedCompilationCount()
+     */
+    public void setCompilationCoalescing(boolean compilationCoalescing) {
+        this.compilationCoalescing = compilationCoalescing;
+    }
+
+    /**
+     * Returns the number of compilations that did not run the java compiler,
+     * because they waited for a concurrent compilation of the same script.
+     *
+     * @return the number of coalesced compilations
+     * @see #setCompilationCoalescing(boolean)
+     */
+    public long getCoalescedCompilationCount() {
+        return coalescedCompilationCount.get();
+    }
+
+    /**
+     * Returns the tracker of the class loaders created by this engine for compiled scripts.
+     *
+     * Use it to monitor how many script classes are still loaded and how much metaspace they use.
+     *
+     * @return the {@link ClassLoaderTracker}
+     * @see JavaCompiledScript#close()
+     */
+    public ClassLoaderTracker getClassLoaderTracker() {
+        return classLoaderTracker;
+    }
+
+    /**
+     * Sets the listener that is notified about the compilations and evaluations of this engine.
+     *
+     * If no listener is set (the default), no durations are measured.
+     *
+     * @param metricsListener the {@link MetricsListener} or {@code null} to disable metrics
+     * @see ch.obermuhlner.scriptengine.java.metrics.ScriptEngineMetrics
+     */
+    public void setMetricsListener(MetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+    }
+
+    /**
+     * Returns the listener that is notified about the compilations and evaluations of this engine.
+     *
+     * @return the {@link MetricsListener} or {@code null} if metrics are disabled
+     */
+    public MetricsListener getMetricsListener() {
+        return metricsListener;
+    }
+
+    /**
+     * Sets the profiler that collects the execution statistics of every script evaluated by this engine.
+     *
+     * If no profiler is set (the default), no statistics are collected.
+     * Batch evaluations are not profiled.
+     *
+     * @param scriptProfiler the {@link ScriptProfiler} or {@code null} to disable profiling
+     */
+    public void setScriptProfiler(ScriptProfiler scriptProfiler) {
+        this.scriptProfiler = scriptProfiler;
+    }
+
+    /**
+     * Returns the profiler that collects the execution statistics of every script evaluated by this engine.
+     *
+     * @return the {@link ScriptProfiler} or {@code null} if profiling is disabled
+     */
+    public ScriptProfiler getScriptProfiler() {
+        return scriptProfiler;
+    }
+
     /**
      * Sets the factory for the execution strategy used to execute a method of a class instance.
      *
@@ -84,6 +296,22 @@ public class JavaScriptEngine implements ScriptEngine, Compilable {
         this.executionStrategyFactory = executionStrategyFactory;
     }
 
+    /**
+     * Sets the factory for the instance strategy that provides the instances a compiled script is evaluated on.
+     *
+     * The default factory creates a {@link SharedInstanceStrategy} that evaluates every call
+     * on the instance constructed at compile time, which is not safe for concurrent evaluations.
+     * Use a {@link ch.obermuhlner.scriptengine.java.instance.ThreadLocalInstanceStrategy}
+     * or a {@link ch.obermuhlner.scriptengine.java.instance.NewInstanceStrategy}
+     * to evaluate a compiled script from multiple threads at the same time.
+     *
+     * @param instanceStrategyFactory the {@link InstanceStrategyFactory} to use in this script engine
+     */
+    public void setInstanceStrategyFactory(InstanceStrategyFactory instanceStrategyFactory) {
+        Objects.requireNonNull(instanceStrategyFactory);
+        this.instanceStrategyFactory = instanceStrategyFactory;
+    }
+
     /**
      * Sets the {@link ClassLoader} used to load and execute the class.
      *
@@ -186,40 +414,762 @@ public class JavaScriptEngine implements ScriptEngine, Compilable {
 
     @Override
     public JavaCompiledScript compile(String originalScript) throws ScriptException {
+        return compile(originalScript, null);
+    }
 
-        String script = scriptInterceptorStrategy.intercept(originalScript);
+    /**
+     * Compiles a script into the specified generation or into its own class loader.
+     *
+     * @param originalScript the script to compile
+     * @param generation the {@link ScriptGeneration} or {@code null}
+     * @return the {@link JavaCompiledScript}
+     * @throws ScriptException if the script could not be compiled
+     */
+    JavaCompiledScript compile(String originalScript, ScriptGeneration generation) throws ScriptException {
+        return reportCompilation(() -> compileScript(originalScript, generation));
+    }
 
-        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
-        StandardJavaFileManager standardFileManager = compiler.getStandardFileManager(diagnostics, null, null);
-        ClassLoader parentClassLoader = isolation == Isolation.CallerClassLoader ? executionClassLoader : null;
-        MemoryFileManager memoryFileManager = new MemoryFileManager(standardFileManager, parentClassLoader);
-        memoryFileManager.setPackageResourceListingStrategy(packageResourceListingStrategy);
+    /**
+     * Reports a compilation (of a script, a batch of scripts or a batch of expressions) to the {@link MetricsListener}, if metrics are enabled.
+     *
+     * @param compilation the {@link Compilation} to run
+     * @param <T> the type of the compilation result
+     * @return the result of the compilation
+     * @throws ScriptException if the compilation failed
+     */
+    private <T> T reportCompilation(Compilation<T> compilation) throws ScriptException {
+        MetricsListener metrics = metricsListener;
+        if (metrics == null) {
+            return compilation.compile();
+        }
+
+        long startNanos = System.nanoTime();
+        try {
+            T result = compilation.compile();
+            metrics.scriptCompiled(System.nanoTime() - startNanos);
+            return result;
+        } catch (ScriptException | RuntimeException e) {
+            metrics.compilationFailed();
+            throw e;
+        }
+    }
+
+    private JavaCompiledScript compileScript(String originalScript, ScriptGeneration generation) throws ScriptException {
+        long phaseNanos = startPhase();
+        String script = scriptInterceptorStrategy.intercept(originalScript);
+        phaseNanos = endPhase(MetricsPhase.Interception, phaseNanos);
 
         String fullClassName = nameStrategy.getFullName(script);
         String simpleClassName = NameStrategy.extractSimpleName(fullClassName);
+        endPhase(MetricsPhase.NameResolution, phaseNanos);
 
         List<JavaFileObject> toCompile = compilationStrategy.getJavaFileObjectsToCompile(simpleClassName, script);
 
-        JavaCompiler.CompilationTask task = compiler.getTask(null, memoryFileManager, diagnostics, compilationOptions,
-                null, toCompile);
-        if (!task.call()) {
+        // the caches can be changed concurrently, so every compilation works with the caches set at its start
+        CompiledScriptCache scriptCache = compiledScriptCache;
+        BytecodeCache classCache = bytecodeCache;
+
+        if (generation != null) {
+            ClassLoader parentClassLoader = generation.getClassLoader().getParent();
+            ScriptCacheKey cacheKey = classCache != null ? ScriptCacheKey.of(fullClassName, toCompile, compilationOptions, isolation, parentClassLoader) : null;
+            Map<String, byte[]> compiledClasses = compileClasses(cacheKey, classCache, toCompile, parentClassLoader);
+            phaseNanos = startPhase();
+            ClassLoader classLoader = generation.addClasses(compiledClasses);
+            Class<?> clazz = loadClass(classLoader, fullClassName);
+            endPhase(MetricsPhase.ClassLoading, phaseNanos);
+            JavaCompiledScript compiledScript = createCompiledScript(clazz, construct(clazz));
+            generation.add(compiledScript);
+
+            compilationStrategy.compilationResult(clazz);
+            return compiledScript;
+        }
+
+        ClassLoader parentClassLoader = getParentClassLoader();
+
+        boolean coalescing = compilationCoalescing;
+        ScriptCacheKey cacheKey = null;
+        CompiledScriptCache.Entry cacheEntry = null;
+        if (scriptCache != null || classCache != null || coalescing) {
+            cacheKey = ScriptCacheKey.of(fullClassName, toCompile, compilationOptions, isolation, parentClassLoader);
+            if (scriptCache != null) {
+                cacheEntry = scriptCache.get(cacheKey);
+            }
+        }
+        if (cacheEntry != null) {
+            reportCacheHit();
+        }
+
+        JavaCompiledScript compiledScript;
+        if (cacheEntry == null) {
+            CompiledClass compiledClass = coalescing
+                    ? compileClassCoalesced(cacheKey, classCache, fullClassName, toCompile, parentClassLoader)
+                    : compileClass(cacheKey, classCache, fullClassName, toCompile, parentClassLoader);
+            compiledScript = createCompiledScript(cacheKey, scriptCache, compiledClass.clazz, compiledClass.size);
+        } else {
+            compiledScript = createCompiledScript(cacheKey, cacheEntry);
+        }
+
+        compilationStrategy.compilationResult(compiledScript.getCompiledClass());
+        return compiledScript;
+    }
+
+    /**
+     * Creates a new generation of scripts that share a single class loader.
+     *
+     * The parent class loader of the generation is determined by the current {@link Isolation}
+     * and execution class loader of this engine.
+     *
+     * @param name the name of the generation, for example the name and version of a rule pack
+     * @return the created {@link ScriptGeneration}
+     */
+    public ScriptGeneration createGeneration(String name) {
+        return new ScriptGeneration(this, name, getParentClassLoader(), classLoaderTracker);
+    }
+
+    /**
+     * Compiles a script asynchronously with the {@link #getAsyncExecutor() async executor}.
+     *
+     * @param script the script to compile
+     * @return the {@link CompletableFuture} of the {@link JavaCompiledScript},
+     *         it fails with a {@link ScriptException} if the script could not be compiled
+     *         or with a {@link java.util.concurrent.RejectedExecutionException} if the executor has too many pending tasks
+     * @see #compile(String)
+     */
+    public CompletableFuture<JavaCompiledScript> compileAsync(String script) {
+        return ScriptExecutors.supplyAsync(() -> compile(script), getAsyncExecutor());
+    }
+
+    /**
+     * Compiles and evaluates a script asynchronously with the bindings of the {@link ScriptContext} of this engine.
+     *
+     * @param script the script to evaluate
+     * @return the {@link CompletableFuture} of the result
+     * @see #evalAsync(String, Bindings)
+     */
+    public CompletableFuture<Object> evalAsync(String script) {
+        return evalAsync(script, context.getBindings(ScriptContext.ENGINE_SCOPE));
+    }
+
+    /**
+     * Compiles and evaluates a script asynchronously with the {@link #getAsyncExecutor() async executor}.
+     *
+     * @param script the script to evaluate
+     * @param bindings the engine scope {@link Bindings}
+     * @return the {@link CompletableFuture} of the result,
+     *         it fails with a {@link ScriptException} if the script could not be compiled or evaluated
+     *         or with a {@link java.util.concurrent.RejectedExecutionException} if the executor has too many pending tasks
+     * @see #eval(String, Bindings)
+     */
+    public CompletableFuture<Object> evalAsync(String script, Bindings bindings) {
+        return ScriptExecutors.supplyAsync(() -> eval(script, bindings), getAsyncExecutor());
+    }
+
+    /**
+     * Compiles a script and returns the instance of the compiled class as the specified interface (or superclass).
+     *
+     * This is a shortcut for {@code compile(script).as(type)}.
+     *
+     * @param script the script to compile
+     * @param type the interface or class that the compiled class implements
+     * @param <T> the type of the returned instance
+     * @return the instance of the compiled class
+     * @throws ScriptException if the script could not be compiled
+     *         or the compiled class does not implement the specified type
+     * @see JavaCompiledScript#as(Class)
+     */
+    public <T> T compileTo(String script, Class<T> type) throws ScriptException {
+        return compile(script).as(type);
+    }
+
+    /**
+     * Compiles many scripts with a single invocation of the java compiler.
+     *
+     * All scripts are compiled together in one compilation task and
+     * the compiled classes are loaded by a single shared {@link ClassLoader}.
+     * This is much faster than compiling every script separately.
+     *
+     * Since the scripts are compiled together, they can reference each other's classes.
+     * The class names of the scripts must therefore be unique.
+     *
+     * The configured {@link ScriptInterceptorStrategy}, {@link NameStrategy}, {@link ConstructorStrategy},
+     * {@link ExecutionStrategyFactory} and caches are applied to every script,
+     * the {@link CompilationStrategy} is not used.
+     * The cache key of every script covers all scripts of the batch
+     * and the cached classes are only used if all scripts of the batch are cached,
+     * otherwise all scripts are compiled again.
+     * Concurrent batch compilations are not coalesced (see {@link #setCompilationCoalescing(boolean)}),
+     * a batch is reported to the {@link MetricsListener} as a single compilation.
+     *
+     * @param scripts the map of keys to scripts
+     * @return the map of keys to {@link JavaCompiledScript}s, in the iteration order of the specified map
+     * @throws BatchCompilationException if one or more scripts could not be compiled,
+     *         the diagnostics are mapped back to the keys of the failed scripts
+     * @throws ScriptException if the scripts could not be compiled for another reason
+     */
+    public Map<String, JavaCompiledScript> compileAll(Map<String, String> scripts) throws ScriptException {
+        return compileAll(scripts, null);
+    }
+
+    /**
+     * Compiles a single Java expression into a public static method of a generated class.
+     *
+     * The parameters of the method are the bindings of the context of this engine that are referenced by the expression,
+     * their types are derived from the current binding values, the result type is {@link Object}.
+     *
+     * This is a shortcut for {@code compileExpressions(Collections.singletonMap("expression", expression))}.
+     *
+     * @param expression the expression to compile, for example {@code alpha * beta}
+     * @return the {@link JavaCompiledExpression}
+     * @throws ScriptException if the expression could not be compiled
+     * @see #compileExpressions(Map)
+     */
+    public JavaCompiledExpression compileExpression(String expression) throws ScriptException {
+        return compileExpression(expression, getBindingTypes(), Object.class);
+    }
+
+    /**
+     * Compiles a single Java expression with explicit types into a public static method of a generated class.
+     *
+     * @param expression the expression to compile, for example {@code alpha * beta}
+     * @param variableTypes the map of variable names to their types, only the variables referenced by the expression become parameters
+     * @param resultType the result type of the expression, for example {@code double.class}
+     * @return the {@link JavaCompiledExpression}
+     * @throws ScriptException if the expression could not be compiled
+     * @see #compileExpressions(Map, Map, Class)
+     */
+    public JavaCompiledExpression compileExpression(String expression, Map<String, Class<?>> variableTypes, Class<?> resultType) throws ScriptException {
+        return compileExpressions(Collections.singletonMap("expression", expression), variableTypes, resultType).get("expression");
+    }
+
+    /**
+     * Compiles many Java expressions into a single generated class, one public static method per expression.
+     *
+     * The parameters of every method are the bindings of the context of this engine that are referenced by its expression,
+     * their types are derived from the current binding values
+     * (boxed primitives become primitive parameters, {@code null} values become {@link Object} parameters),
+     * the result type is {@link Object}.
+     *
+     * @param expressions the map of keys to expressions
+     * @return the map of keys to {@link JavaCompiledExpression}s, in the iteration order of the specified map
+     * @throws BatchCompilationException if one or more expressions could not be compiled,
+     *         the diagnostics are mapped back to the keys of the failed expressions
+     * @throws ScriptException if the expressions could not be compiled for another reason
+     * @see #compileExpressions(Map, Map, Class)
+     */
+    public Map<String, JavaCompiledExpression> compileExpressions(Map<String, String> expressions) throws ScriptException {
+        return compileExpressions(expressions, getBindingTypes(), Object.class);
+    }
+
+    /**
+     * Compiles many Java expressions with explicit types into a single generated class, one public static method per expression.
+     *
+     * Compiling expressions is much cheaper than compiling a full script per expression:
+     * all expressions are compiled in one invocation of the java compiler into a single class
+     * that is loaded by a single {@link ClassLoader} and no instance is constructed.
+     *
+     * The parameters of every method are the variables referenced by its expression, in the order of their first use.
+     * Expressions can only use classes of the {@code java.lang} package or fully qualified class names.
+     *
+     * The configured {@link ScriptInterceptorStrategy}, {@link NameStrategy}, {@link ConstructorStrategy},
+     * {@link ExecutionStrategyFactory}, {@link CompilationStrategy} and {@link CompiledScriptCache} are not used,
+     * the {@link BytecodeCache} is still used.
+     *
+     * @param expressions the map of keys to expressions
+     * @param variableTypes the map of variable names to their types, only the variables referenced by an expression become parameters
+     * @param resultType the result type of all expressions, for example {@code double.class}
+     * @return the map of keys to {@link JavaCompiledExpression}s, in the iteration order of the specified map
+     * @throws BatchCompilationException if one or more expressions could not be compiled,
+     *         the diagnostics are mapped back to the keys of the failed expressions
+     * @throws ScriptException if the expressions could not be compiled for another reason
+     */
+    public Map<String, JavaCompiledExpression> compileExpressions(Map<String, String> expressions, Map<String, Class<?>> variableTypes, Class<?> resultType) throws ScriptException {
+        if (expressions.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        return reportCompilation(() -> compileExpressionClass(expressions, variableTypes, resultType));
+    }
+
+    private Map<String, JavaCompiledExpression> compileExpressionClass(Map<String, String> expressions, Map<String, Class<?>> variableTypes, Class<?> resultType) throws ScriptException {
+        ClassLoader parentClassLoader = getParentClassLoader();
+        ExpressionSource expressionSource = new ExpressionSource(expressions, variableTypes, resultType);
+        JavaFileObject source = MemoryFileManager.createSourceFileObject(null, ExpressionSource.CLASS_NAME, expressionSource.getSource());
+        List<JavaFileObject> toCompile = Collections.singletonList(source);
+
+        BytecodeCache classCache = bytecodeCache;
+        String persistentKey = classCache != null ? ScriptCacheKey.of(ExpressionSource.CLASS_NAME, toCompile, compilationOptions, isolation, parentClassLoader).getPersistentHash() : null;
+        Map<String, byte[]> compiledClasses = persistentKey != null ? classCache.load(persistentKey) : null;
+        if (compiledClasses != null) {
+            reportCacheHit();
+        } else {
+            DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+            MemoryFileManager memoryFileManager = compile(toCompile, parentClassLoader, diagnostics);
+            if (memoryFileManager == null) {
+                throw createBatchCompilationException(diagnostics, expressionSource);
+            }
+            compiledClasses = memoryFileManager.getCompiledClasses();
+            if (persistentKey != null) {
+                classCache.store(persistentKey, compiledClasses);
+            }
+        }
+
+        long phaseNanos = startPhase();
+        ClassLoader classLoader = createClassLoader(compiledClasses, parentClassLoader);
+        Class<?> clazz = loadClass(classLoader, ExpressionSource.CLASS_NAME);
+        endPhase(MetricsPhase.ClassLoading, phaseNanos);
+
+        Map<String, JavaCompiledExpression> result = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : expressions.entrySet()) {
+            String key = entry.getKey();
+            List<String> parameterNames = expressionSource.getParameterNames(key);
+            Class<?>[] parameterTypes = new Class<?>[parameterNames.size()];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                parameterTypes[i] = variableTypes.get(parameterNames.get(i));
+            }
+            try {
+                Method method = clazz.getMethod(expressionSource.getMethodName(key), parameterTypes);
+                result.put(key, new JavaCompiledExpression(this, entry.getValue(), method, parameterNames));
+            } catch (NoSuchMethodException e) {
+                throw new ScriptException(e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the types of the current bindings in the global and engine scope of the context of this engine.
+     *
+     * @return the map of binding names to their types
+     */
+    private Map<String, Class<?>> getBindingTypes() {
+        Map<String, Class<?>> variableTypes = new HashMap<>();
+        for (int scope : new int[] { ScriptContext.GLOBAL_SCOPE, ScriptContext.ENGINE_SCOPE }) {
+            Bindings bindings = context.getBindings(scope);
+            if (bindings != null) {
+                for (Map.Entry<String, Object> entry : bindings.entrySet()) {
+                    variableTypes.put(entry.getKey(), ExpressionSource.variableType(entry.getValue()));
+                }
+            }
+        }
+        return variableTypes;
+    }
+
+    /**
+     * Compiles many scripts into the specified generation or into a new shared class loader.
+     *
+     * @param scripts the map of keys to scripts
+     * @param generation the {@link ScriptGeneration} or {@code null}
+     * @return the map of keys to {@link JavaCompiledScript}s, in the iteration order of the specified map
+     * @throws ScriptException if the scripts could not be compiled
+     */
+    Map<String, JavaCompiledScript> compileAll(Map<String, String> scripts, ScriptGeneration generation) throws ScriptException {
+        return reportCompilation(() -> compileAllScripts(scripts, generation));
+    }
+
+    private Map<String, JavaCompiledScript> compileAllScripts(Map<String, String> scripts, ScriptGeneration generation) throws ScriptException {
+        ClassLoader parentClassLoader = generation != null ? generation.getClassLoader().getParent() : getParentClassLoader();
+        CompiledScriptCache scriptCache = generation != null ? null : compiledScriptCache;
+        BytecodeCache classCache = bytecodeCache;
+
+        Map<String, String> fullClassNames = new HashMap<>();
+        Map<String, ScriptCacheKey> cacheKeys = new HashMap<>();
+        Map<String, JavaCompiledScript> cachedScripts = new HashMap<>();
+        Map<String, byte[]> allCompiledClasses = new HashMap<>();
+        Map<String, Long> compiledSizes = new HashMap<>();
+        Map<String, JavaFileObject> toCompile = new LinkedHashMap<>();
+
+        for (Map.Entry<String, String> entry : scripts.entrySet()) {
+            String key = entry.getKey();
+            String script = scriptInterceptorStrategy.intercept(entry.getValue());
+            String fullClassName = nameStrategy.getFullName(script);
+            String simpleClassName = NameStrategy.extractSimpleName(fullClassName);
+            toCompile.put(key, MemoryFileManager.createSourceFileObject(key, simpleClassName, script));
+            fullClassNames.put(key, fullClassName);
+        }
+
+        if (scriptCache != null || classCache != null) {
+            // the scripts can reference each other's classes, so the key of every script covers all sources of the batch
+            List<JavaFileObject> allSources = new ArrayList<>(toCompile.values());
+            for (String key : scripts.keySet()) {
+                cacheKeys.put(key, ScriptCacheKey.of(fullClassNames.get(key), allSources, compilationOptions, isolation, parentClassLoader));
+            }
+
+            // the cached classes are only used if all scripts of the batch are cached in the same cache
+            if (scriptCache != null && loadCachedScripts(scriptCache, cacheKeys, cachedScripts)) {
+                toCompile.clear();
+                reportCacheHit();
+            } else if (classCache != null && loadCachedBytecode(classCache, cacheKeys, allCompiledClasses, compiledSizes)) {
+                toCompile.clear();
+                reportCacheHit();
+            } else {
+                cachedScripts.clear();
+                allCompiledClasses.clear();
+                compiledSizes.clear();
+            }
+        }
+
+        if (!toCompile.isEmpty()) {
+            DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+            MemoryFileManager memoryFileManager = compile(new ArrayList<>(toCompile.values()), parentClassLoader, diagnostics);
+            if (memoryFileManager == null) {
+                throw createBatchCompilationException(diagnostics);
+            }
+
+            for (Map.Entry<String, JavaFileObject> entry : toCompile.entrySet()) {
+                Map<String, byte[]> compiledClasses = memoryFileManager.getCompiledClasses(entry.getValue());
+                allCompiledClasses.putAll(compiledClasses);
+                compiledSizes.put(entry.getKey(), sizeOf(compiledClasses));
+                if (classCache != null) {
+                    classCache.store(cacheKeys.get(entry.getKey()).getPersistentHash(), compiledClasses);
+                }
+            }
+        }
+
+        if (generation != null) {
+            ClassLoader classLoader = generation.addClasses(allCompiledClasses);
+
+            Map<String, JavaCompiledScript> result = new LinkedHashMap<>();
+            for (String key : scripts.keySet()) {
+                Class<?> clazz = loadClass(classLoader, fullClassNames.get(key));
+                JavaCompiledScript compiledScript = createCompiledScript(clazz, construct(clazz));
+                generation.add(compiledScript);
+                result.put(key, compiledScript);
+            }
+            return result;
+        }
+
+        ClassLoader classLoader = allCompiledClasses.isEmpty() ? null : createClassLoader(allCompiledClasses, parentClassLoader);
+
+        Map<String, JavaCompiledScript> result = new LinkedHashMap<>();
+        for (String key : scripts.keySet()) {
+            JavaCompiledScript compiledScript = cachedScripts.get(key);
+            if (compiledScript == null) {
+                compiledScript = createCompiledScript(cacheKeys.get(key), scriptCache, loadClass(classLoader, fullClassNames.get(key)), compiledSizes.get(key));
+            }
+            result.put(key, compiledScript);
+        }
+        return result;
+    }
+
+    /**
+     * Creates the compiled scripts of a batch from the {@link CompiledScriptCache}, if all scripts of the batch are cached.
+     *
+     * @return {@code true} if all scripts were found in the cache
+     */
+    private boolean loadCachedScripts(CompiledScriptCache scriptCache, Map<String, ScriptCacheKey> cacheKeys, Map<String, JavaCompiledScript> cachedScripts) throws ScriptException {
+        Map<String, CompiledScriptCache.Entry> cacheEntries = new HashMap<>();
+        for (Map.Entry<String, ScriptCacheKey> entry : cacheKeys.entrySet()) {
+            CompiledScriptCache.Entry cacheEntry = scriptCache.get(entry.getValue());
+            if (cacheEntry == null) {
+                return false;
+            }
+            cacheEntries.put(entry.getKey(), cacheEntry);
+        }
+
+        for (Map.Entry<String, CompiledScriptCache.Entry> entry : cacheEntries.entrySet()) {
+            cachedScripts.put(entry.getKey(), createCompiledScript(cacheKeys.get(entry.getKey()), entry.getValue()));
+        }
+        return true;
+    }
+
+    /**
+     * Loads the compiled classes of a batch from the {@link BytecodeCache}, if all scripts of the batch are cached.
+     *
+     * @return {@code true} if all scripts were found in the cache
+     */
+    private boolean loadCachedBytecode(BytecodeCache classCache, Map<String, ScriptCacheKey> cacheKeys, Map<String, byte[]> allCompiledClasses, Map<String, Long> compiledSizes) {
+        for (Map.Entry<String, ScriptCacheKey> entry : cacheKeys.entrySet()) {
+            Map<String, byte[]> compiledClasses = classCache.load(entry.getValue().getPersistentHash());
+            if (compiledClasses == null) {
+                return false;
+            }
+            allCompiledClasses.putAll(compiledClasses);
+            compiledSizes.put(entry.getKey(), sizeOf(compiledClasses));
+        }
+        return true;
+    }
+
+    private ClassLoader getParentClassLoader() {
+        return isolation == Isolation.CallerClassLoader ? executionClassLoader : null;
+    }
+
+    private CompiledClass compileClassCoalesced(ScriptCacheKey cacheKey, BytecodeCache classCache, String fullClassName, List<JavaFileObject> toCompile, ClassLoader parentClassLoader) throws ScriptException {
+        CompletableFuture<CompiledClass> future = new CompletableFuture<>();
+        CompletableFuture<CompiledClass> inFlight = inFlightCompilations.putIfAbsent(cacheKey, future);
+        if (inFlight != null) {
+            coalescedCompilationCount.incrementAndGet();
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof ScriptException) {
+                    throw (ScriptException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            CompiledClass compiledClass = compileClass(cacheKey, classCache, fullClassName, toCompile, parentClassLoader);
+            future.complete(compiledClass);
+            return compiledClass;
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightCompilations.remove(cacheKey, future);
+        }
+    }
+
+    private CompiledClass compileClass(ScriptCacheKey cacheKey, BytecodeCache classCache, String fullClassName, List<JavaFileObject> toCompile, ClassLoader parentClassLoader) throws ScriptException {
+        Map<String, byte[]> compiledClasses = compileClasses(cacheKey, classCache, toCompile, parentClassLoader);
+        long phaseNanos = startPhase();
+        ClassLoader classLoader = createClassLoader(compiledClasses, parentClassLoader);
+        Class<?> clazz = loadClass(classLoader, fullClassName);
+        endPhase(MetricsPhase.ClassLoading, phaseNanos);
+        return new CompiledClass(clazz, sizeOf(compiledClasses));
+    }
+
+    private ClassLoader createClassLoader(Map<String, byte[]> compiledClasses, ClassLoader parentClassLoader) {
+        ClassLoader classLoader = new MemoryClassLoader(compiledClasses, parentClassLoader);
+        classLoaderTracker.register(classLoader, compiledClasses.size(), sizeOf(compiledClasses));
+        return classLoader;
+    }
+
+    /**
+     * Releases the resources held by this engine for a closed {@link JavaCompiledScript}.
+     *
+     * @param compiledScript the closed {@link JavaCompiledScript}
+     */
+    void release(JavaCompiledScript compiledScript) {
+        CompiledScriptCache cache = compiledScriptCache;
+        ScriptCacheKey cacheKey = compiledScript.getCacheKey();
+        if (cache != null && cacheKey != null) {
+            cache.invalidate(cacheKey);
+        }
+    }
+
+    private static Class<?> loadClass(ClassLoader classLoader, String fullClassName) throws ScriptException {
+        try {
+            return classLoader.loadClass(fullClassName);
+        } catch (ClassNotFoundException e) {
+            throw new ScriptException(e);
+        }
+    }
+
+    private JavaCompiledScript createCompiledScript(ScriptCacheKey cacheKey, CompiledScriptCache scriptCache, Class<?> clazz, long compiledSize) throws ScriptException {
+        if (scriptCache != null) {
+            return createCompiledScript(cacheKey, scriptCache.put(cacheKey, clazz, compiledSize));
+        }
+
+        Object instance = construct(clazz);
+        return createCompiledScript(clazz, instance);
+    }
+
+    private Object construct(Class<?> clazz) throws ScriptException {
+        long phaseNanos = startPhase();
+        Object instance = constructorStrategy.construct(clazz);
+        endPhase(MetricsPhase.Construction, phaseNanos);
+        return instance;
+    }
+
+    private JavaCompiledScript createCompiledScript(ScriptCacheKey cacheKey, CompiledScriptCache.Entry cacheEntry) throws ScriptException {
+        long phaseNanos = startPhase();
+        Object instance = cacheEntry.getInstance(constructorStrategy);
+        endPhase(MetricsPhase.Construction, phaseNanos);
+        JavaCompiledScript compiledScript = createCompiledScript(cacheEntry.getCompiledClass(), instance);
+        compiledScript.setCacheKey(cacheKey);
+        return compiledScript;
+    }
+
+    private JavaCompiledScript createCompiledScript(Class<?> clazz, Object instance) throws ScriptException {
+        ExecutionStrategy executionStrategy = executionStrategyFactory.create(clazz);
+        InstanceStrategy instanceStrategy = instanceStrategyFactory.create(clazz, instance, constructorStrategy);
+        return new JavaCompiledScript(this, clazz, instance, constructorStrategy, executionStrategy, bindingStrategy, instanceStrategy, writeBackMode);
+    }
+
+    private Map<String, byte[]> compileClasses(ScriptCacheKey cacheKey, BytecodeCache classCache, List<JavaFileObject> toCompile, ClassLoader parentClassLoader) throws ScriptException {
+        if (cacheKey == null || classCache == null) {
+            return compileClasses(toCompile, parentClassLoader);
+        }
+
+        String persistentKey = cacheKey.getPersistentHash();
+        Map<String, byte[]> compiledClasses = classCache.load(persistentKey);
+        if (compiledClasses == null) {
+            compiledClasses = compileClasses(toCompile, parentClassLoader);
+            classCache.store(persistentKey, compiledClasses);
+        } else {
+            reportCacheHit();
+        }
+        return compiledClasses;
+    }
+
+    private Map<String, byte[]> compileClasses(List<JavaFileObject> toCompile, ClassLoader parentClassLoader) throws ScriptException {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        MemoryFileManager memoryFileManager = compile(toCompile, parentClassLoader, diagnostics);
+        if (memoryFileManager == null) {
             String message = diagnostics.getDiagnostics().stream()
                     .map(d -> d.toString())
                     .collect(Collectors.joining("\n"));
             throw new ScriptException(message);
         }
 
-        ClassLoader classLoader = memoryFileManager.getClassLoader(StandardLocation.CLASS_OUTPUT);
+        return memoryFileManager.getCompiledClasses();
+    }
 
+    /**
+     * Compiles the specified sources in a single compilation task.
+     *
+     * @return the {@link MemoryFileManager} containing the compiled classes, or {@code null} if the compilation failed
+     * @throws ScriptException if no java compiler is available
+     */
+    private MemoryFileManager compile(List<JavaFileObject> toCompile, ClassLoader parentClassLoader, DiagnosticCollector<JavaFileObject> diagnostics) throws ScriptException {
+        StandardFileManagerPool pool;
         try {
-            Class<?> clazz = classLoader.loadClass(fullClassName);
-            compilationStrategy.compilationResult(clazz);
-            Object instance = constructorStrategy.construct(clazz);
-            ExecutionStrategy executionStrategy = executionStrategyFactory.create(clazz);
-            return new JavaCompiledScript(this, clazz, instance, executionStrategy, bindingStrategy);
-        } catch (ClassNotFoundException e) {
-            throw new ScriptException(e);
+            pool = getFileManagerPool();
+        } catch (IllegalStateException e) {
+            throw new ScriptException(e.getMessage());
+        }
+        List<String> options = compilationOptions;
+        long phaseNanos = startPhase();
+        StandardJavaFileManager standardFileManager = pool.borrow(options);
+        boolean success;
+        MemoryFileManager memoryFileManager;
+        try {
+            memoryFileManager = new MemoryFileManager(standardFileManager, parentClassLoader);
+            memoryFileManager.setPackageResourceListingStrategy(packageResourceListingStrategy);
+
+            JavaCompiler.CompilationTask task = pool.getCompiler().getTask(null, memoryFileManager, diagnostics, options,
+                    null, toCompile);
+            success = task.call();
+        } catch (RuntimeException e) {
+            pool.discard(standardFileManager);
+            throw e;
+        }
+        pool.release(standardFileManager, options);
+
+        MetricsListener metrics = metricsListener;
+        if (metrics != null) {
+            if (success) {
+                endPhase(MetricsPhase.Compilation, phaseNanos);
+            }
+            if (!diagnostics.getDiagnostics().isEmpty()) {
+                metrics.diagnosticsReported(diagnostics.getDiagnostics().size());
+            }
+        }
+
+        return success ? memoryFileManager : null;
+    }
+
+    /**
+     * Starts measuring a {@link MetricsPhase}.
+     *
+     * @return the start time in nanoseconds or 0 if metrics are disabled
+     */
+    private long startPhase() {
+        return metricsListener != null ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Reports a completed {@link MetricsPhase} to the {@link MetricsListener}, if metrics are enabled.
+     *
+     * @param phase the completed {@link MetricsPhase}
+     * @param startNanos the start time returned by {@link #startPhase()}
+     * @return the end time, to be used as start time of the next phase
+     */
+    private long endPhase(MetricsPhase phase, long startNanos) {
+        MetricsListener metrics = metricsListener;
+        if (metrics == null || startNanos == 0) {
+            return 0;
+        }
+        long endNanos = System.nanoTime();
+        metrics.phaseCompleted(phase, endNanos - startNanos);
+        return endNanos;
+    }
+
+    private void reportCacheHit() {
+        MetricsListener metrics = metricsListener;
+        if (metrics != null) {
+            metrics.cacheHit();
+        }
+    }
+
+    private static BatchCompilationException createBatchCompilationException(DiagnosticCollector<JavaFileObject> diagnostics) {
+        return createBatchCompilationException(diagnostics, null);
+    }
+
+    /**
+     * Creates a {@link BatchCompilationException} that maps the diagnostics back to the keys of the scripts.
+     *
+     * @param diagnostics the diagnostics of the failed compilation
+     * @param expressionSource the {@link ExpressionSource} to map the line numbers to the keys of expressions,
+     *                         or {@code null} to use the origin of the source files as keys
+     * @return the {@link BatchCompilationException}
+     */
+    private static BatchCompilationException createBatchCompilationException(DiagnosticCollector<JavaFileObject> diagnostics, ExpressionSource expressionSource) {
+        Map<String, List<Diagnostic<? extends JavaFileObject>>> scriptDiagnostics = new LinkedHashMap<>();
+        Set<String> failedScripts = new LinkedHashSet<>();
+        StringBuilder message = new StringBuilder();
+
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            String key = null;
+            if (expressionSource != null) {
+                key = expressionSource.getKey(diagnostic.getLineNumber());
+            } else if (diagnostic.getSource() instanceof MemoryFileManager.MemoryJavaFileObject) {
+                Object origin = ((MemoryFileManager.MemoryJavaFileObject) diagnostic.getSource()).getOrigin();
+                key = String.valueOf(origin);
+            }
+            if (key != null) {
+                scriptDiagnostics.computeIfAbsent(key, k -> new ArrayList<>()).add(diagnostic);
+                if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                    failedScripts.add(key);
+                }
+            }
+
+            if (message.length() > 0) {
+                message.append("\n");
+            }
+            if (key != null) {
+                message.append(key).append(": ");
+            }
+            message.append(diagnostic);
+        }
+
+        return new BatchCompilationException(message.toString(), scriptDiagnostics, failedScripts);
+    }
+
+    private static long sizeOf(Map<String, byte[]> compiledClasses) {
+        long size = 0;
+        for (byte[] bytes : compiledClasses.values()) {
+            size += bytes.length;
+        }
+        return size;
+    }
+
+    /**
+     * A compilation that is reported to the {@link MetricsListener}.
+     *
+     * @param <T> the type of the compilation result
+     */
+    private interface Compilation<T> {
+        T compile() throws ScriptException;
+    }
+
+    /**
+     * A compiled and loaded script class together with the size of its bytecode.
+     */
+    private static class CompiledClass {
+        final Class<?> clazz;
+        final long size;
+
+        CompiledClass(Class<?> clazz, long size) {
+            this.clazz = clazz;
+            this.size = size;
         }
     }
 
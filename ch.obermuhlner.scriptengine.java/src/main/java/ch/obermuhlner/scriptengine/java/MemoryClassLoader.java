@@ -4,12 +4,26 @@ import java.net.*;
 import java.security.*;
 import java.security.cert.Certificate;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A {@link ClassLoader} that loads classes from memory.
+ *
+ * Classes in memory are loaded before delegating to the parent {@link ClassLoader}
+ * and are defined lazily when they are loaded for the first time.
+ * The bytecode of a class is released as soon as the class is defined,
+ * so that only the bytecode of classes that were never loaded (for example unused inner classes) stays in memory.
+ *
+ * The class loader is registered as parallel capable:
+ * classes with different names are loaded concurrently, locking only on the name of the loaded class,
+ * and a class that was already defined is returned without any locking.
  */
 public class MemoryClassLoader extends ClassLoader {
 
+    static {
+        registerAsParallelCapable();
+    }
+
     /**
      * URL used to identify the {@link CodeSource} of the {@link ProtectionDomain} used by this class loader.
      *
@@ -22,18 +36,20 @@ grant codeBase "jrt:/ch.obermuhlner.scriptengine.java/memory-class" {
      */
     public static final String MEMORY_CLASS_URL = "http://ch.obermuhlner/ch.obermuhlner.scriptengine.java/memory-class";
 
-    private ProtectionDomain protectionDomain;
-    private Map<String, byte[]> mapClassBytes;
+    private final ProtectionDomain protectionDomain;
+    private final Map<String, byte[]> mapClassBytes;
 
     /**
      * Creates a {@link MemoryClassLoader}.
      *
+     * The map is copied, the byte arrays of the compiled classes are not copied and must not be modified afterwards.
+     *
      * @param mapClassBytes the map of class names to compiled classes
      * @param parent the parent {@link ClassLoader}
      */
     public MemoryClassLoader(Map<String, byte[]> mapClassBytes, ClassLoader parent) {
         super(parent);
-        this.mapClassBytes = mapClassBytes;
+        this.mapClassBytes = new ConcurrentHashMap<>(mapClassBytes);
 
         try {
             URL url = new URL(MEMORY_CLASS_URL);
@@ -44,13 +60,66 @@ grant codeBase "jrt:/ch.obermuhlner.scriptengine.java/memory-class" {
         }
     }
 
+    /**
+     * Adds more classes that can be loaded by this class loader.
+     *
+     * @param classBytes the map of class names to compiled classes
+     */
+    void addClasses(Map<String, byte[]> classBytes) {
+        mapClassBytes.putAll(classBytes);
+    }
+
+    /**
+     * Returns whether this class loader has defined or can define the class with the specified name from memory.
+     *
+     * @param name the fully qualified class name
+     * @return {@code true} if the class is defined or its bytecode is known
+     */
+    boolean containsClass(String name) {
+        return mapClassBytes.containsKey(name) || findLoadedClass(name) != null;
+    }
+
+    /**
+     * Returns the number of classes in memory that have not been defined yet.
+     *
+     * @return the number of undefined classes
+     */
+    int getUndefinedClassCount() {
+        return mapClassBytes.size();
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        Class<?> loadedClass = findLoadedClass(name);
+        if (loadedClass == null) {
+            if (!mapClassBytes.containsKey(name)) {
+                // also finds a class that was defined concurrently, since the bytecode is only released after the definition
+                return super.loadClass(name, resolve);
+            }
+
+            synchronized (getClassLoadingLock(name)) {
+                loadedClass = findLoadedClass(name);
+                if (loadedClass == null) {
+                    loadedClass = findClass(name);
+                }
+            }
+        }
+
+        if (resolve) {
+            resolveClass(loadedClass);
+        }
+        return loadedClass;
+    }
+
     @Override
-    public Class<?> loadClass(String name) throws ClassNotFoundException {
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
         byte[] bytes = mapClassBytes.get(name);
         if (bytes == null) {
-            return super.loadClass(name);
+            throw new ClassNotFoundException(name);
         }
 
-        return defineClass(name, bytes, 0, bytes.length, protectionDomain);
+        Class<?> definedClass = defineClass(name, bytes, 0, bytes.length, protectionDomain);
+        mapClassBytes.remove(name);
+        return definedClass;
     }
 }
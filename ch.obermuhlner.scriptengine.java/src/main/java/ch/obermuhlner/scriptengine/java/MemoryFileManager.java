@@ -58,18 +58,47 @@ public class MemoryFileManager extends ForwardingJavaFileManager<JavaFileManager
                 classLoader = parentClassLoader;
             }
 
-            Map<String, byte[]> mapNameToBytes = new HashMap<>();
+            return new MemoryClassLoader(getCompiledClasses(), classLoader);
+        }
+
+        return classLoader;
+    }
+
+    /**
+     * Returns the bytecode of all classes compiled into memory.
+     *
+     * @return the map of class names to compiled classes
+     */
+    public Map<String, byte[]> getCompiledClasses() {
+        Map<String, byte[]> mapNameToBytes = new HashMap<>();
+
+        for (ClassMemoryJavaFileObject outputMemoryJavaFileObject : memoryClasses()) {
+            mapNameToBytes.put(
+                    outputMemoryJavaFileObject.getName(),
+                    outputMemoryJavaFileObject.getBytes());
+        }
+
+        return mapNameToBytes;
+    }
 
-            for (ClassMemoryJavaFileObject outputMemoryJavaFileObject : memoryClasses()) {
+    /**
+     * Returns the bytecode of all classes compiled into memory from the specified source.
+     *
+     * @param source the source {@link FileObject} that was compiled
+     * @return the map of class names to compiled classes
+     */
+    public Map<String, byte[]> getCompiledClasses(FileObject source) {
+        Map<String, byte[]> mapNameToBytes = new HashMap<>();
+
+        for (ClassMemoryJavaFileObject outputMemoryJavaFileObject : memoryClasses()) {
+            if (outputMemoryJavaFileObject.getSibling() == source) {
                 mapNameToBytes.put(
                         outputMemoryJavaFileObject.getName(),
                         outputMemoryJavaFileObject.getBytes());
             }
-
-            return new MemoryClassLoader(mapNameToBytes, classLoader);
         }
 
-        return classLoader;
+        return mapNameToBytes;
     }
 
     @Override
@@ -131,7 +160,7 @@ public class MemoryFileManager extends ForwardingJavaFileManager<JavaFileManager
             FileObject sibling)
             throws IOException {
         if (kind == JavaFileObject.Kind.CLASS) {
-            ClassMemoryJavaFileObject file = new ClassMemoryJavaFileObject(className);
+            ClassMemoryJavaFileObject file = new ClassMemoryJavaFileObject(className, sibling);
             mapNameToClasses.put(className, file);
             return file;
         }
@@ -209,11 +238,26 @@ public class MemoryFileManager extends ForwardingJavaFileManager<JavaFileManager
         private transient byte[] bytes = null;
 
         private final String className;
+        private final FileObject sibling;
 
         public ClassMemoryJavaFileObject(String className) {
+            this(className, null);
+        }
+
+        public ClassMemoryJavaFileObject(String className, FileObject sibling) {
             super(className, JavaFileObject.Kind.CLASS);
 
             this.className = className;
+            this.sibling = sibling;
+        }
+
+        /**
+         * Returns the source file object this class was compiled from.
+         *
+         * @return the source {@link FileObject} or {@code null} if unknown
+         */
+        public FileObject getSibling() {
+            return sibling;
         }
 
         public byte[] getBytes() {
@@ -239,5 +283,4 @@ public class MemoryFileManager extends ForwardingJavaFileManager<JavaFileManager
             return new ByteArrayInputStream(getBytes());
         }
     }
-
 }
@@ -0,0 +1,166 @@
+package ch.obermuhlner.scriptengine.java;
+
+import javax.script.ScriptException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A generation of scripts that share a single {@link MemoryClassLoader}, for example all scripts of a deployed rule pack.
+ *
+ * Instead of creating one class loader per compiled script, all script classes of a generation
+ * are defined lazily by the same class loader from a shared map of bytecode.
+ * This amortizes the cost of the class loader, its {@link java.security.ProtectionDomain}
+ * and the delegation to the parent class loader over all scripts of the generation.
+ *
+ * The scripts of a generation are unloaded together:
+ * after {@link #close()} the class loader and all script classes can be garbage collected
+ * as soon as the generation and its scripts are not referenced anymore.
+ *
+ * Since all classes of a generation live in the same class loader,
+ * the fully qualified class names of the scripts (including their inner classes) must be unique within the generation.
+ *
+ * Scripts compiled in a generation bypass the {@link ch.obermuhlner.scriptengine.java.cache.CompiledScriptCache}
+ * and are not coalesced with concurrent compilations outside of the generation,
+ * the {@link ch.obermuhlner.scriptengine.java.cache.BytecodeCache} is still used.
+ *
+ * Create a generation with {@link JavaScriptEngine#createGeneration(String)}.
+ */
+public class ScriptGeneration implements AutoCloseable {
+    private final JavaScriptEngine engine;
+    private final String name;
+    private final MemoryClassLoader classLoader;
+    private final ClassLoaderTracker classLoaderTracker;
+    private final ClassLoaderTracker.TrackedClassLoader trackedClassLoader;
+    private final List<JavaCompiledScript> compiledScripts = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+
+    ScriptGeneration(JavaScriptEngine engine, String name, ClassLoader parentClassLoader, ClassLoaderTracker classLoaderTracker) {
+        this.engine = engine;
+        this.name = name;
+        this.classLoader = new MemoryClassLoader(Collections.emptyMap(), parentClassLoader);
+        this.classLoaderTracker = classLoaderTracker;
+        this.trackedClassLoader = classLoaderTracker.register(classLoader, 0, 0);
+    }
+
+    /**
+     * Returns the name of this generation.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the {@link ClassLoader} shared by all scripts of this generation.
+     *
+     * @return the {@link ClassLoader}
+     */
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    /**
+     * Compiles a script into this generation.
+     *
+     * @param script the script to compile
+     * @return the {@link JavaCompiledScript}
+     * @throws ScriptException if the script could not be compiled,
+     *         a class with the same name already exists in this generation or the generation is closed
+     * @see JavaScriptEngine#compile(String)
+     */
+    public JavaCompiledScript compile(String script) throws ScriptException {
+        checkOpen();
+        return engine.compile(script, this);
+    }
+
+    /**
+     * Compiles many scripts into this generation with a single invocation of the java compiler.
+     *
+     * @param scripts the map of keys to scripts
+     * @return the map of keys to {@link JavaCompiledScript}s, in the iteration order of the specified map
+     * @throws ScriptException if the scripts could not be compiled,
+     *         a class with the same name already exists in this generation or the generation is closed
+     * @see JavaScriptEngine#compileAll(Map)
+     */
+    public Map<String, JavaCompiledScript> compileAll(Map<String, String> scripts) throws ScriptException {
+        checkOpen();
+        return engine.compileAll(scripts, this);
+    }
+
+    /**
+     * Returns the scripts compiled into this generation.
+     *
+     * @return the unmodifiable list of {@link JavaCompiledScript}s
+     */
+    public List<JavaCompiledScript> getCompiledScripts() {
+        return Collections.unmodifiableList(new ArrayList<>(compiledScripts));
+    }
+
+    /**
+     * Returns whether this generation is closed.
+     *
+     * @return {@code true} if this generation is closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes this generation and all scripts compiled into it.
+     *
+     * No more scripts can be compiled into a closed generation.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (JavaCompiledScript compiledScript : compiledScripts) {
+            compiledScript.close();
+        }
+        compiledScripts.clear();
+    }
+
+    /**
+     * Adds the bytecode of compiled classes to the class loader of this generation.
+     *
+     * The classes are defined lazily when they are loaded for the first time.
+     *
+     * @param compiledClasses the map of class names to compiled classes
+     * @return the {@link ClassLoader} of this generation
+     * @throws ScriptException if a class with the same name already exists in this generation
+     */
+    synchronized ClassLoader addClasses(Map<String, byte[]> compiledClasses) throws ScriptException {
+        checkOpen();
+        for (String className : compiledClasses.keySet()) {
+            if (classLoader.containsClass(className)) {
+                throw new ScriptException("Class already exists in script generation " + name + ": " + className);
+            }
+        }
+
+        long bytecodeSize = 0;
+        for (byte[] bytes : compiledClasses.values()) {
+            bytecodeSize += bytes.length;
+        }
+        classLoader.addClasses(compiledClasses);
+        classLoaderTracker.addClasses(trackedClassLoader, compiledClasses.size(), bytecodeSize);
+        return classLoader;
+    }
+
+    void add(JavaCompiledScript compiledScript) {
+        compiledScripts.add(compiledScript);
+    }
+
+    private void checkOpen() throws ScriptException {
+        if (closed) {
+            throw new ScriptException("Script generation is closed: " + name);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ScriptGeneration{" + name + "}";
+    }
+}
@@ -0,0 +1,108 @@
+package ch.obermuhlner.scriptengine.java.async;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An {@link Executor} that limits the number of pending tasks of another {@link Executor}.
+ *
+ * A task is pending from the call to {@link #execute(Runnable)} until it has finished running.
+ * If the maximum number of pending tasks is reached, new tasks are rejected immediately
+ * with a {@link RejectedExecutionException} instead of queuing up without limit.
+ */
+public class BoundedExecutor implements Executor {
+    private final Executor delegate;
+    private final int maxPending;
+    private final Semaphore permits;
+
+    private final AtomicLong executedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    /**
+     * Creates a {@link BoundedExecutor}.
+     *
+     * @param delegate the {@link Executor} that runs the tasks
+     * @param maxPending the maximum number of pending tasks
+     */
+    public BoundedExecutor(Executor delegate, int maxPending) {
+        Objects.requireNonNull(delegate);
+        if (maxPending <= 0) {
+            throw new IllegalArgumentException("maxPending must be positive: " + maxPending);
+        }
+        this.delegate = delegate;
+        this.maxPending = maxPending;
+        this.permits = new Semaphore(maxPending);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        Objects.requireNonNull(command);
+        if (!permits.tryAcquire()) {
+            rejectedCount.incrementAndGet();
+            throw new RejectedExecutionException("Too many pending tasks: " + maxPending);
+        }
+
+        try {
+            delegate.execute(() -> {
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            });
+            executedCount.incrementAndGet();
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            rejectedCount.incrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the {@link Executor} that runs the tasks.
+     *
+     * @return the delegate {@link Executor}
+     */
+    public Executor getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Returns the maximum number of pending tasks.
+     *
+     * @return the maximum number of pending tasks
+     */
+    public int getMaxPending() {
+        return maxPending;
+    }
+
+    /**
+     * Returns the number of tasks that are currently queued or running.
+     *
+     * @return the number of pending tasks
+     */
+    public int getPendingCount() {
+        return maxPending - permits.availablePermits();
+    }
+
+    /**
+     * Returns the number of tasks that were accepted.
+     *
+     * @return the number of accepted tasks
+     */
+    public long getExecutedCount() {
+        return executedCount.get();
+    }
+
+    /**
+     * Returns the number of tasks that were rejected.
+     *
+     * @return the number of rejected tasks
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+}
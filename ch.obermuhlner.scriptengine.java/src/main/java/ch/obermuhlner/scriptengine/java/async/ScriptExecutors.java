@@ -0,0 +1,134 @@
+package ch.obermuhlner.scriptengine.java.async;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factory methods for the {@link Executor}s used to compile and evaluate scripts asynchronously.
+ */
+public final class ScriptExecutors {
+
+    /**
+     * The default maximum number of pending asynchronous tasks.
+     */
+    public static final int DEFAULT_MAX_PENDING = 1024;
+
+    private ScriptExecutors() {
+        // does nothing
+    }
+
+    /**
+     * Returns the default {@link Executor} shared by all script engines that do not specify their own executor.
+     *
+     * The default executor is created on first use by {@link #newDefaultExecutor(int)}
+     * with {@link #DEFAULT_MAX_PENDING}.
+     *
+     * @return the default {@link BoundedExecutor}
+     */
+    public static BoundedExecutor getDefault() {
+        return DefaultHolder.DEFAULT;
+    }
+
+    /**
+     * Creates a new {@link BoundedExecutor} that runs every task in a new virtual thread if the JDK supports virtual threads (JDK 21 or later),
+     * or in a pool of daemon platform threads with one thread per available processor otherwise.
+     *
+     * @param maxPending the maximum number of pending tasks
+     * @return the created {@link BoundedExecutor}
+     */
+    public static BoundedExecutor newDefaultExecutor(int maxPending) {
+        ExecutorService virtualThreadExecutor = newVirtualThreadExecutor();
+        if (virtualThreadExecutor != null) {
+            return new BoundedExecutor(virtualThreadExecutor, maxPending);
+        }
+        return newPlatformThreadExecutor(Runtime.getRuntime().availableProcessors(), maxPending);
+    }
+
+    /**
+     * Creates a new {@link BoundedExecutor} that runs the tasks in a fixed pool of daemon platform threads.
+     *
+     * @param threadCount the number of threads
+     * @param maxPending the maximum number of pending tasks
+     * @return the created {@link BoundedExecutor}
+     */
+    public static BoundedExecutor newPlatformThreadExecutor(int threadCount, int maxPending) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threadCount,
+                threadCount,
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new DaemonThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+        return new BoundedExecutor(executor, maxPending);
+    }
+
+    /**
+     * Creates a new {@link ExecutorService} that runs every task in a new virtual thread.
+     *
+     * @return the created {@link ExecutorService} or {@code null} if the JDK does not support virtual threads
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Runs a task with the specified {@link Executor} and returns a {@link CompletableFuture} of its result.
+     *
+     * Unlike {@link CompletableFuture#supplyAsync(java.util.function.Supplier, Executor)}
+     * checked exceptions of the task complete the future directly (without wrapping them)
+     * and a task rejected by the executor returns a future that failed with the {@link RejectedExecutionException}.
+     *
+     * @param task the task to run
+     * @param executor the {@link Executor}
+     * @param <T> the type of the result
+     * @return the {@link CompletableFuture} of the result
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Callable<T> task, Executor executor) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(task.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private static class DefaultHolder {
+        static final BoundedExecutor DEFAULT = newDefaultExecutor(DEFAULT_MAX_PENDING);
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private static final AtomicInteger poolNumber = new AtomicInteger();
+
+        private final int pool = poolNumber.incrementAndGet();
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "java-scriptengine-" + pool + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ch.obermuhlner.scriptengine.java.bindings;
+
+import javax.script.ScriptException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A {@link BindingStrategy} that reads and writes the public fields of the compiled script
+ * with the cached {@link FieldAccessors} of the compiled class.
+ *
+ * Bindings without a matching public field are ignored.
+ */
+public class FieldAccessorBindingStrategy implements BindingStrategy {
+
+    @Override
+    public void associateBindings(Class<?> compiledClass, Object compiledInstance, Map<String, Object> mergedBindings) {
+        FieldAccessors accessors = FieldAccessors.of(compiledClass);
+        for (Map.Entry<String, Object> entry : mergedBindings.entrySet()) {
+            int index = accessors.indexOf(entry.getKey());
+            if (index >= 0) {
+                try {
+                    accessors.set(index, compiledInstance, entry.getValue());
+                } catch (ScriptException e) {
+                    throw new IllegalArgumentException(e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Object> retrieveBindings(Class<?> compiledClass, Object compiledInstance) {
+        FieldAccessors accessors = FieldAccessors.of(compiledClass);
+        Map<String, Object> bindings = new LinkedHashMap<>();
+        for (int i = 0; i < accessors.size(); i++) {
+            try {
+                bindings.put(accessors.getName(i), accessors.get(i, compiledInstance));
+            } catch (ScriptException e) {
+                throw new IllegalArgumentException(e.getMessage(), e);
+            }
+        }
+        return bindings;
+    }
+}
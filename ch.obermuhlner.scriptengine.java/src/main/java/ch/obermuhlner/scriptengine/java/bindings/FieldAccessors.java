@@ -0,0 +1,251 @@
+package ch.obermuhlner.scriptengine.java.bindings;
+
+import javax.script.ScriptException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fast accessors for the public fields of a compiled script class.
+ *
+ * The accessors are built once per {@link Class} from {@link MethodHandle}s and cached together with the class,
+ * so that reading and writing fields does not need any reflective lookup.
+ *
+ * Static and instance fields are both supported, the instance argument is ignored for static fields.
+ * Final fields can only be read.
+ */
+public final class FieldAccessors {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType DOUBLE_SETTER_TYPE = MethodType.methodType(void.class, Object.class, double.class);
+
+    private static final ClassValue<FieldAccessors> CACHE = new ClassValue<FieldAccessors>() {
+        @Override
+        protected FieldAccessors computeValue(Class<?> type) {
+            return new FieldAccessors(type);
+        }
+    };
+
+    private final Class<?> clazz;
+    private final String[] names;
+    private final MethodHandle[] getters;
+    private final MethodHandle[] setters;
+    private final MethodHandle[] doubleSetters;
+    private final boolean[] hidden;
+    private final boolean[] primitive;
+    private final boolean[] output;
+    private final Map<String, Integer> indexes;
+
+    private FieldAccessors(Class<?> clazz) {
+        this.clazz = clazz;
+
+        Field[] fields = clazz.getFields();
+        names = new String[fields.length];
+        getters = new MethodHandle[fields.length];
+        setters = new MethodHandle[fields.length];
+        doubleSetters = new MethodHandle[fields.length];
+        hidden = new boolean[fields.length];
+        primitive = new boolean[fields.length];
+        output = new boolean[fields.length];
+        Map<String, Integer> indexMap = new HashMap<>();
+
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        for (int i = 0; i < fields.length; i++) {
+            Field field = fields[i];
+            boolean isStatic = Modifier.isStatic(field.getModifiers());
+            names[i] = field.getName();
+            hidden[i] = indexMap.putIfAbsent(field.getName(), i) != null;
+            primitive[i] = field.getType().isPrimitive();
+            output[i] = field.isAnnotationPresent(Output.class);
+
+            try {
+                MethodHandle getter = lookup.unreflectGetter(field);
+                if (isStatic) {
+                    getter = MethodHandles.dropArguments(getter, 0, Object.class);
+                }
+                getters[i] = getter.asType(GETTER_TYPE);
+            } catch (IllegalAccessException e) {
+                // not accessible, reported when the field is read
+            }
+
+            if (!Modifier.isFinal(field.getModifiers())) {
+                try {
+                    MethodHandle setter = lookup.unreflectSetter(field);
+                    if (isStatic) {
+                        setter = MethodHandles.dropArguments(setter, 0, Object.class);
+                    }
+                    setters[i] = setter.asType(SETTER_TYPE);
+                    doubleSetters[i] = toDoubleSetter(setter);
+                } catch (IllegalAccessException e) {
+                    // not accessible, reported when the field is written
+                }
+            }
+        }
+        indexes = Collections.unmodifiableMap(indexMap);
+    }
+
+    /**
+     * Returns the cached {@link FieldAccessors} of the specified {@link Class}.
+     *
+     * @param clazz the {@link Class}
+     * @return the {@link FieldAccessors}
+     */
+    public static FieldAccessors of(Class<?> clazz) {
+        return CACHE.get(clazz);
+    }
+
+    /**
+     * Returns the number of public fields.
+     *
+     * @return the number of fields
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Returns the name of the field with the specified index.
+     *
+     * @param index the index of the field
+     * @return the field name
+     */
+    public String getName(int index) {
+        return names[index];
+    }
+
+    /**
+     * Returns whether the field with the specified index is hidden by another public field with the same name,
+     * for example a field of a superclass that is redeclared in a subclass.
+     *
+     * Hidden fields are not returned by {@link #indexOf(String)}.
+     *
+     * @param index the index of the field
+     * @return {@code true} if the field is hidden
+     */
+    public boolean isHidden(int index) {
+        return hidden[index];
+    }
+
+    /**
+     * Returns whether the field with the specified index has a primitive type.
+     *
+     * @param index the index of the field
+     * @return {@code true} if the field has a primitive type
+     */
+    public boolean isPrimitive(int index) {
+        return primitive[index];
+    }
+
+    /**
+     * Returns whether the field with the specified index is annotated with {@link Output}.
+     *
+     * @param index the index of the field
+     * @return {@code true} if the field is an output field
+     */
+    public boolean isOutput(int index) {
+        return output[index];
+    }
+
+    /**
+     * Returns the index of the public field with the specified name.
+     *
+     * @param name the field name
+     * @return the index of the field or -1 if the class has no public field with this name
+     */
+    public int indexOf(String name) {
+        Integer index = indexes.get(name);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Reads the value of a field.
+     *
+     * @param index the index of the field
+     * @param instance the instance or {@code null} for static fields
+     * @return the value of the field, primitive values are boxed
+     * @throws ScriptException if the field could not be read
+     */
+    public Object get(int index, Object instance) throws ScriptException {
+        MethodHandle getter = getters[index];
+        if (getter == null) {
+            throw new ScriptException("Field is not accessible: " + clazz.getName() + "." + names[index]);
+        }
+        try {
+            return getter.invokeExact(instance);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ScriptException(toException(e));
+        }
+    }
+
+    /**
+     * Writes the value of a field.
+     *
+     * Boxed values are unboxed and widened if the field has a primitive type.
+     *
+     * @param index the index of the field
+     * @param instance the instance or {@code null} for static fields
+     * @param value the value
+     * @throws ScriptException if the field could not be written, for example because it is final
+     *         or because the value does not match the type of the field
+     */
+    public void set(int index, Object instance, Object value) throws ScriptException {
+        MethodHandle setter = setters[index];
+        if (setter == null) {
+            throw new ScriptException("Field is not writable: " + clazz.getName() + "." + names[index]);
+        }
+        try {
+            setter.invokeExact(instance, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ScriptException(toException(e));
+        }
+    }
+
+    /**
+     * Writes a {@code double} value into a field without boxing it, if the field has the type {@code double}.
+     *
+     * Fields with a reference type that can hold a {@link Double} (for example {@link Number}) receive the boxed value.
+     *
+     * @param index the index of the field
+     * @param instance the instance or {@code null} for static fields
+     * @param value the value
+     * @throws ScriptException if the field could not be written, for example because it is final
+     *         or because the field cannot hold a {@code double} without narrowing
+     */
+    public void setDouble(int index, Object instance, double value) throws ScriptException {
+        MethodHandle setter = doubleSetters[index];
+        if (setter == null) {
+            throw new ScriptException("Field is not writable as double: " + clazz.getName() + "." + names[index]);
+        }
+        try {
+            setter.invokeExact(instance, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ScriptException(toException(e));
+        }
+    }
+
+    private static MethodHandle toDoubleSetter(MethodHandle setter) {
+        try {
+            return setter.asType(DOUBLE_SETTER_TYPE);
+        } catch (WrongMethodTypeException e) {
+            // the field type cannot hold a double without narrowing
+            return null;
+        }
+    }
+
+    private static Exception toException(Throwable throwable) {
+        return throwable instanceof Exception ? (Exception) throwable : new Exception(throwable);
+    }
+}
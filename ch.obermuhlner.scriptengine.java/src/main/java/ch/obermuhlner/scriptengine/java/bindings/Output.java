@@ -0,0 +1,17 @@
+package ch.obermuhlner.scriptengine.java.bindings;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a public field of a script as output that is written back into the bindings
+ * if the {@link WriteBackMode#AnnotatedFields} mode is used.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Output {
+}
@@ -0,0 +1,27 @@
+package ch.obermuhlner.scriptengine.java.bindings;
+
+/**
+ * The modes used to write the public fields of a script back into the bindings after an evaluation.
+ */
+public enum WriteBackMode {
+    /**
+     * All public fields are written back into the bindings.
+     */
+    AllFields,
+
+    /**
+     * Only public fields whose value was changed by the evaluation are written back into the bindings.
+     *
+     * The values of the fields are recorded before the evaluation.
+     * Reference values are compared by identity, primitive values by value.
+     */
+    ChangedFields,
+
+    /**
+     * Only public fields annotated with {@link Output} are written back into the bindings.
+     *
+     * The script must be able to see the {@link Output} annotation,
+     * which is not the case with {@link ch.obermuhlner.scriptengine.java.Isolation#IsolatedClassLoader}.
+     */
+    AnnotatedFields
+}
@@ -0,0 +1,27 @@
+package ch.obermuhlner.scriptengine.java.cache;
+
+import java.util.Map;
+
+/**
+ * A persistent cache of the bytecode of compiled scripts.
+ *
+ * The bytecode cache allows to skip the java compiler for scripts that were already compiled,
+ * even after a restart of the JVM.
+ */
+public interface BytecodeCache {
+    /**
+     * Loads the bytecode of all classes compiled for the specified key.
+     *
+     * @param key the key (see {@link ScriptCacheKey#getPersistentHash()})
+     * @return the map of class names to compiled classes, or {@code null} if nothing is cached for this key
+     */
+    Map<String, byte[]> load(String key);
+
+    /**
+     * Stores the bytecode of all classes compiled for the specified key.
+     *
+     * @param key the key (see {@link ScriptCacheKey#getPersistentHash()})
+     * @param compiledClasses the map of class names to compiled classes
+     */
+    void store(String key, Map<String, byte[]> compiledClasses);
+}
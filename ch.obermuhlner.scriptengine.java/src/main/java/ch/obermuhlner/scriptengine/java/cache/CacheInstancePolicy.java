@@ -0,0 +1,20 @@
+package ch.obermuhlner.scriptengine.java.cache;
+
+/**
+ * The policy used by a {@link CompiledScriptCache} to provide the instance of a cached script class.
+ */
+public enum CacheInstancePolicy {
+    /**
+     * Every compilation that hits the cache constructs a new instance of the cached class.
+     *
+     * The compiled scripts share the class but not the state of the instance.
+     */
+    NewInstance,
+
+    /**
+     * All compilations that hit the cache share the same instance of the cached class.
+     *
+     * The compiled scripts share the state of the instance.
+     */
+    SharedInstance
+}
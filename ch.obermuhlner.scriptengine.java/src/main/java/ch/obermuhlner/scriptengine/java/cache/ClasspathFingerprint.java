@@ -0,0 +1,109 @@
+package ch.obermuhlner.scriptengine.java.cache;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Calculates a fingerprint of the JDK and the classpath visible to the compiler and the script.
+ *
+ * The fingerprint changes if the JDK version changes or if any classpath entry
+ * (jar file or class directory) is added, removed or modified.
+ */
+final class ClasspathFingerprint {
+
+    private static final Map<ClassLoader, String> classLoaderFingerprints = new WeakHashMap<>();
+    private static String systemFingerprint;
+
+    private ClasspathFingerprint() {
+        // does nothing
+    }
+
+    /**
+     * Returns the fingerprint of the JDK, the system classpath and
+     * the {@link URLClassLoader} entries of the specified class loader hierarchy.
+     *
+     * @param classLoader the {@link ClassLoader} or {@code null}
+     * @return the fingerprint
+     */
+    static String of(ClassLoader classLoader) {
+        StringBuilder s = new StringBuilder(systemFingerprint());
+        for (ClassLoader current = classLoader; current != null; current = current.getParent()) {
+            s.append('|');
+            s.append(classLoaderFingerprint(current));
+        }
+        return s.toString();
+    }
+
+    private static synchronized String systemFingerprint() {
+        if (systemFingerprint == null) {
+            StringBuilder s = new StringBuilder();
+            s.append(System.getProperty("java.vendor")).append(',');
+            s.append(System.getProperty("java.version")).append(',');
+            s.append(System.getProperty("java.vm.version")).append(',');
+            s.append(System.getProperty("java.home"));
+            String classPath = System.getProperty("java.class.path", "");
+            for (String entry : classPath.split(File.pathSeparator)) {
+                if (!entry.isEmpty()) {
+                    appendFile(s, new File(entry));
+                }
+            }
+            systemFingerprint = s.toString();
+        }
+        return systemFingerprint;
+    }
+
+    private static synchronized String classLoaderFingerprint(ClassLoader classLoader) {
+        return classLoaderFingerprints.computeIfAbsent(classLoader, key -> {
+            StringBuilder s = new StringBuilder(key.getClass().getName());
+            if (key instanceof URLClassLoader) {
+                for (URL url : ((URLClassLoader) key).getURLs()) {
+                    appendUrl(s, url);
+                }
+            }
+            return s.toString();
+        });
+    }
+
+    private static void appendUrl(StringBuilder s, URL url) {
+        if ("file".equals(url.getProtocol())) {
+            try {
+                appendFile(s, new File(url.toURI()));
+                return;
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                // fall through and use the URL only
+            }
+        }
+        s.append(';').append(url);
+    }
+
+    private static void appendFile(StringBuilder s, File file) {
+        s.append(';').append(file.getAbsolutePath());
+        if (file.isDirectory()) {
+            long[] stats = new long[3];
+            collectDirectoryStats(file, stats);
+            s.append(',').append(stats[0]).append(',').append(stats[1]).append(',').append(stats[2]);
+        } else {
+            s.append(',').append(file.length()).append(',').append(file.lastModified());
+        }
+    }
+
+    private static void collectDirectoryStats(File directory, long[] stats) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                collectDirectoryStats(file, stats);
+            } else {
+                stats[0]++;
+                stats[1] += file.length();
+                stats[2] = Math.max(stats[2], file.lastModified());
+            }
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package ch.obermuhlner.scriptengine.java.cache;
+
+import ch.obermuhlner.scriptengine.java.constructor.ConstructorStrategy;
+
+import javax.script.ScriptException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of compiled script classes.
+ *
+ * The cache is keyed by a {@link ScriptCacheKey} and evicts the least recently used entries
+ * if either the maximum number of entries or the maximum weight (the sum of the bytecode sizes
+ * of all cached classes) is exceeded.
+ *
+ * Evicted entries drop the reference to their class, so that the class and its
+ * class loader can be unloaded once no compiled script uses them anymore.
+ *
+ * A single {@link CompiledScriptCache} can be shared by several {@link ch.obermuhlner.scriptengine.java.JavaScriptEngine}s.
+ */
+public class CompiledScriptCache {
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final Map<ScriptCacheKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private CacheInstancePolicy instancePolicy = CacheInstancePolicy.NewInstance;
+
+    private long weight;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates a {@link CompiledScriptCache} with the specified maximum number of entries and no weight limit.
+     *
+     * @param maxEntries the maximum number of cached classes
+     */
+    public CompiledScriptCache(int maxEntries) {
+        this(maxEntries, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a {@link CompiledScriptCache} with the specified limits.
+     *
+     * @param maxEntries the maximum number of cached classes
+     * @param maxWeight the maximum sum of bytecode sizes in bytes of all cached classes
+     */
+    public CompiledScriptCache(int maxEntries, long maxWeight) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("maxWeight must be positive: " + maxWeight);
+        }
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Sets the policy to provide the instance of a cached script class.
+     *
+     * @param instancePolicy the {@link CacheInstancePolicy}
+     */
+    public synchronized void setInstancePolicy(CacheInstancePolicy instancePolicy) {
+        this.instancePolicy = instancePolicy;
+    }
+
+    /**
+     * Returns the policy to provide the instance of a cached script class.
+     *
+     * @return the {@link CacheInstancePolicy}
+     */
+    public synchronized CacheInstancePolicy getInstancePolicy() {
+        return instancePolicy;
+    }
+
+    /**
+     * Returns the cached entry for the specified key and counts a hit or a miss.
+     *
+     * @param key the {@link ScriptCacheKey}
+     * @return the cached {@link Entry} or {@code null} if the key is not cached
+     */
+    public synchronized Entry get(ScriptCacheKey key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            missCount++;
+        } else {
+            hitCount++;
+        }
+        return entry;
+    }
+
+    /**
+     * Adds a compiled class to the cache, evicting the least recently used entries if necessary.
+     *
+     * If the key is already cached (for example because another thread compiled the same script concurrently)
+     * the existing entry is kept and returned.
+     *
+     * @param key the {@link ScriptCacheKey}
+     * @param compiledClass the compiled {@link Class}
+     * @param classWeight the size in bytes of the bytecode of the compiled class and all its inner classes
+     * @return the cached {@link Entry}
+     */
+    public synchronized Entry put(ScriptCacheKey key, Class<?> compiledClass, long classWeight) {
+        Entry existing = entries.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        Entry entry = new Entry(compiledClass, classWeight);
+        entries.put(key, entry);
+        weight += classWeight;
+
+        Iterator<Entry> iterator = entries.values().iterator();
+        while ((entries.size() > maxEntries || weight > maxWeight) && entries.size() > 1) {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            evict(eldest);
+        }
+
+        return entry;
+    }
+
+    /**
+     * Removes the entry with the specified key.
+     *
+     * @param key the {@link ScriptCacheKey}
+     */
+    public synchronized void invalidate(ScriptCacheKey key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            evict(entry);
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public synchronized void clear() {
+        for (Entry entry : entries.values()) {
+            evict(entry);
+        }
+        entries.clear();
+    }
+
+    private void evict(Entry entry) {
+        weight -= entry.weight;
+        evictionCount++;
+        entry.sharedInstance = null;
+    }
+
+    /**
+     * Returns the number of cached classes.
+     *
+     * @return the number of cached classes
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the sum of bytecode sizes in bytes of all cached classes.
+     *
+     * @return the weight in bytes
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    /**
+     * Returns the number of lookups that found a cached class.
+     *
+     * @return the hit count
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of lookups that did not find a cached class.
+     *
+     * @return the miss count
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of entries that were evicted or invalidated.
+     *
+     * @return the eviction count
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * A cached compiled script class.
+     */
+    public class Entry {
+        private final Class<?> compiledClass;
+        private final long weight;
+        private volatile Object sharedInstance;
+
+        private Entry(Class<?> compiledClass, long weight) {
+            this.compiledClass = compiledClass;
+            this.weight = weight;
+        }
+
+        /**
+         * Returns the cached compiled {@link Class}.
+         *
+         * @return the compiled {@link Class}
+         */
+        public Class<?> getCompiledClass() {
+            return compiledClass;
+        }
+
+        /**
+         * Returns the size in bytes of the bytecode of the cached class and all its inner classes.
+         *
+         * @return the weight in bytes
+         */
+        public long getWeight() {
+            return weight;
+        }
+
+        /**
+         * Returns the instance of the cached class according to the {@link CacheInstancePolicy} of the cache.
+         *
+         * @param constructorStrategy the {@link ConstructorStrategy} used to construct a new instance
+         * @return the instance or {@code null}
+         * @throws ScriptException if the instance could not be constructed
+         */
+        public Object getInstance(ConstructorStrategy constructorStrategy) throws ScriptException {
+            if (getInstancePolicy() == CacheInstancePolicy.NewInstance) {
+                return constructorStrategy.construct(compiledClass);
+            }
+
+            synchronized (this) {
+                if (sharedInstance == null) {
+                    sharedInstance = constructorStrategy.construct(compiledClass);
+                }
+                return sharedInstance;
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package ch.obermuhlner.scriptengine.java.cache;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link BytecodeCache} that stores the bytecode of compiled scripts in a local directory.
+ *
+ * Every key is stored in a separate file that contains all classes (including inner classes)
+ * compiled for this key.
+ * Files are written to a temporary file first and then moved into place,
+ * so that concurrent readers (also in other JVMs) never see partially written files.
+ *
+ * Unreadable or corrupt files are treated as cache misses and deleted.
+ */
+public class DirectoryBytecodeCache implements BytecodeCache {
+
+    private static final int MAGIC = 0x4a534243; // "JSBC"
+    private static final int FORMAT_VERSION = 1;
+    private static final String EXTENSION = ".classes";
+
+    private final Path directory;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+
+    /**
+     * Creates a {@link DirectoryBytecodeCache} in the specified directory.
+     *
+     * The directory is created if it does not exist yet.
+     *
+     * @param directory the directory {@link Path}
+     * @throws IOException if the directory could not be created
+     */
+    public DirectoryBytecodeCache(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    /**
+     * Returns the directory of this cache.
+     *
+     * @return the directory {@link Path}
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public Map<String, byte[]> load(String key) {
+        Path file = toFile(key);
+        if (!Files.isRegularFile(file)) {
+            missCount.incrementAndGet();
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Unknown format: " + file);
+            }
+            int count = in.readInt();
+            Map<String, byte[]> compiledClasses = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                compiledClasses.put(name, bytes);
+            }
+            hitCount.incrementAndGet();
+            return compiledClasses;
+        } catch (IOException | RuntimeException e) {
+            failureCount.incrementAndGet();
+            missCount.incrementAndGet();
+            deleteQuietly(file);
+            return null;
+        }
+    }
+
+    @Override
+    public void store(String key, Map<String, byte[]> compiledClasses) {
+        Path file = toFile(key);
+        Path tempFile = null;
+        try {
+            tempFile = Files.createTempFile(directory, key, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(compiledClasses.size());
+                for (Map.Entry<String, byte[]> entry : compiledClasses.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(entry.getValue().length);
+                    out.write(entry.getValue());
+                }
+            }
+            move(tempFile, file);
+        } catch (IOException e) {
+            failureCount.incrementAndGet();
+            if (tempFile != null) {
+                deleteQuietly(tempFile);
+            }
+        }
+    }
+
+    /**
+     * Deletes all cached files.
+     *
+     * @throws IOException if a file could not be deleted
+     */
+    public void clear() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of loads that found cached bytecode.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of loads that did not find cached bytecode.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Returns the number of files that could not be read or written.
+     *
+     * @return the failure count
+     */
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    private Path toFile(String key) {
+        if (!key.matches("[A-Za-z0-9_-]+")) {
+            throw new IllegalArgumentException("Illegal key: " + key);
+        }
+        return directory.resolve(key + EXTENSION);
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // ignore, the file will be overwritten by the next store
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package ch.obermuhlner.scriptengine.java.cache;
+
+import ch.obermuhlner.scriptengine.java.Isolation;
+
+import javax.script.ScriptException;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The key of a compiled script in a {@link CompiledScriptCache}.
+ *
+ * The key consists of a hash over everything that influences the compiled bytecode
+ * (class name, sources to compile, compilation options and {@link Isolation})
+ * and the parent {@link ClassLoader} that the compiled class will be loaded with.
+ */
+public final class ScriptCacheKey {
+    private final String hash;
+    private final ClassLoader parentClassLoader;
+    private volatile String persistentHash;
+
+    private ScriptCacheKey(String hash, ClassLoader parentClassLoader) {
+        this.hash = hash;
+        this.parentClassLoader = parentClassLoader;
+    }
+
+    /**
+     * Returns the hash over the sources, compilation options and isolation.
+     *
+     * The hash does not depend on the parent {@link ClassLoader}.
+     *
+     * @return the hash as hex string
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    /**
+     * Returns the parent {@link ClassLoader} the compiled class is loaded with.
+     *
+     * @return the parent {@link ClassLoader} or {@code null} if the class is isolated
+     */
+    public ClassLoader getParentClassLoader() {
+        return parentClassLoader;
+    }
+
+    /**
+     * Returns the hash used as key in a persistent {@link BytecodeCache}.
+     *
+     * In addition to {@link #getHash()} this hash covers the JDK version and a fingerprint
+     * of the classpath visible to the parent {@link ClassLoader},
+     * so that cached bytecode is not reused after the JDK or the classpath have changed.
+     *
+     * @return the persistent hash as hex string
+     */
+    public String getPersistentHash() {
+        String result = persistentHash;
+        if (result == null) {
+            MessageDigest digest = createDigest();
+            update(digest, hash);
+            update(digest, ClasspathFingerprint.of(parentClassLoader));
+            result = toHex(digest.digest());
+            persistentHash = result;
+        }
+        return result;
+    }
+
+    /**
+     * Creates a {@link ScriptCacheKey}.
+     *
+     * @param fullClassName the fully qualified name of the script class
+     * @param sources the {@link JavaFileObject}s that are compiled
+     * @param compilationOptions the compilation options, may be {@code null}
+     * @param isolation the {@link Isolation}
+     * @param parentClassLoader the parent {@link ClassLoader} or {@code null}
+     * @return the created {@link ScriptCacheKey}
+     * @throws ScriptException if the content of a source could not be read
+     */
+    public static ScriptCacheKey of(String fullClassName, List<JavaFileObject> sources, List<String> compilationOptions, Isolation isolation, ClassLoader parentClassLoader) throws ScriptException {
+        MessageDigest digest = createDigest();
+        update(digest, fullClassName);
+        update(digest, isolation.name());
+        if (compilationOptions != null) {
+            for (String compilationOption : compilationOptions) {
+                update(digest, compilationOption);
+            }
+        }
+        for (JavaFileObject source : sources) {
+            update(digest, source.getName());
+            try {
+                update(digest, source.getCharContent(true).toString());
+            } catch (IOException e) {
+                throw new ScriptException(e);
+            }
+        }
+
+        return new ScriptCacheKey(toHex(digest.digest()), parentClassLoader);
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder s = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            s.append(Character.forDigit((b >> 4) & 0xf, 16));
+            s.append(Character.forDigit(b & 0xf, 16));
+        }
+        return s.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ScriptCacheKey)) {
+            return false;
+        }
+        ScriptCacheKey other = (ScriptCacheKey) o;
+        return hash.equals(other.hash) && parentClassLoader == other.parentClassLoader;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(hash, System.identityHashCode(parentClassLoader));
+    }
+
+    @Override
+    public String toString() {
+        return "ScriptCacheKey{" + hash + "}";
+    }
+}
@@ -0,0 +1,72 @@
+package ch.obermuhlner.scriptengine.java.compilation;
+
+import javax.script.ScriptException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A partition of scripts compiled together in a single compilation task by a {@link ParallelCompiler}.
+ */
+public class CompilationPartition {
+    private final int index;
+    private final List<String> keys;
+    private final long elapsedNanos;
+    private final ScriptException exception;
+
+    CompilationPartition(int index, List<String> keys, long elapsedNanos, ScriptException exception) {
+        this.index = index;
+        this.keys = Collections.unmodifiableList(keys);
+        this.elapsedNanos = elapsedNanos;
+        this.exception = exception;
+    }
+
+    /**
+     * Returns the index of this partition.
+     *
+     * @return the index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the keys of the scripts in this partition.
+     *
+     * @return the list of script keys
+     */
+    public List<String> getKeys() {
+        return keys;
+    }
+
+    /**
+     * Returns the time needed to compile this partition.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns whether all scripts in this partition were compiled successfully.
+     *
+     * @return {@code true} if the partition was compiled successfully
+     */
+    public boolean isSuccessful() {
+        return exception == null;
+    }
+
+    /**
+     * Returns the exception that occurred while compiling this partition.
+     *
+     * @return the {@link ScriptException} or {@code null} if the partition was compiled successfully
+     */
+    public ScriptException getException() {
+        return exception;
+    }
+
+    @Override
+    public String toString() {
+        return "CompilationPartition{index=" + index + ", scripts=" + keys.size() + ", elapsedNanos=" + elapsedNanos + ", successful=" + isSuccessful() + "}";
+    }
+}
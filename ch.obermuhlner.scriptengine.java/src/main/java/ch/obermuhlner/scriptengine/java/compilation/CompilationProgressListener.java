@@ -0,0 +1,17 @@
+package ch.obermuhlner.scriptengine.java.compilation;
+
+/**
+ * Listener that is notified about the progress of a {@link ParallelCompiler}.
+ */
+public interface CompilationProgressListener {
+    /**
+     * Called whenever a partition has been compiled (successfully or not).
+     *
+     * This method is called from the worker threads of the {@link ParallelCompiler}.
+     *
+     * @param partition the compiled {@link CompilationPartition}
+     * @param completedPartitions the number of partitions compiled so far
+     * @param totalPartitions the total number of partitions
+     */
+    void partitionCompleted(CompilationPartition partition, int completedPartitions, int totalPartitions);
+}
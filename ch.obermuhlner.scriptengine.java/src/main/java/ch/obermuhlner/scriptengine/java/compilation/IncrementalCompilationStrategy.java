@@ -1,34 +1,46 @@
 package ch.obermuhlner.scriptengine.java.compilation;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import javax.tools.JavaFileObject;
 
 import ch.obermuhlner.scriptengine.java.MemoryFileManager;
 
+/**
+ * A {@link CompilationStrategy} that compiles every script together with the sources of the previously compiled scripts,
+ * so that later scripts can use the classes of earlier scripts.
+ *
+ * Scripts may be compiled from multiple threads.
+ */
 public class IncrementalCompilationStrategy implements CompilationStrategy {
 
-    Map<String, JavaFileObject> previousFileObject = new HashMap<>();
+    Map<String, JavaFileObject> previousFileObject = new ConcurrentHashMap<>();
     
-    JavaFileObject currentJavaFileObject; 
+    private final ThreadLocal<JavaFileObject> currentJavaFileObject = new ThreadLocal<>();
 
     @Override
     public List<JavaFileObject> getJavaFileObjectsToCompile(String simpleClassName, String currentSource) {
-	currentJavaFileObject = MemoryFileManager.createSourceFileObject(null, simpleClassName,
+	JavaFileObject javaFileObject = MemoryFileManager.createSourceFileObject(null, simpleClassName,
 		currentSource);
+	currentJavaFileObject.set(javaFileObject);
 	Stream<JavaFileObject> previousFileObjects = previousFileObject.entrySet().stream()
 		.filter(entry -> !entry.getKey().equals(simpleClassName)) // do no keep the old file
 		.map(Entry::getValue);
-	return Stream.concat(previousFileObjects, Stream.of(currentJavaFileObject)).toList();
+	return Stream.concat(previousFileObjects, Stream.of(javaFileObject)).collect(Collectors.toList());
     }
 
     @Override
     public void compilationResult(Class<?> clazz) {	
-	previousFileObject.put(clazz.getSimpleName(), currentJavaFileObject);
+	JavaFileObject javaFileObject = currentJavaFileObject.get();
+	currentJavaFileObject.remove();
+	if (javaFileObject != null) {
+	    previousFileObject.put(clazz.getSimpleName(), javaFileObject);
+	}
     }
 
 }
@@ -0,0 +1,86 @@
+package ch.obermuhlner.scriptengine.java.compilation;
+
+import ch.obermuhlner.scriptengine.java.BatchCompilationException;
+import ch.obermuhlner.scriptengine.java.JavaCompiledScript;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The merged result of a {@link ParallelCompiler}.
+ */
+public class ParallelCompilationResult {
+    private final Map<String, JavaCompiledScript> compiledScripts;
+    private final List<CompilationPartition> partitions;
+    private final long elapsedNanos;
+
+    ParallelCompilationResult(Map<String, JavaCompiledScript> compiledScripts, List<CompilationPartition> partitions, long elapsedNanos) {
+        this.compiledScripts = Collections.unmodifiableMap(compiledScripts);
+        this.partitions = Collections.unmodifiableList(partitions);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Returns the successfully compiled scripts of all partitions.
+     *
+     * @return the map of keys to {@link JavaCompiledScript}s
+     */
+    public Map<String, JavaCompiledScript> getCompiledScripts() {
+        return compiledScripts;
+    }
+
+    /**
+     * Returns the partitions with their timing and outcome.
+     *
+     * @return the list of {@link CompilationPartition}s
+     */
+    public List<CompilationPartition> getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * Returns the wall clock time needed to compile all partitions.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns whether all partitions were compiled successfully.
+     *
+     * @return {@code true} if all scripts were compiled successfully
+     */
+    public boolean isSuccessful() {
+        for (CompilationPartition partition : partitions) {
+            if (!partition.isSuccessful()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the keys of the scripts that could not be compiled.
+     *
+     * If a partition failed with a {@link BatchCompilationException} only the scripts with compilation errors are returned,
+     * otherwise all scripts of the failed partition are returned.
+     *
+     * @return the keys of the failed scripts
+     */
+    public Set<String> getFailedScripts() {
+        Set<String> failedScripts = new LinkedHashSet<>();
+        for (CompilationPartition partition : partitions) {
+            if (partition.getException() instanceof BatchCompilationException) {
+                failedScripts.addAll(((BatchCompilationException) partition.getException()).getFailedScripts());
+            } else if (partition.getException() != null) {
+                failedScripts.addAll(partition.getKeys());
+            }
+        }
+        return failedScripts;
+    }
+}
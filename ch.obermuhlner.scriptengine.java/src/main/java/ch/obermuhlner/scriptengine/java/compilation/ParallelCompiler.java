@@ -0,0 +1,244 @@
+package ch.obermuhlner.scriptengine.java.compilation;
+
+import ch.obermuhlner.scriptengine.java.JavaCompiledScript;
+import ch.obermuhlner.scriptengine.java.JavaScriptEngine;
+
+import javax.script.ScriptException;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compiles large sets of scripts on multiple threads.
+ *
+ * The scripts are split into partitions that are compiled concurrently,
+ * every partition with {@link JavaScriptEngine#compileAll(Map)} in a single compilation task.
+ * Since every worker borrows its own file manager from the {@link StandardFileManagerPool}
+ * of the engine, the pool should keep at least as many idle file managers as there are workers.
+ *
+ * Scripts that depend on each other (similar to the previous sources of an {@link IncrementalCompilationStrategy})
+ * are always compiled in the same partition.
+ * The partitions are balanced by the size of the script sources.
+ */
+public class ParallelCompiler {
+
+    private final JavaScriptEngine engine;
+    private final int workerCount;
+
+    private int partitionCount;
+    private CompilationProgressListener progressListener = null;
+
+    /**
+     * Creates a {@link ParallelCompiler} with one worker per available processor.
+     *
+     * @param engine the {@link JavaScriptEngine} that compiles the scripts
+     */
+    public ParallelCompiler(JavaScriptEngine engine) {
+        this(engine, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a {@link ParallelCompiler} with the specified number of workers.
+     *
+     * @param engine the {@link JavaScriptEngine} that compiles the scripts
+     * @param workerCount the number of worker threads
+     */
+    public ParallelCompiler(JavaScriptEngine engine, int workerCount) {
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("workerCount must be positive: " + workerCount);
+        }
+        this.engine = engine;
+        this.workerCount = workerCount;
+        this.partitionCount = workerCount;
+    }
+
+    /**
+     * Sets the number of partitions the scripts are split into.
+     *
+     * The default is the number of workers.
+     * More partitions than workers improve the load balancing at the cost of more compilation tasks.
+     *
+     * @param partitionCount the number of partitions
+     */
+    public void setPartitionCount(int partitionCount) {
+        if (partitionCount <= 0) {
+            throw new IllegalArgumentException("partitionCount must be positive: " + partitionCount);
+        }
+        this.partitionCount = partitionCount;
+    }
+
+    /**
+     * Sets the listener that is notified whenever a partition has been compiled.
+     *
+     * @param progressListener the {@link CompilationProgressListener} or {@code null}
+     */
+    public void setProgressListener(CompilationProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Compiles independent scripts in parallel.
+     *
+     * @param scripts the map of keys to scripts
+     * @return the {@link ParallelCompilationResult}
+     * @throws ScriptException if the compilation was interrupted
+     */
+    public ParallelCompilationResult compile(Map<String, String> scripts) throws ScriptException {
+        return compile(scripts, Collections.emptyMap());
+    }
+
+    /**
+     * Compiles scripts in parallel, respecting the dependencies between them.
+     *
+     * @param scripts the map of keys to scripts
+     * @param dependencies the map of script keys to the keys of the scripts they depend on
+     * @return the {@link ParallelCompilationResult}
+     * @throws ScriptException if the compilation was interrupted
+     */
+    public ParallelCompilationResult compile(Map<String, String> scripts, Map<String, ? extends Collection<String>> dependencies) throws ScriptException {
+        long startNanos = System.nanoTime();
+        List<List<String>> partitions = partition(scripts, dependencies, partitionCount);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(workerCount, Math.max(1, partitions.size())));
+        try {
+            AtomicInteger completedCount = new AtomicInteger();
+            List<Future<PartitionOutcome>> futures = new ArrayList<>();
+            for (int i = 0; i < partitions.size(); i++) {
+                int index = i;
+                List<String> keys = partitions.get(i);
+                futures.add(executor.submit(() -> {
+                    PartitionOutcome outcome = compilePartition(index, keys, scripts);
+                    CompilationProgressListener listener = progressListener;
+                    if (listener != null) {
+                        listener.partitionCompleted(outcome.partition, completedCount.incrementAndGet(), partitions.size());
+                    }
+                    return outcome;
+                }));
+            }
+
+            Map<String, JavaCompiledScript> compiledScripts = new LinkedHashMap<>();
+            List<CompilationPartition> compilationPartitions = new ArrayList<>();
+            for (Future<PartitionOutcome> future : futures) {
+                PartitionOutcome outcome = future.get();
+                compiledScripts.putAll(outcome.compiledScripts);
+                compilationPartitions.add(outcome.partition);
+            }
+
+            Map<String, JavaCompiledScript> orderedCompiledScripts = new LinkedHashMap<>();
+            for (String key : scripts.keySet()) {
+                JavaCompiledScript compiledScript = compiledScripts.get(key);
+                if (compiledScript != null) {
+                    orderedCompiledScripts.put(key, compiledScript);
+                }
+            }
+            return new ParallelCompilationResult(orderedCompiledScripts, compilationPartitions, System.nanoTime() - startNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScriptException(e);
+        } catch (ExecutionException e) {
+            throw new ScriptException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private PartitionOutcome compilePartition(int index, List<String> keys, Map<String, String> scripts) {
+        Map<String, String> partitionScripts = new LinkedHashMap<>();
+        for (String key : keys) {
+            partitionScripts.put(key, scripts.get(key));
+        }
+
+        long startNanos = System.nanoTime();
+        Map<String, JavaCompiledScript> compiledScripts = Collections.emptyMap();
+        ScriptException exception = null;
+        try {
+            compiledScripts = engine.compileAll(partitionScripts);
+        } catch (ScriptException e) {
+            exception = e;
+        } catch (RuntimeException e) {
+            exception = new ScriptException(e);
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        return new PartitionOutcome(new CompilationPartition(index, keys, elapsedNanos, exception), compiledScripts);
+    }
+
+    /**
+     * Splits the scripts into balanced partitions, keeping dependent scripts in the same partition.
+     */
+    static List<List<String>> partition(Map<String, String> scripts, Map<String, ? extends Collection<String>> dependencies, int partitionCount) {
+        Map<String, String> parents = new HashMap<>();
+        for (String key : scripts.keySet()) {
+            parents.put(key, key);
+        }
+        for (Map.Entry<String, ? extends Collection<String>> entry : dependencies.entrySet()) {
+            checkKnown(scripts, entry.getKey());
+            for (String dependency : entry.getValue()) {
+                checkKnown(scripts, dependency);
+                parents.put(findRoot(parents, entry.getKey()), findRoot(parents, dependency));
+            }
+        }
+
+        Map<String, List<String>> components = new LinkedHashMap<>();
+        Map<String, Long> componentSizes = new HashMap<>();
+        for (Map.Entry<String, String> entry : scripts.entrySet()) {
+            String root = findRoot(parents, entry.getKey());
+            components.computeIfAbsent(root, k -> new ArrayList<>()).add(entry.getKey());
+            componentSizes.merge(root, (long) entry.getValue().length(), Long::sum);
+        }
+
+        List<String> roots = new ArrayList<>(components.keySet());
+        roots.sort(Comparator.comparing(componentSizes::get).reversed());
+
+        int count = Math.min(partitionCount, roots.size());
+        List<List<String>> partitions = new ArrayList<>();
+        long[] partitionSizes = new long[count];
+        for (int i = 0; i < count; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (String root : roots) {
+            int smallest = 0;
+            for (int i = 1; i < count; i++) {
+                if (partitionSizes[i] < partitionSizes[smallest]) {
+                    smallest = i;
+                }
+            }
+            partitions.get(smallest).addAll(components.get(root));
+            partitionSizes[smallest] += componentSizes.get(root);
+        }
+        return partitions;
+    }
+
+    private static void checkKnown(Map<String, String> scripts, String key) {
+        if (!scripts.containsKey(key)) {
+            throw new IllegalArgumentException("Unknown script in dependencies: " + key);
+        }
+    }
+
+    private static String findRoot(Map<String, String> parents, String key) {
+        String root = key;
+        while (!parents.get(root).equals(root)) {
+            root = parents.get(root);
+        }
+        String current = key;
+        while (!current.equals(root)) {
+            String next = parents.get(current);
+            parents.put(current, root);
+            current = next;
+        }
+        return root;
+    }
+
+    private static class PartitionOutcome {
+        final CompilationPartition partition;
+        final Map<String, JavaCompiledScript> compiledScripts;
+
+        PartitionOutcome(CompilationPartition partition, Map<String, JavaCompiledScript> compiledScripts) {
+            this.partition = partition;
+            this.compiledScripts = compiledScripts;
+        }
+    }
+}
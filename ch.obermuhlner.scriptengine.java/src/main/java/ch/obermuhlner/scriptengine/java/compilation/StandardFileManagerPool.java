@@ -0,0 +1,242 @@
+package ch.obermuhlner.scriptengine.java.compilation;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A thread-safe pool of {@link StandardJavaFileManager}s.
+ *
+ * Creating a {@link StandardJavaFileManager} is expensive, because it opens and indexes
+ * the platform modules and the jar files of the classpath.
+ * The pool keeps released file managers open, so that the next compilation can reuse the warm indexes.
+ *
+ * A file manager is used by a single compilation at a time.
+ * Because compilation options may change the locations of a file manager (for example {@code -classpath}),
+ * file managers are only reused for compilations with the same compilation options.
+ */
+public class StandardFileManagerPool {
+
+    private static final String NO_COMPILER_MESSAGE = "No java compiler available (running on a JRE instead of a JDK?)";
+
+    private final JavaCompiler compiler;
+    private final int maxIdle;
+
+    private final Map<List<String>, Deque<StandardJavaFileManager>> idleFileManagers = new ConcurrentHashMap<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong reusedCount = new AtomicLong();
+    private final AtomicLong closedCount = new AtomicLong();
+
+    /**
+     * Creates a {@link StandardFileManagerPool} for the system java compiler that keeps
+     * at most as many idle file managers as there are available processors.
+     */
+    public StandardFileManagerPool() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a {@link StandardFileManagerPool} for the system java compiler.
+     *
+     * @param maxIdle the maximum number of idle file managers kept open in the pool
+     */
+    public StandardFileManagerPool(int maxIdle) {
+        this(ToolProvider.getSystemJavaCompiler(), maxIdle);
+    }
+
+    /**
+     * Creates a {@link StandardFileManagerPool} for the specified java compiler.
+     *
+     * @param compiler the {@link JavaCompiler}
+     * @param maxIdle the maximum number of idle file managers kept open in the pool
+     */
+    public StandardFileManagerPool(JavaCompiler compiler, int maxIdle) {
+        if (compiler == null) {
+            throw new IllegalStateException(NO_COMPILER_MESSAGE);
+        }
+        if (maxIdle < 0) {
+            throw new IllegalArgumentException("maxIdle must not be negative: " + maxIdle);
+        }
+        this.compiler = compiler;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Returns the default {@link StandardFileManagerPool} shared by all script engines that do not specify their own pool.
+     *
+     * The default pool is created lazily when it is used for the first time.
+     *
+     * @return the default {@link StandardFileManagerPool}
+     * @throws IllegalStateException if no system java compiler is available
+     */
+    public static StandardFileManagerPool getDefault() {
+        StandardFileManagerPool pool = DefaultHolder.DEFAULT;
+        if (pool == null) {
+            throw new IllegalStateException(NO_COMPILER_MESSAGE);
+        }
+        return pool;
+    }
+
+    /**
+     * Returns the {@link JavaCompiler} that creates the file managers of this pool.
+     *
+     * @return the {@link JavaCompiler}
+     */
+    public JavaCompiler getCompiler() {
+        return compiler;
+    }
+
+    /**
+     * Borrows a file manager for a compilation with the specified compilation options.
+     *
+     * The borrowed file manager must be given back with {@link #release(StandardJavaFileManager, List)}
+     * or {@link #discard(StandardJavaFileManager)}.
+     *
+     * @param compilationOptions the compilation options or {@code null}
+     * @return the {@link StandardJavaFileManager}
+     */
+    public StandardJavaFileManager borrow(List<String> compilationOptions) {
+        Deque<StandardJavaFileManager> idle = idleFileManagers.get(toKey(compilationOptions));
+        if (idle != null) {
+            StandardJavaFileManager fileManager = idle.pollFirst();
+            if (fileManager != null) {
+                idleCount.decrementAndGet();
+                reusedCount.incrementAndGet();
+                return fileManager;
+            }
+        }
+
+        createdCount.incrementAndGet();
+        return compiler.getStandardFileManager(null, null, null);
+    }
+
+    /**
+     * Gives a borrowed file manager back to the pool after a compilation.
+     *
+     * The file manager is flushed and kept open for reuse, unless the pool is full.
+     *
+     * @param fileManager the borrowed {@link StandardJavaFileManager}
+     * @param compilationOptions the compilation options used to borrow the file manager
+     */
+    public void release(StandardJavaFileManager fileManager, List<String> compilationOptions) {
+        try {
+            fileManager.flush();
+        } catch (IOException e) {
+            discard(fileManager);
+            return;
+        }
+
+        if (idleCount.incrementAndGet() > maxIdle) {
+            idleCount.decrementAndGet();
+            discard(fileManager);
+            return;
+        }
+
+        idleFileManagers.computeIfAbsent(toKey(compilationOptions), key -> new ConcurrentLinkedDeque<>()).offerFirst(fileManager);
+    }
+
+    /**
+     * Closes a borrowed file manager instead of giving it back to the pool.
+     *
+     * Use this if the compilation failed unexpectedly and the state of the file manager is unknown.
+     *
+     * @param fileManager the borrowed {@link StandardJavaFileManager}
+     */
+    public void discard(StandardJavaFileManager fileManager) {
+        closedCount.incrementAndGet();
+        try {
+            fileManager.close();
+        } catch (IOException e) {
+            // ignore, the file manager is not used anymore
+        }
+    }
+
+    /**
+     * Closes all idle file managers in the pool.
+     */
+    public void clear() {
+        for (Deque<StandardJavaFileManager> idle : idleFileManagers.values()) {
+            StandardJavaFileManager fileManager;
+            while ((fileManager = idle.pollFirst()) != null) {
+                idleCount.decrementAndGet();
+                discard(fileManager);
+            }
+        }
+    }
+
+    /**
+     * Returns the maximum number of idle file managers kept open in the pool.
+     *
+     * @return the maximum number of idle file managers
+     */
+    public int getMaxIdle() {
+        return maxIdle;
+    }
+
+    /**
+     * Returns the number of idle file managers currently kept open in the pool.
+     *
+     * @return the number of idle file managers
+     */
+    public int getIdleCount() {
+        return idleCount.get();
+    }
+
+    /**
+     * Returns the number of file managers that were created because no idle file manager was available.
+     *
+     * @return the number of created file managers
+     */
+    public long getCreatedCount() {
+        return createdCount.get();
+    }
+
+    /**
+     * Returns the number of times an idle file manager was reused.
+     *
+     * @return the number of reuses
+     */
+    public long getReusedCount() {
+        return reusedCount.get();
+    }
+
+    /**
+     * Returns the number of file managers that were closed.
+     *
+     * @return the number of closed file managers
+     */
+    public long getClosedCount() {
+        return closedCount.get();
+    }
+
+    private static List<String> toKey(List<String> compilationOptions) {
+        if (compilationOptions == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(new ArrayList<>(compilationOptions));
+    }
+
+    /**
+     * Creates the default pool lazily, so that loading this class does not fail if no system java compiler is available.
+     */
+    private static class DefaultHolder {
+        static final StandardFileManagerPool DEFAULT = createDefault();
+
+        private static StandardFileManagerPool createDefault() {
+            JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+            return compiler != null ? new StandardFileManagerPool(compiler, Runtime.getRuntime().availableProcessors()) : null;
+        }
+    }
+}
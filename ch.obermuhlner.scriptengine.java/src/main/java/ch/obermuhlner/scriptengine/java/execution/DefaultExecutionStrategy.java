@@ -1,11 +1,18 @@
 package ch.obermuhlner.scriptengine.java.execution;
 
+import ch.obermuhlner.scriptengine.java.util.ReflectionUtil;
+
 import javax.script.ScriptException;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
 /**
@@ -13,14 +20,27 @@ import java.util.function.Supplier;
  *
  * <ul>
  *      <li>class implements `Supplier`: the `get()` method is called</li>
+ *      <li>class implements `DoubleSupplier`, `IntSupplier`, `LongSupplier` or `BooleanSupplier`:
+ *      the `getAsDouble()`, `getAsInt()`, `getAsLong()` or `getAsBoolean()` method is called</li>
  *      <li>class implements `Runnable`: the `run()` method is called</li>
  *      <li>class has exactly one public method without arguments: call it</li>
  * </ul>
+ *
+ * The public method without arguments is resolved once into a {@link MethodHandle},
+ * which skips the access check of {@link Method#invoke(Object, Object...)} on every execution.
+ * The handle is not a constant for the JIT compiler, so the script method is not inlined through it
+ * and the call performs about the same as {@link Method#invoke(Object, Object...)}.
+ * Use {@link ch.obermuhlner.scriptengine.java.JavaCompiledScript#as(Class)} to call a script directly.
+ *
+ * The primitive functional interfaces are called without boxing the result
+ * by {@link #executeDouble(Object)}, {@link #executeInt(Object)}, {@link #executeLong(Object)}
+ * and {@link #executeBoolean(Object)}.
  */
 public class DefaultExecutionStrategy implements ExecutionStrategy {
 
     private final Class<?> clazz;
     private final Method method;
+    private final MethodHandle methodHandle;
 
     /**
      * Constructs a {@link DefaultExecutionStrategy} for the specified {@link Class}.
@@ -29,6 +49,7 @@ public class DefaultExecutionStrategy implements ExecutionStrategy {
      */
     public DefaultExecutionStrategy(Class<?> clazz) {
         method = findCallableMethod(clazz);
+        methodHandle = method == null ? null : ReflectionUtil.toInstanceMethodHandle(method);
         this.clazz = clazz;
     }
 
@@ -39,12 +60,36 @@ public class DefaultExecutionStrategy implements ExecutionStrategy {
             return supplier.get();
         }
 
+        if (instance instanceof DoubleSupplier) {
+            return ((DoubleSupplier) instance).getAsDouble();
+        }
+
+        if (instance instanceof IntSupplier) {
+            return ((IntSupplier) instance).getAsInt();
+        }
+
+        if (instance instanceof LongSupplier) {
+            return ((LongSupplier) instance).getAsLong();
+        }
+
+        if (instance instanceof BooleanSupplier) {
+            return ((BooleanSupplier) instance).getAsBoolean();
+        }
+
         if (instance instanceof Runnable) {
             Runnable runnable = (Runnable) instance;
             runnable.run();
             return null;
         }
 
+        if (methodHandle != null) {
+            try {
+                return (Object) methodHandle.invokeExact(instance);
+            } catch (Throwable e) {
+                throw new ScriptException(new InvocationTargetException(e));
+            }
+        }
+
         if (method != null) {
             try {
                 return method.invoke(instance);
@@ -59,6 +104,38 @@ public class DefaultExecutionStrategy implements ExecutionStrategy {
         throw new ScriptException("No method found to execute instance of type " + clazz.getName());
     }
 
+    @Override
+    public double executeDouble(Object instance) throws ScriptException {
+        if (instance instanceof DoubleSupplier) {
+            return ((DoubleSupplier) instance).getAsDouble();
+        }
+        return ExecutionStrategy.super.executeDouble(instance);
+    }
+
+    @Override
+    public int executeInt(Object instance) throws ScriptException {
+        if (instance instanceof IntSupplier) {
+            return ((IntSupplier) instance).getAsInt();
+        }
+        return ExecutionStrategy.super.executeInt(instance);
+    }
+
+    @Override
+    public long executeLong(Object instance) throws ScriptException {
+        if (instance instanceof LongSupplier) {
+            return ((LongSupplier) instance).getAsLong();
+        }
+        return ExecutionStrategy.super.executeLong(instance);
+    }
+
+    @Override
+    public boolean executeBoolean(Object instance) throws ScriptException {
+        if (instance instanceof BooleanSupplier) {
+            return ((BooleanSupplier) instance).getAsBoolean();
+        }
+        return ExecutionStrategy.super.executeBoolean(instance);
+    }
+
     private static Method findCallableMethod(Class<?> clazz) {
         List<Method> callableMethods = new ArrayList<>();
         for (Method method : clazz.getDeclaredMethods()) {
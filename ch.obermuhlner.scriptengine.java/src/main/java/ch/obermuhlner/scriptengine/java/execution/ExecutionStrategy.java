@@ -14,4 +14,76 @@ public interface ExecutionStrategy {
      * @throws ScriptException if no method to execute was found
      */
     Object execute(Object instance) throws ScriptException;
+
+    /**
+     * Executes a method on an object instance that returns a {@code double}.
+     *
+     * The default implementation converts the {@link Number} returned by {@link #execute(Object)}.
+     * Implementations may override this method to avoid boxing the result.
+     *
+     * @param instance the object instance to be executed or {@code null} to execute a static method
+     * @return the return value of the method
+     * @throws ScriptException if no method to execute was found or the method does not return a number
+     */
+    default double executeDouble(Object instance) throws ScriptException {
+        Object result = execute(instance);
+        if (result instanceof Number) {
+            return ((Number) result).doubleValue();
+        }
+        throw new ScriptException("Result is not a number: " + result);
+    }
+
+    /**
+     * Executes a method on an object instance that returns an {@code int}.
+     *
+     * The default implementation converts the {@link Number} returned by {@link #execute(Object)}.
+     * Implementations may override this method to avoid boxing the result.
+     *
+     * @param instance the object instance to be executed or {@code null} to execute a static method
+     * @return the return value of the method
+     * @throws ScriptException if no method to execute was found or the method does not return a number
+     */
+    default int executeInt(Object instance) throws ScriptException {
+        Object result = execute(instance);
+        if (result instanceof Number) {
+            return ((Number) result).intValue();
+        }
+        throw new ScriptException("Result is not a number: " + result);
+    }
+
+    /**
+     * Executes a method on an object instance that returns a {@code long}.
+     *
+     * The default implementation converts the {@link Number} returned by {@link #execute(Object)}.
+     * Implementations may override this method to avoid boxing the result.
+     *
+     * @param instance the object instance to be executed or {@code null} to execute a static method
+     * @return the return value of the method
+     * @throws ScriptException if no method to execute was found or the method does not return a number
+     */
+    default long executeLong(Object instance) throws ScriptException {
+        Object result = execute(instance);
+        if (result instanceof Number) {
+            return ((Number) result).longValue();
+        }
+        throw new ScriptException("Result is not a number: " + result);
+    }
+
+    /**
+     * Executes a method on an object instance that returns a {@code boolean}.
+     *
+     * The default implementation converts the {@link Boolean} returned by {@link #execute(Object)}.
+     * Implementations may override this method to avoid boxing the result.
+     *
+     * @param instance the object instance to be executed or {@code null} to execute a static method
+     * @return the return value of the method
+     * @throws ScriptException if no method to execute was found or the method does not return a boolean
+     */
+    default boolean executeBoolean(Object instance) throws ScriptException {
+        Object result = execute(instance);
+        if (result instanceof Boolean) {
+            return (Boolean) result;
+        }
+        throw new ScriptException("Result is not a boolean: " + result);
+    }
 }
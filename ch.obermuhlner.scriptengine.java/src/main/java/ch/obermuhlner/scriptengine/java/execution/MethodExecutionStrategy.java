@@ -3,6 +3,7 @@ package ch.obermuhlner.scriptengine.java.execution;
 import ch.obermuhlner.scriptengine.java.util.ReflectionUtil;
 
 import javax.script.ScriptException;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -23,18 +24,33 @@ import java.util.stream.Collectors;
  *      <li>{@link #byMatchingArguments(Class, String, Object...)}
  *      to call a public method that matches the specified arguments.</li>
  * </ul>
+ *
+ * The method and its arguments are resolved once into a {@link MethodHandle} with the arguments bound,
+ * so that no argument array is created, checked and unboxed on every execution.
+ * This is the only saving compared to {@link Method#invoke(Object, Object...)}:
+ * the handle is not a constant for the JIT compiler, so the script method is not inlined through it.
  */
 public class MethodExecutionStrategy implements ExecutionStrategy {
     private Method method;
     private Object[] arguments;
+    private final MethodHandle methodHandle;
 
     private MethodExecutionStrategy(Method method, Object... arguments) {
         this.method = method;
         this.arguments = arguments;
+        this.methodHandle = ReflectionUtil.toInstanceMethodHandle(method, arguments);
     }
 
     @Override
     public Object execute(Object instance) throws ScriptException {
+        if (methodHandle != null) {
+            try {
+                return (Object) methodHandle.invokeExact(instance);
+            } catch (Throwable e) {
+                throw new ScriptException(new InvocationTargetException(e));
+            }
+        }
+
         try {
             return method.invoke(instance, arguments);
         } catch (IllegalAccessException | InvocationTargetException e) {
@@ -65,7 +81,7 @@ public class MethodExecutionStrategy implements ExecutionStrategy {
     public static MethodExecutionStrategy byMainMethod(Class<?> clazz, String... arguments) throws ScriptException {
         try {
             Method method = clazz.getMethod("main", String[].class);
-            return new MethodExecutionStrategy(method, (Object[]) arguments);
+            return new MethodExecutionStrategy(method, new Object[] { arguments });
         } catch (NoSuchMethodException e) {
             throw new ScriptException(e);
         }
@@ -0,0 +1,20 @@
+package ch.obermuhlner.scriptengine.java.instance;
+
+import javax.script.ScriptException;
+
+/**
+ * A factory for new, strongly typed instances of a compiled script class.
+ *
+ * @param <T> the type of the created instances
+ * @see ch.obermuhlner.scriptengine.java.JavaCompiledScript#asFactory(Class)
+ */
+@FunctionalInterface
+public interface InstanceFactory<T> {
+    /**
+     * Creates a new instance.
+     *
+     * @return the created instance
+     * @throws ScriptException if the instance could not be created
+     */
+    T newInstance() throws ScriptException;
+}
@@ -0,0 +1,35 @@
+package ch.obermuhlner.scriptengine.java.instance;
+
+import javax.script.ScriptException;
+
+/**
+ * The strategy used to provide the instance of the compiled class that a script is evaluated on.
+ *
+ * The bindings are pushed into the public fields of the instance before the evaluation
+ * and pulled back afterwards, so an instance must not be used by two evaluations at the same time.
+ * Every call to {@link #acquire()} is followed by a call to {@link #release(Object)} with the acquired instance.
+ */
+public interface InstanceStrategy {
+    /**
+     * Acquires the instance used for a single evaluation.
+     *
+     * @return the instance or {@code null} if only static methods will be called
+     * @throws ScriptException if the instance could not be provided
+     */
+    Object acquire() throws ScriptException;
+
+    /**
+     * Releases an instance after the evaluation.
+     *
+     * @param instance the instance returned by {@link #acquire()}
+     */
+    void release(Object instance);
+
+    /**
+     * Drops all instances kept by this strategy, called when the compiled script is closed.
+     *
+     * The default implementation does nothing.
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,21 @@
+package ch.obermuhlner.scriptengine.java.instance;
+
+import ch.obermuhlner.scriptengine.java.constructor.ConstructorStrategy;
+
+import javax.script.ScriptException;
+
+/**
+ * The factory for the instance strategy used to provide the instances a compiled script is evaluated on.
+ */
+public interface InstanceStrategyFactory {
+    /**
+     * Creates an {@link InstanceStrategy} for the specified {@link Class}.
+     *
+     * @param clazz the compiled {@link Class}
+     * @param compiledInstance the instance constructed when the script was compiled or {@code null}
+     * @param constructorStrategy the {@link ConstructorStrategy} to construct additional instances
+     * @return the {@link InstanceStrategy}
+     * @throws ScriptException if the {@link InstanceStrategy} could not be created
+     */
+    InstanceStrategy create(Class<?> clazz, Object compiledInstance, ConstructorStrategy constructorStrategy) throws ScriptException;
+}
@@ -0,0 +1,37 @@
+package ch.obermuhlner.scriptengine.java.instance;
+
+import ch.obermuhlner.scriptengine.java.constructor.ConstructorStrategy;
+
+import javax.script.ScriptException;
+
+/**
+ * An {@link InstanceStrategy} that constructs a new instance for every evaluation.
+ *
+ * Evaluations are thread-safe and never see state left behind by a previous evaluation,
+ * at the cost of constructing an instance with the {@link ConstructorStrategy} for every call.
+ */
+public class NewInstanceStrategy implements InstanceStrategy {
+    private final Class<?> clazz;
+    private final ConstructorStrategy constructorStrategy;
+
+    /**
+     * Creates a {@link NewInstanceStrategy}.
+     *
+     * @param clazz the {@link Class} to construct
+     * @param constructorStrategy the {@link ConstructorStrategy}
+     */
+    public NewInstanceStrategy(Class<?> clazz, ConstructorStrategy constructorStrategy) {
+        this.clazz = clazz;
+        this.constructorStrategy = constructorStrategy;
+    }
+
+    @Override
+    public Object acquire() throws ScriptException {
+        return constructorStrategy.construct(clazz);
+    }
+
+    @Override
+    public void release(Object instance) {
+        // does nothing
+    }
+}
@@ -0,0 +1,255 @@
+package ch.obermuhlner.scriptengine.java.instance;
+
+import ch.obermuhlner.scriptengine.java.constructor.ConstructorStrategy;
+
+import javax.script.ScriptException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An {@link InstanceStrategy} that borrows instances from a bounded pool.
+ *
+ * Instances are constructed lazily with the {@link ConstructorStrategy} until the maximum size of the pool is reached.
+ * If all instances are in use, an evaluation waits until an instance is released
+ * or fails with a {@link ScriptException} after the maximum wait time.
+ *
+ * If a reset method is specified, it is called on every instance before it is returned to the pool.
+ * The reset method must be a public non-static method without arguments.
+ * Instances whose reset method throws an exception are discarded.
+ */
+public class PooledInstanceStrategy implements InstanceStrategy {
+    private static final long WAIT_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final Class<?> clazz;
+    private final ConstructorStrategy constructorStrategy;
+    private final int maxSize;
+    private final long maxWaitNanos;
+    private final ResetHook resetHook;
+
+    private final BlockingQueue<Object> idleInstances;
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong discardedCount = new AtomicLong();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong waitCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanosObserved = new AtomicLong();
+
+    /**
+     * Creates a {@link PooledInstanceStrategy} that waits without time limit for a free instance.
+     *
+     * @param clazz the {@link Class} to construct
+     * @param constructorStrategy the {@link ConstructorStrategy}
+     * @param maxSize the maximum number of instances in the pool
+     */
+    public PooledInstanceStrategy(Class<?> clazz, ConstructorStrategy constructorStrategy, int maxSize) {
+        this(clazz, constructorStrategy, maxSize, Long.MAX_VALUE, (ResetHook) null);
+    }
+
+    /**
+     * Creates a {@link PooledInstanceStrategy}.
+     *
+     * @param clazz the {@link Class} to construct
+     * @param constructorStrategy the {@link ConstructorStrategy}
+     * @param maxSize the maximum number of instances in the pool
+     * @param maxWait the maximum time to wait for a free instance
+     * @param unit the {@link TimeUnit} of the maximum wait time
+     * @param resetMethodName the name of the reset method or {@code null} if instances are not reset
+     * @throws ScriptException if the reset method could not be found
+     */
+    public PooledInstanceStrategy(Class<?> clazz, ConstructorStrategy constructorStrategy, int maxSize, long maxWait, TimeUnit unit, String resetMethodName) throws ScriptException {
+        this(clazz, constructorStrategy, maxSize, unit.toNanos(maxWait), ResetHook.of(clazz, resetMethodName));
+    }
+
+    private PooledInstanceStrategy(Class<?> clazz, ConstructorStrategy constructorStrategy, int maxSize, long maxWaitNanos, ResetHook resetHook) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        if (maxWaitNanos < 0) {
+            throw new IllegalArgumentException("maxWait must not be negative: " + maxWaitNanos);
+        }
+        this.clazz = clazz;
+        this.constructorStrategy = constructorStrategy;
+        this.maxSize = maxSize;
+        this.maxWaitNanos = maxWaitNanos;
+        this.resetHook = resetHook;
+        this.idleInstances = new ArrayBlockingQueue<>(maxSize);
+    }
+
+    @Override
+    public Object acquire() throws ScriptException {
+        borrowCount.incrementAndGet();
+
+        Object instance = idleInstances.poll();
+        if (instance != null) {
+            return instance;
+        }
+
+        if (reserve()) {
+            return create();
+        }
+
+        return waitForInstance();
+    }
+
+    @Override
+    public void release(Object instance) {
+        if (instance == null) {
+            return;
+        }
+        if (resetHook != null && !resetHook.reset(instance)) {
+            discard();
+            return;
+        }
+        if (!idleInstances.offer(instance)) {
+            discard();
+        }
+    }
+
+    private boolean reserve() {
+        while (true) {
+            int current = size.get();
+            if (current >= maxSize) {
+                return false;
+            }
+            if (size.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private Object create() throws ScriptException {
+        Object instance;
+        try {
+            instance = constructorStrategy.construct(clazz);
+        } catch (ScriptException | RuntimeException e) {
+            size.decrementAndGet();
+            throw e;
+        }
+        if (instance == null) {
+            size.decrementAndGet();
+            throw new ScriptException("Cannot pool instances of " + clazz.getName() + " because the constructor strategy returned null");
+        }
+        createdCount.incrementAndGet();
+        return instance;
+    }
+
+    private void discard() {
+        discardedCount.incrementAndGet();
+        size.decrementAndGet();
+    }
+
+    private Object waitForInstance() throws ScriptException {
+        waitCount.incrementAndGet();
+        long startNanos = System.nanoTime();
+        try {
+            long remainingNanos = maxWaitNanos;
+            while (true) {
+                // wait in slices, so that instances discarded in the meantime can be replaced
+                Object instance = idleInstances.poll(Math.min(remainingNanos, WAIT_SLICE_NANOS), TimeUnit.NANOSECONDS);
+                if (instance != null) {
+                    return instance;
+                }
+                if (reserve()) {
+                    return create();
+                }
+                remainingNanos = maxWaitNanos - (System.nanoTime() - startNanos);
+                if (remainingNanos <= 0) {
+                    throw new ScriptException("Timeout waiting for a pooled instance of " + clazz.getName());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScriptException(e);
+        } finally {
+            long waitNanos = System.nanoTime() - startNanos;
+            totalWaitNanos.addAndGet(waitNanos);
+            maxWaitNanosObserved.accumulateAndGet(waitNanos, Math::max);
+        }
+    }
+
+    /**
+     * Returns the maximum number of instances in the pool.
+     *
+     * @return the maximum size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the number of instances currently owned by the pool, idle or in use.
+     *
+     * @return the size
+     */
+    public int getSize() {
+        return size.get();
+    }
+
+    /**
+     * Returns the number of idle instances in the pool.
+     *
+     * @return the idle count
+     */
+    public int getIdleCount() {
+        return idleInstances.size();
+    }
+
+    /**
+     * Returns the number of instances constructed by the pool.
+     *
+     * @return the created count
+     */
+    public long getCreatedCount() {
+        return createdCount.get();
+    }
+
+    /**
+     * Returns the number of instances discarded because the reset method failed.
+     *
+     * @return the discarded count
+     */
+    public long getDiscardedCount() {
+        return discardedCount.get();
+    }
+
+    /**
+     * Returns the number of times an instance was borrowed from the pool.
+     *
+     * @return the borrow count
+     */
+    public long getBorrowCount() {
+        return borrowCount.get();
+    }
+
+    /**
+     * Returns the number of borrows that had to wait for a free instance.
+     *
+     * @return the wait count
+     */
+    public long getWaitCount() {
+        return waitCount.get();
+    }
+
+    /**
+     * Returns the total time borrows have waited for a free instance.
+     *
+     * @return the total wait time in nanoseconds
+     */
+    public long getTotalWaitNanos() {
+        return totalWaitNanos.get();
+    }
+
+    /**
+     * Returns the longest time a single borrow has waited for a free instance.
+     *
+     * @return the maximum wait time in nanoseconds
+     */
+    public long getMaxWaitNanos() {
+        return maxWaitNanosObserved.get();
+    }
+}
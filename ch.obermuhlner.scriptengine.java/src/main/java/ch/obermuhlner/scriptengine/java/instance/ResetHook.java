@@ -0,0 +1,54 @@
+package ch.obermuhlner.scriptengine.java.instance;
+
+import javax.script.ScriptException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Calls the reset method of a script instance before it is reused by another evaluation.
+ */
+final class ResetHook {
+    private final MethodHandle methodHandle;
+
+    private ResetHook(MethodHandle methodHandle) {
+        this.methodHandle = methodHandle;
+    }
+
+    static ResetHook of(Class<?> clazz, String methodName) throws ScriptException {
+        if (methodName == null) {
+            return null;
+        }
+
+        try {
+            Method method = clazz.getMethod(methodName);
+            if (Modifier.isStatic(method.getModifiers())) {
+                throw new ScriptException("Reset method must not be static: " + method);
+            }
+            MethodHandle methodHandle = MethodHandles.publicLookup().unreflect(method)
+                    .asType(MethodType.methodType(void.class, Object.class));
+            return new ResetHook(methodHandle);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ScriptException(e);
+        }
+    }
+
+    /**
+     * Resets the specified instance.
+     *
+     * @return {@code true} if the instance was reset, {@code false} if the reset method threw an exception
+     *         and the instance must not be reused
+     */
+    boolean reset(Object instance) {
+        try {
+            methodHandle.invokeExact(instance);
+            return true;
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+}
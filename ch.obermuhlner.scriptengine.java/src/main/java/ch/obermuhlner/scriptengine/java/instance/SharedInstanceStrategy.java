@@ -0,0 +1,31 @@
+package ch.obermuhlner.scriptengine.java.instance;
+
+/**
+ * An {@link InstanceStrategy} that evaluates every call on the same instance.
+ *
+ * This is the default strategy.
+ * It is fast, but evaluations of the same compiled script must not run concurrently
+ * if the script uses bindings or keeps state in fields.
+ */
+public class SharedInstanceStrategy implements InstanceStrategy {
+    private final Object instance;
+
+    /**
+     * Creates a {@link SharedInstanceStrategy}.
+     *
+     * @param instance the shared instance or {@code null}
+     */
+    public SharedInstanceStrategy(Object instance) {
+        this.instance = instance;
+    }
+
+    @Override
+    public Object acquire() {
+        return instance;
+    }
+
+    @Override
+    public void release(Object instance) {
+        // does nothing
+    }
+}
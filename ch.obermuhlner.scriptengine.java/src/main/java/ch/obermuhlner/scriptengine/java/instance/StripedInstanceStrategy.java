@@ -0,0 +1,175 @@
+package ch.obermuhlner.scriptengine.java.instance;
+
+import ch.obermuhlner.scriptengine.java.constructor.ConstructorStrategy;
+
+import javax.script.ScriptException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An {@link InstanceStrategy} that spreads evaluations over a fixed number of stripes with one instance each.
+ *
+ * Every thread has a home stripe derived from its thread id.
+ * If the home stripe is in use the other stripes are tried,
+ * only if all stripes are in use the evaluation waits for the home stripe.
+ * This keeps contention low without the bookkeeping of a pool.
+ *
+ * If a reset method is specified, it is called on every instance before its stripe is released.
+ * The reset method must be a public non-static method without arguments.
+ * Instances whose reset method throws an exception are replaced by a new instance.
+ *
+ * Reentrant evaluations of the same compiled script on the same thread are not supported if all stripes are in use.
+ */
+public class StripedInstanceStrategy implements InstanceStrategy {
+    private final Class<?> clazz;
+    private final ConstructorStrategy constructorStrategy;
+    private final ResetHook resetHook;
+
+    private final Semaphore[] locks;
+    private final Object[] instances;
+
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong waitCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+
+    /**
+     * Creates a {@link StripedInstanceStrategy} with one stripe per available processor.
+     *
+     * @param clazz the {@link Class} to construct
+     * @param constructorStrategy the {@link ConstructorStrategy}
+     */
+    public StripedInstanceStrategy(Class<?> clazz, ConstructorStrategy constructorStrategy) {
+        this(clazz, constructorStrategy, Runtime.getRuntime().availableProcessors(), (ResetHook) null);
+    }
+
+    /**
+     * Creates a {@link StripedInstanceStrategy}.
+     *
+     * @param clazz the {@link Class} to construct
+     * @param constructorStrategy the {@link ConstructorStrategy}
+     * @param stripeCount the number of stripes
+     * @param resetMethodName the name of the reset method or {@code null} if instances are not reset
+     * @throws ScriptException if the reset method could not be found
+     */
+    public StripedInstanceStrategy(Class<?> clazz, ConstructorStrategy constructorStrategy, int stripeCount, String resetMethodName) throws ScriptException {
+        this(clazz, constructorStrategy, stripeCount, ResetHook.of(clazz, resetMethodName));
+    }
+
+    private StripedInstanceStrategy(Class<?> clazz, ConstructorStrategy constructorStrategy, int stripeCount, ResetHook resetHook) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("stripeCount must be positive: " + stripeCount);
+        }
+        this.clazz = clazz;
+        this.constructorStrategy = constructorStrategy;
+        this.resetHook = resetHook;
+        this.locks = new Semaphore[stripeCount];
+        this.instances = new Object[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            locks[i] = new Semaphore(1);
+        }
+    }
+
+    @Override
+    public Object acquire() throws ScriptException {
+        borrowCount.incrementAndGet();
+
+        int home = (int) (Thread.currentThread().getId() % locks.length);
+        for (int i = 0; i < locks.length; i++) {
+            int stripe = (home + i) % locks.length;
+            if (locks[stripe].tryAcquire()) {
+                return instance(stripe);
+            }
+        }
+
+        waitCount.incrementAndGet();
+        long startNanos = System.nanoTime();
+        try {
+            locks[home].acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScriptException(e);
+        } finally {
+            totalWaitNanos.addAndGet(System.nanoTime() - startNanos);
+        }
+        return instance(home);
+    }
+
+    @Override
+    public void release(Object instance) {
+        for (int stripe = 0; stripe < locks.length; stripe++) {
+            if (instances[stripe] == instance && locks[stripe].availablePermits() == 0) {
+                if (instance != null && resetHook != null && !resetHook.reset(instance)) {
+                    instances[stripe] = null;
+                }
+                locks[stripe].release();
+                return;
+            }
+        }
+    }
+
+    private Object instance(int stripe) throws ScriptException {
+        // guarded by the stripe lock, the semaphore guarantees visibility between threads
+        Object instance = instances[stripe];
+        if (instance == null) {
+            try {
+                instance = constructorStrategy.construct(clazz);
+            } catch (ScriptException | RuntimeException e) {
+                locks[stripe].release();
+                throw e;
+            }
+            if (instance == null) {
+                locks[stripe].release();
+                throw new ScriptException("Cannot stripe instances of " + clazz.getName() + " because the constructor strategy returned null");
+            }
+            createdCount.incrementAndGet();
+            instances[stripe] = instance;
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the number of stripes.
+     *
+     * @return the stripe count
+     */
+    public int getStripeCount() {
+        return locks.length;
+    }
+
+    /**
+     * Returns the number of instances constructed for the stripes.
+     *
+     * @return the created count
+     */
+    public long getCreatedCount() {
+        return createdCount.get();
+    }
+
+    /**
+     * Returns the number of times an instance was borrowed from a stripe.
+     *
+     * @return the borrow count
+     */
+    public long getBorrowCount() {
+        return borrowCount.get();
+    }
+
+    /**
+     * Returns the number of borrows that had to wait because all stripes were in use.
+     *
+     * @return the wait count
+     */
+    public long getWaitCount() {
+        return waitCount.get();
+    }
+
+    /**
+     * Returns the total time borrows have waited because all stripes were in use.
+     *
+     * @return the total wait time in nanoseconds
+     */
+    public long getTotalWaitNanos() {
+        return totalWaitNanos.get();
+    }
+}
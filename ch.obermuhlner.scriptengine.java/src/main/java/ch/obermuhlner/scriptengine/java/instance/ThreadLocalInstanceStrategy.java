@@ -0,0 +1,128 @@
+package ch.obermuhlner.scriptengine.java.instance;
+
+import ch.obermuhlner.scriptengine.java.constructor.ConstructorStrategy;
+
+import javax.script.ScriptException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * An {@link InstanceStrategy} that keeps one instance per thread.
+ *
+ * Evaluations are thread-safe and an instance is only constructed the first time a thread evaluates the script.
+ * State kept in fields survives between the evaluations of the same thread.
+ *
+ * Reentrant evaluations of the same compiled script on the same thread
+ * (for example a script that evaluates itself) construct a temporary instance.
+ *
+ * The instances of all threads are dropped when the strategy is {@link #close() closed},
+ * so that long-lived threads (for example of a thread pool) do not keep the compiled class loaded.
+ * After closing, every evaluation constructs a temporary instance.
+ */
+public class ThreadLocalInstanceStrategy implements InstanceStrategy {
+    private final Class<?> clazz;
+    private final ConstructorStrategy constructorStrategy;
+    private final ThreadLocal<Slot> slots = new ThreadLocal<>();
+    private final Set<Slot> allSlots = Collections.newSetFromMap(new WeakHashMap<>());
+    private volatile boolean closed;
+
+    /**
+     * Creates a {@link ThreadLocalInstanceStrategy}.
+     *
+     * @param clazz the {@link Class} to construct
+     * @param constructorStrategy the {@link ConstructorStrategy}
+     */
+    public ThreadLocalInstanceStrategy(Class<?> clazz, ConstructorStrategy constructorStrategy) {
+        this.clazz = clazz;
+        this.constructorStrategy = constructorStrategy;
+    }
+
+    @Override
+    public Object acquire() throws ScriptException {
+        Slot slot = slots.get();
+        if (slot == null) {
+            if (closed) {
+                return constructorStrategy.construct(clazz);
+            }
+            slot = new Slot();
+            slots.set(slot);
+        }
+        if (slot.inUse) {
+            return constructorStrategy.construct(clazz);
+        }
+
+        Object instance = slot.instance;
+        if (instance == null) {
+            instance = constructorStrategy.construct(clazz);
+            if (!publish(slot, instance)) {
+                return instance; // closed in the meantime, the instance is temporary
+            }
+        }
+        slot.inUse = true;
+        return instance;
+    }
+
+    @Override
+    public void release(Object instance) {
+        Slot slot = slots.get();
+        if (slot != null && slot.inUse && instance == slot.instance) {
+            slot.inUse = false;
+        }
+    }
+
+    /**
+     * Drops the instances of all threads.
+     *
+     * The slots left in the {@link ThreadLocal} of the threads do not reference the compiled class anymore.
+     */
+    @Override
+    public void close() {
+        synchronized (allSlots) {
+            closed = true;
+            for (Slot slot : allSlots) {
+                slot.instance = null;
+            }
+            allSlots.clear();
+        }
+    }
+
+    /**
+     * Stores the instance of a thread in its slot, unless this strategy is closed.
+     *
+     * The check and the store are done under the same lock as {@link #close()},
+     * so that no instance is stored in a slot that is not cleared anymore.
+     */
+    private boolean publish(Slot slot, Object instance) {
+        synchronized (allSlots) {
+            if (closed) {
+                return false;
+            }
+            slot.instance = instance;
+            allSlots.add(slot);
+            return true;
+        }
+    }
+
+    /**
+     * Returns the number of threads that currently keep an instance.
+     *
+     * @return the number of instances
+     */
+    public int getInstanceCount() {
+        synchronized (allSlots) {
+            int count = 0;
+            for (Slot slot : allSlots) {
+                if (slot.instance != null) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    private static class Slot {
+        volatile Object instance;
+        boolean inUse;
+    }
+}
@@ -0,0 +1,72 @@
+package ch.obermuhlner.scriptengine.java.metrics;
+
+/**
+ * Listener that is notified about the compilations and evaluations of a {@link ch.obermuhlner.scriptengine.java.JavaScriptEngine}.
+ *
+ * The methods are called synchronously from the compiling and evaluating threads,
+ * implementations must be thread-safe and should return quickly.
+ * All methods do nothing by default, so that an implementation only needs to override the events it is interested in.
+ *
+ * The gauges of the loaded script classes are available from the {@link ch.obermuhlner.scriptengine.java.ClassLoaderTracker}
+ * of the engine.
+ *
+ * @see ch.obermuhlner.scriptengine.java.JavaScriptEngine#setMetricsListener(MetricsListener)
+ * @see ScriptEngineMetrics
+ */
+public interface MetricsListener {
+    /**
+     * Called when a phase of a compilation or evaluation has completed successfully.
+     *
+     * @param phase the completed {@link MetricsPhase}
+     * @param nanos the duration of the phase in nanoseconds
+     */
+    default void phaseCompleted(MetricsPhase phase, long nanos) {
+    }
+
+    /**
+     * Called when a script was compiled successfully (including scripts found in a cache).
+     *
+     * A batch of scripts compiled with {@link ch.obermuhlner.scriptengine.java.JavaScriptEngine#compileAll(java.util.Map)}
+     * or of expressions compiled with {@link ch.obermuhlner.scriptengine.java.JavaScriptEngine#compileExpressions(java.util.Map)}
+     * is reported as a single compilation.
+     *
+     * @param nanos the duration of the compilation in nanoseconds
+     */
+    default void scriptCompiled(long nanos) {
+    }
+
+    /**
+     * Called when a compiled script class was found in the {@link ch.obermuhlner.scriptengine.java.cache.CompiledScriptCache}
+     * or the {@link ch.obermuhlner.scriptengine.java.cache.BytecodeCache}, so that the java compiler did not run.
+     */
+    default void cacheHit() {
+    }
+
+    /**
+     * Called when a compilation (of a script or a batch) has failed.
+     */
+    default void compilationFailed() {
+    }
+
+    /**
+     * Called when the java compiler has reported diagnostics (errors or warnings).
+     *
+     * @param count the number of reported diagnostics
+     */
+    default void diagnosticsReported(int count) {
+    }
+
+    /**
+     * Called when a compiled script was evaluated successfully.
+     *
+     * @param nanos the duration of the evaluation in nanoseconds
+     */
+    default void scriptEvaluated(long nanos) {
+    }
+
+    /**
+     * Called when an evaluation has failed.
+     */
+    default void evaluationFailed() {
+    }
+}
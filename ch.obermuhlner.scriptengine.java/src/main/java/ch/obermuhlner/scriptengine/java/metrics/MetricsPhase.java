@@ -0,0 +1,46 @@
+package ch.obermuhlner.scriptengine.java.metrics;
+
+/**
+ * The phases of compiling and evaluating a script that are timed by a {@link MetricsListener}.
+ */
+public enum MetricsPhase {
+    /**
+     * Modifying the script with the {@link ch.obermuhlner.scriptengine.java.compilation.ScriptInterceptorStrategy}.
+     */
+    Interception,
+
+    /**
+     * Determining the class name with the {@link ch.obermuhlner.scriptengine.java.name.NameStrategy}.
+     */
+    NameResolution,
+
+    /**
+     * Running the java compiler.
+     */
+    Compilation,
+
+    /**
+     * Creating the class loader and loading the compiled class.
+     */
+    ClassLoading,
+
+    /**
+     * Constructing the instance of the compiled class with the {@link ch.obermuhlner.scriptengine.java.constructor.ConstructorStrategy}.
+     */
+    Construction,
+
+    /**
+     * Copying the bindings into the public fields of the script instance.
+     */
+    Push,
+
+    /**
+     * Executing the script with the {@link ch.obermuhlner.scriptengine.java.execution.ExecutionStrategy}.
+     */
+    Execution,
+
+    /**
+     * Writing the public fields of the script instance back into the bindings.
+     */
+    Pull
+}
@@ -0,0 +1,300 @@
+package ch.obermuhlner.scriptengine.java.metrics;
+
+import ch.obermuhlner.scriptengine.java.ClassLoaderTracker;
+import ch.obermuhlner.scriptengine.java.JavaScriptEngine;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * The default {@link MetricsListener} that collects counters and latency histograms
+ * and exposes them together with the gauges of the {@link ClassLoaderTracker} as a JMX MXBean.
+ *
+ * Recording an event does not allocate memory and does not take a lock.
+ *
+ * Usage:
+ * <pre>
+ * JavaScriptEngine engine = new JavaScriptEngine();
+ * ScriptEngineMetrics metrics = ScriptEngineMetrics.register(engine, "rules");
+ * ...
+ * metrics.unregister();
+ * </pre>
+ */
+public class ScriptEngineMetrics implements MetricsListener, ScriptEngineMetricsMXBean {
+
+    /**
+     * The JMX domain of the registered metrics.
+     */
+    public static final String JMX_DOMAIN = "ch.obermuhlner.scriptengine.java";
+
+    private final ClassLoaderTracker classLoaderTracker;
+
+    private final LatencyHistogram compilations = new LatencyHistogram();
+    private final LatencyHistogram evaluations = new LatencyHistogram();
+    private final LatencyHistogram[] phases = new LatencyHistogram[MetricsPhase.values().length];
+    private final AtomicLong compilationFailureCount = new AtomicLong();
+    private final AtomicLong cacheHitCount = new AtomicLong();
+    private final AtomicLong diagnosticCount = new AtomicLong();
+    private final AtomicLong evaluationFailureCount = new AtomicLong();
+
+    private volatile ObjectName objectName;
+
+    /**
+     * Creates {@link ScriptEngineMetrics}.
+     *
+     * @param classLoaderTracker the {@link ClassLoaderTracker} providing the gauges of the live classes or {@code null}
+     */
+    public ScriptEngineMetrics(ClassLoaderTracker classLoaderTracker) {
+        this.classLoaderTracker = classLoaderTracker;
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Creates {@link ScriptEngineMetrics} for the specified engine, sets them as the {@link MetricsListener} of the engine
+     * and registers them in the platform {@link MBeanServer}.
+     *
+     * The {@link ObjectName} is {@code ch.obermuhlner.scriptengine.java:type=ScriptEngineMetrics,name=<name>}.
+     *
+     * @param engine the {@link JavaScriptEngine}
+     * @param name the name of the engine in JMX
+     * @return the registered {@link ScriptEngineMetrics}
+     * @throws JMException if the metrics could not be registered, for example because the name is already used
+     */
+    public static ScriptEngineMetrics register(JavaScriptEngine engine, String name) throws JMException {
+        ScriptEngineMetrics metrics = new ScriptEngineMetrics(engine.getClassLoaderTracker());
+        metrics.register(new ObjectName(JMX_DOMAIN + ":type=ScriptEngineMetrics,name=" + ObjectName.quote(name)));
+        engine.setMetricsListener(metrics);
+        return metrics;
+    }
+
+    /**
+     * Registers these metrics in the platform {@link MBeanServer}.
+     *
+     * @param objectName the {@link ObjectName}
+     * @throws JMException if the metrics could not be registered
+     */
+    public void register(ObjectName objectName) throws JMException {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        this.objectName = objectName;
+    }
+
+    /**
+     * Unregisters these metrics from the platform {@link MBeanServer}, if they are registered.
+     *
+     * @throws JMException if the metrics could not be unregistered
+     */
+    public void unregister() throws JMException {
+        ObjectName name = objectName;
+        if (name != null) {
+            objectName = null;
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        }
+    }
+
+    /**
+     * Returns the {@link ObjectName} these metrics are registered with.
+     *
+     * @return the {@link ObjectName} or {@code null} if not registered
+     */
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+
+    /**
+     * Returns the histogram of the durations of successful compilations.
+     *
+     * @return the {@link LatencyHistogram}
+     */
+    public LatencyHistogram getCompilationHistogram() {
+        return compilations;
+    }
+
+    /**
+     * Returns the histogram of the durations of successful evaluations.
+     *
+     * @return the {@link LatencyHistogram}
+     */
+    public LatencyHistogram getEvaluationHistogram() {
+        return evaluations;
+    }
+
+    /**
+     * Returns the histogram of the durations of the specified phase.
+     *
+     * @param phase the {@link MetricsPhase}
+     * @return the {@link LatencyHistogram}
+     */
+    public LatencyHistogram getPhaseHistogram(MetricsPhase phase) {
+        return phases[phase.ordinal()];
+    }
+
+    @Override
+    public void phaseCompleted(MetricsPhase phase, long nanos) {
+        phases[phase.ordinal()].record(nanos);
+    }
+
+    @Override
+    public void scriptCompiled(long nanos) {
+        compilations.record(nanos);
+    }
+
+    @Override
+    public void cacheHit() {
+        cacheHitCount.incrementAndGet();
+    }
+
+    @Override
+    public void compilationFailed() {
+        compilationFailureCount.incrementAndGet();
+    }
+
+    @Override
+    public void diagnosticsReported(int count) {
+        diagnosticCount.addAndGet(count);
+    }
+
+    @Override
+    public void scriptEvaluated(long nanos) {
+        evaluations.record(nanos);
+    }
+
+    @Override
+    public void evaluationFailed() {
+        evaluationFailureCount.incrementAndGet();
+    }
+
+    @Override
+    public long getCompilationCount() {
+        return compilations.getCount();
+    }
+
+    @Override
+    public long getCompilationFailureCount() {
+        return compilationFailureCount.get();
+    }
+
+    @Override
+    public long getCacheHitCount() {
+        return cacheHitCount.get();
+    }
+
+    @Override
+    public long getDiagnosticCount() {
+        return diagnosticCount.get();
+    }
+
+    @Override
+    public long getCompilationMeanNanos() {
+        return compilations.getMeanNanos();
+    }
+
+    @Override
+    public long getCompilationMaxNanos() {
+        return compilations.getMaxNanos();
+    }
+
+    @Override
+    public long getCompilation99thPercentileNanos() {
+        return compilations.getPercentileNanos(99);
+    }
+
+    @Override
+    public long getEvaluationCount() {
+        return evaluations.getCount();
+    }
+
+    @Override
+    public long getEvaluationFailureCount() {
+        return evaluationFailureCount.get();
+    }
+
+    @Override
+    public long getEvaluationMeanNanos() {
+        return evaluations.getMeanNanos();
+    }
+
+    @Override
+    public long getEvaluationMaxNanos() {
+        return evaluations.getMaxNanos();
+    }
+
+    @Override
+    public long getEvaluation50thPercentileNanos() {
+        return evaluations.getPercentileNanos(50);
+    }
+
+    @Override
+    public long getEvaluation99thPercentileNanos() {
+        return evaluations.getPercentileNanos(99);
+    }
+
+    @Override
+    public long getEvaluation999thPercentileNanos() {
+        return evaluations.getPercentileNanos(99.9);
+    }
+
+    @Override
+    public Map<String, Long> getPhaseCounts() {
+        return toPhaseMap(LatencyHistogram::getCount);
+    }
+
+    @Override
+    public Map<String, Long> getPhaseTotalNanos() {
+        return toPhaseMap(LatencyHistogram::getTotalNanos);
+    }
+
+    @Override
+    public Map<String, Long> getPhaseMaxNanos() {
+        return toPhaseMap(LatencyHistogram::getMaxNanos);
+    }
+
+    @Override
+    public long getLiveClassLoaderCount() {
+        return classLoaderTracker == null ? 0 : classLoaderTracker.getLiveClassLoaderCount();
+    }
+
+    @Override
+    public long getLiveClassCount() {
+        return classLoaderTracker == null ? 0 : classLoaderTracker.getLiveClassCount();
+    }
+
+    @Override
+    public long getLiveBytecodeSize() {
+        return classLoaderTracker == null ? 0 : classLoaderTracker.getLiveBytecodeSize();
+    }
+
+    @Override
+    public long getEstimatedMetaspaceSize() {
+        return classLoaderTracker == null ? 0 : classLoaderTracker.getEstimatedMetaspaceSize();
+    }
+
+    @Override
+    public void reset() {
+        compilations.reset();
+        evaluations.reset();
+        for (LatencyHistogram phase : phases) {
+            phase.reset();
+        }
+        compilationFailureCount.set(0);
+        cacheHitCount.set(0);
+        diagnosticCount.set(0);
+        evaluationFailureCount.set(0);
+    }
+
+    private Map<String, Long> toPhaseMap(ToLongFunction<LatencyHistogram> function) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (MetricsPhase phase : MetricsPhase.values()) {
+            result.put(phase.name(), function.applyAsLong(phases[phase.ordinal()]));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+}
@@ -0,0 +1,121 @@
+package ch.obermuhlner.scriptengine.java.metrics;
+
+import java.util.Map;
+
+/**
+ * The JMX management interface of {@link ScriptEngineMetrics}.
+ *
+ * All durations are in nanoseconds, the percentiles are approximated by a {@link LatencyHistogram}.
+ * A batch of scripts or expressions compiled together counts as a single compilation.
+ */
+public interface ScriptEngineMetricsMXBean {
+    /**
+     * @return the number of successful compilations, including compilations found in a cache
+     */
+    long getCompilationCount();
+
+    /**
+     * @return the number of failed compilations
+     */
+    long getCompilationFailureCount();
+
+    /**
+     * @return the number of compilations that were found in a cache
+     */
+    long getCacheHitCount();
+
+    /**
+     * @return the number of diagnostics reported by the java compiler
+     */
+    long getDiagnosticCount();
+
+    /**
+     * @return the mean duration of the successful compilations
+     */
+    long getCompilationMeanNanos();
+
+    /**
+     * @return the longest duration of the successful compilations
+     */
+    long getCompilationMaxNanos();
+
+    /**
+     * @return the 99th percentile of the duration of the successful compilations
+     */
+    long getCompilation99thPercentileNanos();
+
+    /**
+     * @return the number of successful evaluations
+     */
+    long getEvaluationCount();
+
+    /**
+     * @return the number of failed evaluations
+     */
+    long getEvaluationFailureCount();
+
+    /**
+     * @return the mean duration of the successful evaluations
+     */
+    long getEvaluationMeanNanos();
+
+    /**
+     * @return the longest duration of the successful evaluations
+     */
+    long getEvaluationMaxNanos();
+
+    /**
+     * @return the median duration of the successful evaluations
+     */
+    long getEvaluation50thPercentileNanos();
+
+    /**
+     * @return the 99th percentile of the duration of the successful evaluations
+     */
+    long getEvaluation99thPercentileNanos();
+
+    /**
+     * @return the 99.9th percentile of the duration of the successful evaluations
+     */
+    long getEvaluation999thPercentileNanos();
+
+    /**
+     * @return the number of completed phases by {@link MetricsPhase} name
+     */
+    Map<String, Long> getPhaseCounts();
+
+    /**
+     * @return the total duration of the completed phases by {@link MetricsPhase} name
+     */
+    Map<String, Long> getPhaseTotalNanos();
+
+    /**
+     * @return the longest duration of the completed phases by {@link MetricsPhase} name
+     */
+    Map<String, Long> getPhaseMaxNanos();
+
+    /**
+     * @return the number of script class loaders that have not been garbage collected yet
+     */
+    long getLiveClassLoaderCount();
+
+    /**
+     * @return the number of script classes that have not been garbage collected yet
+     */
+    long getLiveClassCount();
+
+    /**
+     * @return the bytecode size of the script classes that have not been garbage collected yet
+     */
+    long getLiveBytecodeSize();
+
+    /**
+     * @return the estimated metaspace used by the script classes that have not been garbage collected yet
+     */
+    long getEstimatedMetaspaceSize();
+
+    /**
+     * Resets all counters and durations, the gauges of the live classes are not affected.
+     */
+    void reset();
+}
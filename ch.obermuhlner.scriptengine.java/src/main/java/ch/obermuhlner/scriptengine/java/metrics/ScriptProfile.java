@@ -0,0 +1,110 @@
+package ch.obermuhlner.scriptengine.java.metrics;
+
+/**
+ * An immutable snapshot of the execution statistics of the scripts with the same class name.
+ *
+ * @see ScriptProfiler
+ */
+public class ScriptProfile {
+    private final String scriptName;
+    private final long invocationCount;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long allocatedBytes;
+    private final long exceptionCount;
+
+    /**
+     * Creates a {@link ScriptProfile}.
+     *
+     * @param scriptName the fully qualified class name of the script
+     * @param invocationCount the number of evaluations (successful or not)
+     * @param totalNanos the cumulative duration of the evaluations in nanoseconds
+     * @param maxNanos the longest duration of an evaluation in nanoseconds
+     * @param allocatedBytes the cumulative number of bytes allocated by the evaluating threads
+     * @param exceptionCount the number of evaluations that failed with an exception
+     */
+    public ScriptProfile(String scriptName, long invocationCount, long totalNanos, long maxNanos, long allocatedBytes, long exceptionCount) {
+        this.scriptName = scriptName;
+        this.invocationCount = invocationCount;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.allocatedBytes = allocatedBytes;
+        this.exceptionCount = exceptionCount;
+    }
+
+    /**
+     * Returns the fully qualified class name of the script.
+     *
+     * @return the script name
+     */
+    public String getScriptName() {
+        return scriptName;
+    }
+
+    /**
+     * Returns the number of evaluations (successful or not).
+     *
+     * @return the invocation count
+     */
+    public long getInvocationCount() {
+        return invocationCount;
+    }
+
+    /**
+     * Returns the cumulative duration of the evaluations.
+     *
+     * @return the total duration in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Returns the longest duration of an evaluation.
+     *
+     * @return the maximum duration in nanoseconds
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Returns the average duration of an evaluation.
+     *
+     * @return the mean duration in nanoseconds or 0 if the script was not evaluated
+     */
+    public long getMeanNanos() {
+        return invocationCount == 0 ? 0 : totalNanos / invocationCount;
+    }
+
+    /**
+     * Returns the cumulative number of bytes allocated by the evaluating threads during the evaluations.
+     *
+     * @return the allocated bytes or 0 if allocation tracking is disabled
+     * @see ScriptProfiler#isAllocationTracking()
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Returns the number of evaluations that failed with an exception.
+     *
+     * @return the exception count
+     */
+    public long getExceptionCount() {
+        return exceptionCount;
+    }
+
+    @Override
+    public String toString() {
+        return "ScriptProfile{" +
+                "scriptName=" + scriptName +
+                ", invocationCount=" + invocationCount +
+                ", totalNanos=" + totalNanos +
+                ", maxNanos=" + maxNanos +
+                ", allocatedBytes=" + allocatedBytes +
+                ", exceptionCount=" + exceptionCount +
+                "}";
+    }
+}
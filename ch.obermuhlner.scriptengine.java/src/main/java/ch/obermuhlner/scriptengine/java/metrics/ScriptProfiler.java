@@ -0,0 +1,244 @@
+package ch.obermuhlner.scriptengine.java.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Collects the execution statistics of every compiled script, keyed by the fully qualified class name of the script.
+ *
+ * All compiled scripts with the same class name share the same statistics.
+ * Recording an evaluation takes no lock, it only allocates memory for the first evaluation of a script class.
+ *
+ * The bytes allocated by the evaluating thread are measured with the {@link ThreadMXBean} of the JVM,
+ * if allocation tracking is enabled and supported.
+ *
+ * Usage:
+ * <pre>
+ * ScriptProfiler profiler = new ScriptProfiler(true);
+ * engine.setScriptProfiler(profiler);
+ * ...
+ * List&lt;ScriptProfile&gt; hottest = profiler.getHottestScripts(10);
+ * </pre>
+ *
+ * @see ch.obermuhlner.scriptengine.java.JavaScriptEngine#setScriptProfiler(ScriptProfiler)
+ */
+public class ScriptProfiler {
+
+    /**
+     * Orders {@link ScriptProfile}s by descending cumulative duration.
+     */
+    public static final Comparator<ScriptProfile> BY_TOTAL_NANOS = Comparator.comparingLong(ScriptProfile::getTotalNanos).reversed();
+
+    private final ConcurrentMap<String, Statistics> statistics = new ConcurrentHashMap<>();
+    private final boolean allocationTracking;
+
+    /**
+     * Creates a {@link ScriptProfiler} without allocation tracking.
+     */
+    public ScriptProfiler() {
+        this(false);
+    }
+
+    /**
+     * Creates a {@link ScriptProfiler}.
+     *
+     * Allocation tracking costs two calls to the {@link ThreadMXBean} per evaluation.
+     * It is silently disabled if the JVM does not support measuring the allocated bytes of a thread.
+     *
+     * @param allocationTracking {@code true} to measure the bytes allocated by the evaluations
+     */
+    public ScriptProfiler(boolean allocationTracking) {
+        this.allocationTracking = allocationTracking && isAllocationTrackingSupported();
+    }
+
+    /**
+     * Returns whether the bytes allocated by the evaluations are measured.
+     *
+     * @return {@code true} if allocation tracking is enabled and supported
+     */
+    public boolean isAllocationTracking() {
+        return allocationTracking;
+    }
+
+    /**
+     * Returns the number of bytes allocated by the current thread so far.
+     *
+     * This method is called by the compiled scripts before and after an evaluation.
+     *
+     * @return the allocated bytes or 0 if allocation tracking is disabled
+     */
+    public long getCurrentThreadAllocatedBytes() {
+        if (!allocationTracking) {
+            return 0;
+        }
+        return AllocationCounter.THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Records an evaluation of a script.
+     *
+     * This method is called by the compiled scripts after an evaluation.
+     *
+     * @param scriptName the fully qualified class name of the script
+     * @param nanos the duration of the evaluation in nanoseconds
+     * @param allocatedBytes the bytes allocated by the evaluation
+     * @param failed {@code true} if the evaluation failed with an exception
+     */
+    public void record(String scriptName, long nanos, long allocatedBytes, boolean failed) {
+        Statistics scriptStatistics = statistics.get(scriptName);
+        if (scriptStatistics == null) {
+            scriptStatistics = statistics.computeIfAbsent(scriptName, key -> new Statistics());
+        }
+        scriptStatistics.record(nanos, allocatedBytes, failed);
+    }
+
+    /**
+     * Returns the profile of a single script.
+     *
+     * @param scriptName the fully qualified class name of the script
+     * @return the {@link ScriptProfile} or {@code null} if the script was not evaluated since the last reset
+     */
+    public ScriptProfile getProfile(String scriptName) {
+        Statistics scriptStatistics = statistics.get(scriptName);
+        return scriptStatistics == null ? null : scriptStatistics.toProfile(scriptName);
+    }
+
+    /**
+     * Returns the profiles of all scripts evaluated since the last reset.
+     *
+     * @return the list of {@link ScriptProfile}s ordered by descending cumulative duration
+     */
+    public List<ScriptProfile> snapshot() {
+        List<ScriptProfile> result = new ArrayList<>();
+        for (Map.Entry<String, Statistics> entry : statistics.entrySet()) {
+            result.add(entry.getValue().toProfile(entry.getKey()));
+        }
+        result.sort(BY_TOTAL_NANOS);
+        return result;
+    }
+
+    /**
+     * Returns the profiles of all scripts evaluated since the last reset and starts new statistics.
+     *
+     * Evaluations that complete concurrently with this call are counted either in the returned snapshot
+     * or in the new statistics, a few of them may be lost.
+     *
+     * @return the list of {@link ScriptProfile}s ordered by descending cumulative duration
+     */
+    public List<ScriptProfile> snapshotAndReset() {
+        List<ScriptProfile> result = new ArrayList<>();
+        for (String scriptName : statistics.keySet()) {
+            Statistics scriptStatistics = statistics.remove(scriptName);
+            if (scriptStatistics != null) {
+                result.add(scriptStatistics.toProfile(scriptName));
+            }
+        }
+        result.sort(BY_TOTAL_NANOS);
+        return result;
+    }
+
+    /**
+     * Removes the statistics of all scripts.
+     */
+    public void reset() {
+        statistics.clear();
+    }
+
+    /**
+     * Returns the scripts with the largest cumulative duration.
+     *
+     * @param count the maximum number of returned scripts
+     * @return the list of {@link ScriptProfile}s ordered by descending cumulative duration
+     */
+    public List<ScriptProfile> getHottestScripts(int count) {
+        return getTopScripts(count, BY_TOTAL_NANOS);
+    }
+
+    /**
+     * Returns the first scripts in the specified order.
+     *
+     * @param count the maximum number of returned scripts
+     * @param comparator the {@link Comparator} defining the order, for example by descending allocated bytes
+     * @return the list of at most {@code count} {@link ScriptProfile}s in the specified order
+     */
+    public List<ScriptProfile> getTopScripts(int count, Comparator<ScriptProfile> comparator) {
+        List<ScriptProfile> profiles = snapshot();
+        profiles.sort(comparator);
+        return new ArrayList<>(profiles.subList(0, Math.min(count, profiles.size())));
+    }
+
+    /**
+     * Periodically passes the snapshot of all profiles to a consumer and resets the statistics.
+     *
+     * @param scheduler the {@link ScheduledExecutorService} running the snapshots
+     * @param period the period between two snapshots
+     * @param unit the {@link TimeUnit} of the period
+     * @param consumer the {@link Consumer} of the snapshots, for example to log the hottest scripts
+     * @return the {@link ScheduledFuture} to cancel the periodic snapshots
+     * @see #snapshotAndReset()
+     */
+    public ScheduledFuture<?> scheduleSnapshots(ScheduledExecutorService scheduler, long period, TimeUnit unit, Consumer<List<ScriptProfile>> consumer) {
+        return scheduler.scheduleAtFixedRate(() -> consumer.accept(snapshotAndReset()), period, period, unit);
+    }
+
+    private static boolean isAllocationTrackingSupported() {
+        try {
+            return AllocationCounter.THREAD_MX_BEAN != null;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Holds the JVM specific {@link com.sun.management.ThreadMXBean}, only loaded if allocation tracking is requested.
+     */
+    private static class AllocationCounter {
+        static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = findThreadMXBean();
+
+        private static com.sun.management.ThreadMXBean findThreadMXBean() {
+            ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+            if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+                if (allocationMXBean.isThreadAllocatedMemorySupported() && allocationMXBean.isThreadAllocatedMemoryEnabled()) {
+                    return allocationMXBean;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static class Statistics {
+        final AtomicLong invocationCount = new AtomicLong();
+        final AtomicLong totalNanos = new AtomicLong();
+        final AtomicLong maxNanos = new AtomicLong();
+        final AtomicLong allocatedBytes = new AtomicLong();
+        final AtomicLong exceptionCount = new AtomicLong();
+
+        void record(long nanos, long bytes, boolean failed) {
+            invocationCount.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            if (bytes > 0) {
+                allocatedBytes.addAndGet(bytes);
+            }
+            if (failed) {
+                exceptionCount.incrementAndGet();
+            }
+        }
+
+        ScriptProfile toProfile(String scriptName) {
+            return new ScriptProfile(scriptName, invocationCount.get(), totalNanos.get(), maxNanos.get(), allocatedBytes.get(), exceptionCount.get());
+        }
+    }
+}
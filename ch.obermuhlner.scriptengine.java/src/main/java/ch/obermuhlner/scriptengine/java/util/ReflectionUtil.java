@@ -1,7 +1,11 @@
 package ch.obermuhlner.scriptengine.java.util;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 
 public class ReflectionUtil {
     private ReflectionUtil() {
@@ -50,4 +54,38 @@ public class ReflectionUtil {
         return parameterType.isAssignableFrom(argumentType);
     }
 
+    /**
+     * Creates a {@link MethodHandle} of type {@code (Object)Object} that calls the specified method
+     * on the instance passed as argument with the specified bound arguments.
+     *
+     * The instance is ignored for static methods.
+     * Primitive return values are boxed, {@code void} methods return {@code null}.
+     *
+     * @param method the {@link Method} to call
+     * @param arguments the arguments to bind, must match the parameter types of the method
+     * @return the {@link MethodHandle} or {@code null} if the method is not accessible
+     *         or the arguments do not match the parameter types
+     */
+    public static MethodHandle toInstanceMethodHandle(Method method, Object... arguments) {
+        if (!matchesArguments(method, arguments)) {
+            return null;
+        }
+
+        MethodHandle methodHandle;
+        try {
+            methodHandle = MethodHandles.publicLookup().unreflect(method).asFixedArity();
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+
+        if (arguments.length > 0) {
+            int firstArgument = Modifier.isStatic(method.getModifiers()) ? 0 : 1;
+            methodHandle = methodHandle.asType(methodHandle.type().generic());
+            methodHandle = MethodHandles.insertArguments(methodHandle, firstArgument, arguments);
+        }
+        if (Modifier.isStatic(method.getModifiers())) {
+            methodHandle = MethodHandles.dropArguments(methodHandle, 0, Object.class);
+        }
+        return methodHandle.asType(MethodType.methodType(Object.class, Object.class));
+    }
 }
@@ -0,0 +1,66 @@
+package ch.obermuhlner.scriptengine.java.util;
+
+public class SourceUtil {
+    private static final String TEXT_BLOCK_DELIMITER = "\"\"\"";
+
+    private SourceUtil() {
+        // does nothing
+    }
+
+    /**
+     * Replaces the content of comments, string and character literals and text blocks with spaces,
+     * so that the structure of a source can be analyzed with the same character positions.
+     *
+     * Line breaks are kept, so that the masked source has the same line numbers.
+     *
+     * @param source the Java source
+     * @return the masked source with the same length as the specified source
+     */
+    public static String mask(String source) {
+        char[] chars = source.toCharArray();
+        int i = 0;
+        while (i < chars.length) {
+            char c = chars[i];
+            if (c == '/' && i + 1 < chars.length && chars[i + 1] == '/') {
+                while (i < chars.length && chars[i] != '\n') {
+                    chars[i++] = ' ';
+                }
+            } else if (c == '/' && i + 1 < chars.length && chars[i + 1] == '*') {
+                int end = source.indexOf("*/", i + 2);
+                end = end < 0 ? chars.length : end + 2;
+                for (; i < end; i++) {
+                    if (chars[i] != '\n') {
+                        chars[i] = ' ';
+                    }
+                }
+            } else if (source.startsWith(TEXT_BLOCK_DELIMITER, i)) {
+                i += TEXT_BLOCK_DELIMITER.length();
+                while (i < chars.length && !source.startsWith(TEXT_BLOCK_DELIMITER, i)) {
+                    if (chars[i] == '\\' && i + 1 < chars.length) {
+                        maskUnlessLineBreak(chars, i++);
+                    }
+                    maskUnlessLineBreak(chars, i++);
+                }
+                i += TEXT_BLOCK_DELIMITER.length();
+            } else if (c == '"' || c == '\'') {
+                i++;
+                while (i < chars.length && chars[i] != c && chars[i] != '\n') {
+                    if (chars[i] == '\\' && i + 1 < chars.length) {
+                        chars[i++] = ' ';
+                    }
+                    chars[i++] = ' ';
+                }
+                i++;
+            } else {
+                i++;
+            }
+        }
+        return new String(chars);
+    }
+
+    private static void maskUnlessLineBreak(char[] chars, int index) {
+        if (chars[index] != '\n' && chars[index] != '\r') {
+            chars[index] = ' ';
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package ch.obermuhlner.scriptengine.java;
+
+import org.junit.Test;
+
+import javax.script.Bindings;
+import javax.script.ScriptException;
+import javax.script.SimpleBindings;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.DoubleBinaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class JavaCompiledExpressionTest {
+    @Test
+    public void testCompileExpressionFromBindings() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        engine.put("alpha", 2.0);
+        engine.put("beta", 3.0);
+        engine.put("name", "Alpha");
+        engine.put("unused", 1);
+
+        JavaCompiledExpression expression = engine.compileExpression("alpha * beta + name.length() + Math.PI * 0");
+
+        assertThat(expression.getParameterNames()).containsExactly("alpha", "beta", "name");
+        assertThat(expression.getParameterTypes()).containsExactly(double.class, double.class, String.class);
+        assertThat(expression.getResultType()).isEqualTo(Object.class);
+        assertThat(expression.eval()).isEqualTo(11.0);
+
+        Bindings bindings = new SimpleBindings();
+        bindings.put("alpha", 4.0);
+        bindings.put("beta", 5.0);
+        bindings.put("name", "Beta");
+        assertThat(expression.eval(bindings)).isEqualTo(24.0);
+    }
+
+    @Test
+    public void testCompileExpressionWithTypes() throws ScriptException, Throwable {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        Map<String, Class<?>> variableTypes = new HashMap<>();
+        variableTypes.put("alpha", double.class);
+        variableTypes.put("beta", double.class);
+
+        JavaCompiledExpression expression = engine.compileExpression("alpha * beta // \"gamma\"", variableTypes, double.class);
+
+        assertThat(expression.getResultType()).isEqualTo(double.class);
+        assertThat(expression.invoke(2.0, 3)).isEqualTo(6.0);
+        assertThat((double) expression.getMethodHandle().invokeExact(2.0, 4.0)).isEqualTo(8.0);
+        assertThat(expression.as(DoubleBinaryOperator.class).applyAsDouble(2.0, 5.0)).isEqualTo(10.0);
+    }
+
+    @Test
+    public void testCompileExpressions() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        Map<String, Class<?>> variableTypes = new HashMap<>();
+        variableTypes.put("x", int.class);
+        variableTypes.put("y", int.class);
+
+        Map<String, String> expressions = new LinkedHashMap<>();
+        expressions.put("sum", "x + y");
+        expressions.put("square", "x * x");
+        expressions.put("constant", "42");
+
+        Map<String, JavaCompiledExpression> compiledExpressions = engine.compileExpressions(expressions, variableTypes, int.class);
+
+        assertThat(compiledExpressions.keySet()).containsExactly("sum", "square", "constant");
+        assertThat(compiledExpressions.get("sum").invoke(2, 3)).isEqualTo(5);
+        assertThat(compiledExpressions.get("square").getParameterNames()).containsExactly("x");
+        assertThat(compiledExpressions.get("square").invoke(4)).isEqualTo(16);
+        assertThat(compiledExpressions.get("constant").invoke()).isEqualTo(42);
+
+        Class<?> sumClass = compiledExpressions.get("sum").getMethod().getDeclaringClass();
+        assertThat(compiledExpressions.get("constant").getMethod().getDeclaringClass()).isSameAs(sumClass);
+        assertThat(engine.getClassLoaderTracker().getLiveClassCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testCompileExpressionIgnoresLiterals() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        engine.put("x", 2);
+        engine.put("y", 3);
+
+        JavaCompiledExpression expression = engine.compileExpression("x + \"y { y }\".length() /* y */ + 'y'");
+
+        assertThat(expression.getParameterNames()).containsExactly("x");
+        assertThat(expression.eval()).isEqualTo(2 + 7 + 'y');
+    }
+
+    @Test
+    public void testCompileExpressionWithLambdaParameters() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        engine.put("x", 10);
+        engine.put("y", 100);
+        engine.put("values", new int[] { 1, 2, 3 });
+
+        JavaCompiledExpression expression = engine.compileExpression("java.util.Arrays.stream(values).map(x -> x * 2).sum() + java.util.Arrays.stream(values).reduce(y, (a, x) -> a + x)");
+
+        assertThat(expression.getParameterNames()).containsExactly("values", "y");
+        assertThat(expression.eval()).isEqualTo(12 + 106);
+    }
+
+    @Test
+    public void failCompileExpressions() {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        engine.put("x", 1);
+
+        Map<String, String> expressions = new LinkedHashMap<>();
+        expressions.put("good", "x + 1");
+        expressions.put("bad", "x +\n unknown");
+
+        assertThatThrownBy(() -> {
+            engine.compileExpressions(expressions);
+        }).isInstanceOfSatisfying(BatchCompilationException.class, e -> {
+            assertThat(e.getFailedScripts()).containsExactly("bad");
+            assertThat(e.getDiagnostics("bad")).isNotEmpty();
+        });
+    }
+
+    @Test
+    public void failEvalMissingBinding() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        engine.put("x", 1);
+        JavaCompiledExpression expression = engine.compileExpression("x + 1");
+
+        assertThatThrownBy(() -> {
+            expression.eval(new SimpleBindings());
+        }).isInstanceOf(ScriptException.class).hasMessageContaining("x");
+        assertThatThrownBy(() -> {
+            expression.invoke("one");
+        }).isInstanceOf(ScriptException.class);
+        assertThatThrownBy(() -> {
+            expression.as(DoubleBinaryOperator.class);
+        }).isInstanceOf(ScriptException.class);
+    }
+}
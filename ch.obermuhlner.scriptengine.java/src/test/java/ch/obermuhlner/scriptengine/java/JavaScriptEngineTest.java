@@ -1,21 +1,64 @@
 package ch.obermuhlner.scriptengine.java;
 
+import ch.obermuhlner.scriptengine.java.async.ScriptExecutors;
+import ch.obermuhlner.scriptengine.java.bindings.FieldAccessorBindingStrategy;
+import ch.obermuhlner.scriptengine.java.bindings.WriteBackMode;
+import ch.obermuhlner.scriptengine.java.cache.BytecodeCache;
+import ch.obermuhlner.scriptengine.java.cache.CacheInstancePolicy;
+import ch.obermuhlner.scriptengine.java.cache.CompiledScriptCache;
+import ch.obermuhlner.scriptengine.java.cache.DirectoryBytecodeCache;
+import ch.obermuhlner.scriptengine.java.compilation.StandardFileManagerPool;
 import ch.obermuhlner.scriptengine.java.constructor.DefaultConstructorStrategy;
 import ch.obermuhlner.scriptengine.java.constructor.NullConstructorStrategy;
 import ch.obermuhlner.scriptengine.java.execution.MethodExecutionStrategy;
+import ch.obermuhlner.scriptengine.java.instance.InstanceFactory;
+import ch.obermuhlner.scriptengine.java.instance.NewInstanceStrategy;
+import ch.obermuhlner.scriptengine.java.instance.PooledInstanceStrategy;
+import ch.obermuhlner.scriptengine.java.instance.SharedInstanceStrategy;
+import ch.obermuhlner.scriptengine.java.instance.StripedInstanceStrategy;
+import ch.obermuhlner.scriptengine.java.instance.ThreadLocalInstanceStrategy;
 import ch.obermuhlner.scriptengine.java.name.FixNameStrategy;
+import org.junit.Assume;
 import org.junit.Test;
 
 import javax.script.*;
+import javax.tools.StandardJavaFileManager;
 
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntSupplier;
 
 import static org.assertj.core.api.Assertions.*;
 
 public class JavaScriptEngineTest {
+    private static final String SCRIPT_ALPHA_TIMES_BETA = "" +
+            "public class Script implements java.util.function.DoubleSupplier {" +
+            "   public double alpha;" +
+            "   public double beta;" +
+            "   public double getAsDouble() {" +
+            "       return alpha * beta;" +
+            "   }" +
+            "}";
+
     @Test
     public void testClassInDefaultPackage() throws ScriptException {
         ScriptEngineManager manager = new ScriptEngineManager();
@@ -390,6 +433,537 @@ public class JavaScriptEngineTest {
         }).isInstanceOf(ScriptException.class);
     }
 
+    @Test
+    public void testFieldAccessorBindingStrategy() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        engine.setBindingStrategy(new FieldAccessorBindingStrategy());
+
+        Bindings bindings = engine.createBindings();
+        bindings.put("message", "Hello");
+        bindings.put("ignored", 42);
+
+        Object result = engine.eval("" +
+                "public class Script {" +
+                "   public String message;" +
+                "   public String getMessage() {" +
+                "       message = message + \" World\";" +
+                "       return message;" +
+                "   }" +
+                "}", bindings);
+
+        assertThat(result).isEqualTo("Hello World");
+        assertThat(bindings.get("message")).isEqualTo("Hello World");
+    }
+
+    @Test
+    public void testEvalDoesNotAllocate() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        Bindings globalBindings = engine.createBindings();
+        for (int i = 0; i < 100; i++) {
+            globalBindings.put("unused" + i, "Unused" + i);
+        }
+        globalBindings.put("greeting", "Hello");
+        engine.setBindings(globalBindings, ScriptContext.GLOBAL_SCOPE);
+
+        JavaCompiledScript compiledScript = engine.compile("" +
+                "public class Script implements java.util.function.Supplier<String> {" +
+                "   public String greeting;" +
+                "   public String name;" +
+                "   public String get() {" +
+                "       return name;" +
+                "   }" +
+                "}");
+
+        Bindings bindings = engine.createBindings();
+        bindings.put("name", "World");
+
+        assertNoAllocation(() -> compiledScript.eval(bindings));
+        assertThat(bindings.get("name")).isEqualTo("World");
+    }
+
+    @Test
+    public void testEvalDoubleDoesNotAllocate() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        engine.setWriteBackMode(WriteBackMode.AnnotatedFields);
+
+        JavaCompiledScript compiledScript = engine.compile("" +
+                "public class Script implements java.util.function.DoubleSupplier {" +
+                "   public double alpha;" +
+                "   public double beta;" +
+                "   public double getAsDouble() {" +
+                "       return alpha * beta;" +
+                "   }" +
+                "}");
+
+        Bindings bindings = engine.createBindings();
+        bindings.put("alpha", 2.0);
+        bindings.put("beta", 3.5);
+
+        assertThat(compiledScript.evalDouble(bindings)).isEqualTo(7.0);
+        assertNoAllocation(() -> compiledScript.evalDouble(bindings));
+    }
+
+    @Test
+    public void testEvalPrimitive() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+
+        JavaCompiledScript intScript = engine.compile("" +
+                "public class Script implements java.util.function.IntSupplier {" +
+                "   public int value;" +
+                "   public int getAsInt() {" +
+                "       return value++;" +
+                "   }" +
+                "}");
+        Bindings bindings = engine.createBindings();
+        bindings.put("value", 41);
+        assertThat(intScript.evalInt(bindings)).isEqualTo(41);
+        assertThat(bindings.get("value")).isEqualTo(42);
+        assertThat(intScript.evalLong(bindings)).isEqualTo(42L);
+        assertThat(intScript.evalDouble(bindings)).isEqualTo(43.0);
+
+        JavaCompiledScript booleanScript = engine.compile("" +
+                "public class Script implements java.util.function.BooleanSupplier {" +
+                "   public boolean getAsBoolean() {" +
+                "       return true;" +
+                "   }" +
+                "}");
+        assertThat(booleanScript.evalBoolean()).isTrue();
+
+        JavaCompiledScript stringScript = engine.compile("" +
+                "public class Script {" +
+                "   public String getMessage() {" +
+                "       return \"Hello\";" +
+                "   }" +
+                "}");
+        assertThatThrownBy(() -> {
+            stringScript.evalDouble();
+        }).isInstanceOf(ScriptException.class);
+    }
+
+    @Test
+    public void testCompileAsync() throws InterruptedException, ExecutionException, ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+
+        CompletableFuture<JavaCompiledScript> future = engine.compileAsync("" +
+                "public class Script {" +
+                "   public String getMessage() {" +
+                "       return \"Hello\";" +
+                "   }" +
+                "}");
+
+        assertThat(future.get().eval()).isEqualTo("Hello");
+    }
+
+    @Test
+    public void testEvalAsync() throws InterruptedException, ExecutionException, ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        engine.setAsyncExecutor(ScriptExecutors.newPlatformThreadExecutor(2, 10));
+        engine.setInstanceStrategyFactory((clazz, compiledInstance, constructorStrategy) -> new ThreadLocalInstanceStrategy(clazz, constructorStrategy));
+
+        Bindings bindings = engine.createBindings();
+        bindings.put("name", "World");
+        CompletableFuture<Object> future = engine.evalAsync("" +
+                "public class Script {" +
+                "   public String name;" +
+                "   public String getMessage() {" +
+                "       return \"Hello \" + name;" +
+                "   }" +
+                "}", bindings);
+        assertThat(future.get()).isEqualTo("Hello World");
+
+        JavaCompiledScript compiledScript = engine.compile("" +
+                "public class Script {" +
+                "   public int value;" +
+                "   public int getValue() {" +
+                "       return value * 2;" +
+                "   }" +
+                "}");
+        List<CompletableFuture<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Bindings evalBindings = engine.createBindings();
+            evalBindings.put("value", i);
+            futures.add(compiledScript.evalAsync(evalBindings));
+        }
+        for (int i = 0; i < 10; i++) {
+            assertThat(futures.get(i).get()).isEqualTo(i * 2);
+        }
+    }
+
+    @Test
+    public void failEvalAsync() {
+        JavaScriptEngine engine = new JavaScriptEngine();
+
+        CompletableFuture<Object> future = engine.evalAsync("this is not java");
+
+        assertThatThrownBy(future::get).hasCauseInstanceOf(ScriptException.class);
+    }
+
+    @Test
+    public void failEvalAsyncRejected() {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        engine.setAsyncExecutor(command -> {
+            throw new RejectedExecutionException();
+        });
+
+        assertThat(engine.compileAsync("public class Script {}")).isCompletedExceptionally();
+    }
+
+    @Test
+    public void testCompilationCoalescing() throws InterruptedException, ExecutionException, ScriptException {
+        int threadCount = 4;
+        JavaScriptEngine engine = new JavaScriptEngine();
+        engine.setFileManagerPool(new WaitForCoalescingFileManagerPool(engine, threadCount - 1));
+
+        String script = "" +
+                "public class Script {" +
+                "   public String getMessage() {" +
+                "       return \"Hello\";" +
+                "   }" +
+                "}";
+
+        Class<?> compiledClass;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<JavaCompiledScript>> futures = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                futures.add(executorService.submit(() -> engine.compile(script)));
+            }
+
+            compiledClass = futures.get(0).get().getCompiledClass();
+            for (Future<JavaCompiledScript> future : futures) {
+                assertThat(future.get().getCompiledClass()).isSameAs(compiledClass);
+            }
+            assertThat(engine.getCoalescedCompilationCount()).isEqualTo(threadCount - 1);
+            assertThat(engine.getFileManagerPool().getCreatedCount() + engine.getFileManagerPool().getReusedCount()).isEqualTo(1);
+        } finally {
+            executorService.shutdown();
+        }
+
+        // only concurrent compilations are coalesced
+        assertThat(engine.compile(script).getCompiledClass()).isNotSameAs(compiledClass);
+    }
+
+    @Test
+    public void failCompilationCoalescing() throws InterruptedException {
+        int threadCount = 3;
+        JavaScriptEngine engine = new JavaScriptEngine();
+        engine.setFileManagerPool(new WaitForCoalescingFileManagerPool(engine, threadCount - 1));
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<JavaCompiledScript>> futures = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                futures.add(executorService.submit(() -> engine.compile("public class Script { syntax error }")));
+            }
+
+            for (Future<JavaCompiledScript> future : futures) {
+                assertThatThrownBy(future::get).hasCauseInstanceOf(ScriptException.class);
+            }
+            assertThat(engine.getCoalescedCompilationCount()).isEqualTo(threadCount - 1);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testCompilationCoalescingDisabled() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        engine.setCompilationCoalescing(false);
+
+        JavaCompiledScript compiledScript1 = engine.compile("public class Script {}");
+        JavaCompiledScript compiledScript2 = engine.compile("public class Script {}");
+
+        assertThat(compiledScript1.getCompiledClass()).isNotSameAs(compiledScript2.getCompiledClass());
+        assertThat(engine.getCoalescedCompilationCount()).isEqualTo(0);
+    }
+
+    /**
+     * Holds back the first compilation until the expected number of concurrent compilations
+     * of the same script are waiting for it.
+     */
+    private static class WaitForCoalescingFileManagerPool extends StandardFileManagerPool {
+        private final JavaScriptEngine engine;
+        private final long expectedCoalescedCount;
+
+        WaitForCoalescingFileManagerPool(JavaScriptEngine engine, long expectedCoalescedCount) {
+            super(1);
+            this.engine = engine;
+            this.expectedCoalescedCount = expectedCoalescedCount;
+        }
+
+        @Override
+        public StandardJavaFileManager borrow(List<String> compilationOptions) {
+            long endMillis = System.currentTimeMillis() + 10_000;
+            while (engine.getCoalescedCompilationCount() < expectedCoalescedCount && System.currentTimeMillis() < endMillis) {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            return super.borrow(compilationOptions);
+        }
+    }
+
+    @Test
+    public void testClose() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        CompiledScriptCache cache = new CompiledScriptCache(10);
+        engine.setCompiledScriptCache(cache);
+
+        JavaCompiledScript compiledScript = engine.compile("" +
+                "public class Script implements java.util.function.IntSupplier {" +
+                "   public int getAsInt() {" +
+                "       return 42;" +
+                "   }" +
+                "}");
+        assertThat(compiledScript.eval()).isEqualTo(42);
+        assertThat(cache.size()).isEqualTo(1);
+
+        compiledScript.close();
+        compiledScript.close();
+
+        assertThat(compiledScript.isClosed()).isTrue();
+        assertThat(cache.size()).isEqualTo(0);
+        assertThatThrownBy(compiledScript::eval).isInstanceOf(ScriptException.class);
+        assertThatThrownBy(compiledScript::evalInt).isInstanceOf(ScriptException.class);
+        assertThatThrownBy(() -> compiledScript.as(IntSupplier.class)).isInstanceOf(ScriptException.class);
+    }
+
+    @Test
+    public void testClassLoaderCollected() throws ScriptException, InterruptedException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        ClassLoaderTracker tracker = engine.getClassLoaderTracker();
+
+        int scriptCount = 5;
+        for (int i = 0; i < scriptCount; i++) {
+            compileEvalAndClose(engine, i);
+        }
+        assertThat(tracker.getRegisteredClassLoaderCount()).isEqualTo(scriptCount);
+
+        for (int i = 0; i < 100 && tracker.getCollectedClassLoaderCount() < scriptCount; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertThat(tracker.getCollectedClassLoaderCount()).isEqualTo(scriptCount);
+        assertThat(tracker.getLiveClassLoaderCount()).isEqualTo(0);
+        assertThat(tracker.getLiveClassCount()).isEqualTo(0);
+        assertThat(tracker.getEstimatedMetaspaceSize()).isEqualTo(0);
+    }
+
+    @Test
+    public void testClassLoaderCollectedThreadLocalInstance() throws Exception {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        engine.setInstanceStrategyFactory((clazz, compiledInstance, constructorStrategy) -> new ThreadLocalInstanceStrategy(clazz, constructorStrategy));
+        ClassLoaderTracker tracker = engine.getClassLoaderTracker();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            compileEvalOnThreadAndClose(engine, executor);
+
+            for (int i = 0; i < 100 && tracker.getCollectedClassLoaderCount() < 1; i++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+
+            assertThat(tracker.getCollectedClassLoaderCount()).isEqualTo(1);
+            assertThat(tracker.getLiveClassCount()).isEqualTo(0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void compileEvalOnThreadAndClose(JavaScriptEngine engine, ExecutorService executor) throws Exception {
+        JavaCompiledScript compiledScript = engine.compile("" +
+                "public class Script implements java.util.function.IntSupplier {" +
+                "   public int getAsInt() {" +
+                "       return 42;" +
+                "   }" +
+                "}");
+        assertThat(executor.submit(() -> compiledScript.evalInt()).get()).isEqualTo(42);
+        compiledScript.close();
+    }
+
+    @Test
+    public void testClassLoaderTracked() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        ClassLoaderTracker tracker = engine.getClassLoaderTracker();
+
+        JavaCompiledScript compiledScript = engine.compile("" +
+                "public class Script {" +
+                "   public static class Inner {" +
+                "   }" +
+                "}");
+
+        assertThat(tracker.getLiveClassLoaderCount()).isEqualTo(1);
+        assertThat(tracker.getLiveClassCount()).isEqualTo(2);
+        assertThat(tracker.getLiveBytecodeSize()).isGreaterThan(0);
+        assertThat(tracker.getEstimatedMetaspaceSize()).isGreaterThan(tracker.getLiveBytecodeSize());
+        assertThat(compiledScript.getCompiledClass().getClassLoader()).isNotNull();
+    }
+
+    private static void compileEvalAndClose(JavaScriptEngine engine, int value) throws ScriptException {
+        JavaCompiledScript compiledScript = engine.compile("" +
+                "public class Script implements java.util.function.IntSupplier {" +
+                "   public int getAsInt() {" +
+                "       return " + value + ";" +
+                "   }" +
+                "}");
+        assertThat(compiledScript.eval()).isEqualTo(value);
+        compiledScript.close();
+    }
+
+    @Test
+    public void testEvalDoubleBatch() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        JavaCompiledScript compiledScript = engine.compile(SCRIPT_ALPHA_TIMES_BETA);
+
+        Map<String, double[]> columns = new HashMap<>();
+        columns.put("alpha", new double[] { 1.0, 2.0, 3.0 });
+        columns.put("beta", new double[] { 10.0, 20.0, 30.0 });
+
+        assertThat(compiledScript.evalDoubleBatch(columns)).containsExactly(10.0, 40.0, 90.0);
+        assertThat(compiledScript.evalDoubleBatch(Collections.singletonMap("alpha", new double[] { 4.0 }))).containsExactly(120.0);
+        assertThat(compiledScript.evalDoubleBatch(Collections.singletonMap("alpha", new double[0]))).isEmpty();
+    }
+
+    @Test
+    public void testEvalDoubleBatchParallel() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        JavaCompiledScript compiledScript = engine.compile(SCRIPT_ALPHA_TIMES_BETA);
+
+        int rowCount = 100_003;
+        double[] alpha = new double[rowCount];
+        double[] beta = new double[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            alpha[i] = i;
+            beta[i] = 0.5;
+        }
+        Map<String, double[]> columns = new HashMap<>();
+        columns.put("alpha", alpha);
+        columns.put("beta", beta);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            double[] results = compiledScript.evalDoubleBatch(columns, pool);
+            assertThat(results).hasSize(rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                assertThat(results[i]).isEqualTo(i * 0.5);
+            }
+            assertThat(compiledScript.evalDoubleBatch(Collections.singletonMap("alpha", new double[0]), pool)).isEmpty();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void failEvalDoubleBatch() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        JavaCompiledScript compiledScript = engine.compile(SCRIPT_ALPHA_TIMES_BETA);
+
+        assertThatThrownBy(() -> {
+            compiledScript.evalDoubleBatch(Collections.singletonMap("gamma", new double[] { 1.0 }));
+        }).isInstanceOf(ScriptException.class);
+
+        Map<String, double[]> columns = new LinkedHashMap<>();
+        columns.put("alpha", new double[] { 1.0, 2.0 });
+        columns.put("beta", new double[] { 1.0 });
+        assertThatThrownBy(() -> {
+            compiledScript.evalDoubleBatch(columns);
+        }).isInstanceOf(ScriptException.class);
+    }
+
+    private static void assertNoAllocation(ScriptAction action) {
+        java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        Assume.assumeTrue(allocationMXBean.isThreadAllocatedMemorySupported());
+        allocationMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        try {
+            for (int i = 0; i < 20000; i++) {
+                action.run();
+            }
+
+            long threadId = Thread.currentThread().getId();
+            int callCount = 10000;
+            long allocatedBefore = allocationMXBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < callCount; i++) {
+                action.run();
+            }
+            long allocatedAfter = allocationMXBean.getThreadAllocatedBytes(threadId);
+
+            // allow for the allocation of the measurement itself, but not for a single byte per call
+            assertThat(allocatedAfter - allocatedBefore).isLessThan(callCount);
+        } catch (ScriptException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private interface ScriptAction {
+        // returns nothing, so that a primitive result is not boxed by the test itself
+        void run() throws ScriptException;
+    }
+
+    @Test
+    public void testWriteBackModeChangedFields() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        engine.setWriteBackMode(WriteBackMode.ChangedFields);
+
+        JavaCompiledScript compiledScript = engine.compile("" +
+                "public class Script {" +
+                "   public String input;" +
+                "   public String output;" +
+                "   public String unchanged = \"Unchanged\";" +
+                "   public int count;" +
+                "   public String getMessage() {" +
+                "       output = \"Hello \" + input;" +
+                "       count++;" +
+                "       return output;" +
+                "   }" +
+                "}");
+        assertThat(compiledScript.getWriteBackMode()).isEqualTo(WriteBackMode.ChangedFields);
+
+        RecordingBindings bindings = new RecordingBindings();
+        bindings.put("input", "World");
+        bindings.put("count", 0);
+        bindings.putNames.clear();
+
+        assertThat(compiledScript.eval(bindings)).isEqualTo("Hello World");
+        assertThat(bindings.putNames).containsExactlyInAnyOrder("output", "count");
+        assertThat(bindings.get("output")).isEqualTo("Hello World");
+        assertThat(bindings.get("count")).isEqualTo(1);
+        assertThat(bindings).doesNotContainKey("unchanged");
+    }
+
+    @Test
+    public void testWriteBackModeAnnotatedFields() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        engine.setWriteBackMode(WriteBackMode.AnnotatedFields);
+
+        JavaCompiledScript compiledScript = engine.compile("" +
+                "public class Script {" +
+                "   public String input;" +
+                "   @ch.obermuhlner.scriptengine.java.bindings.Output" +
+                "   public String output;" +
+                "   public String getMessage() {" +
+                "       input = \"Changed\";" +
+                "       output = \"Hello\";" +
+                "       return output;" +
+                "   }" +
+                "}");
+
+        RecordingBindings bindings = new RecordingBindings();
+        bindings.put("input", "World");
+        bindings.putNames.clear();
+
+        assertThat(compiledScript.eval(bindings)).isEqualTo("Hello");
+        assertThat(bindings.putNames).containsExactly("output");
+        assertThat(bindings.get("input")).isEqualTo("World");
+    }
+
     @Test
     public void testGlobalBindings() throws ScriptException {
         ScriptEngineManager manager = new ScriptEngineManager();
@@ -720,6 +1294,457 @@ public class JavaScriptEngineTest {
         assertThat(result).isEqualTo("Script:-1");
     }
 
+    @Test
+    public void testCompiledScriptCache() throws ScriptException {
+        ScriptEngineManager manager = new ScriptEngineManager();
+        ScriptEngine engine = manager.getEngineByName("java");
+        JavaScriptEngine javaScriptEngine = (JavaScriptEngine) engine;
+
+        CompiledScriptCache cache = new CompiledScriptCache(10);
+        javaScriptEngine.setCompiledScriptCache(cache);
+
+        String script = "" +
+                "public class Script {" +
+                "   public int counter;" +
+                "   public int getValue() {" +
+                "       return counter++;" +
+                "   }" +
+                "}";
+
+        JavaCompiledScript compiledScript1 = javaScriptEngine.compile(script);
+        JavaCompiledScript compiledScript2 = javaScriptEngine.compile(script);
+
+        assertThat(compiledScript2.getCompiledClass()).isSameAs(compiledScript1.getCompiledClass());
+        assertThat(compiledScript2.getCompiledInstance()).isNotSameAs(compiledScript1.getCompiledInstance());
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getWeight()).isGreaterThan(0);
+
+        javaScriptEngine.setCompilationOptions(Arrays.asList("-g:none"));
+        JavaCompiledScript compiledScript3 = javaScriptEngine.compile(script);
+        assertThat(compiledScript3.getCompiledClass()).isNotSameAs(compiledScript1.getCompiledClass());
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void testCompiledScriptCacheSharedInstance() throws ScriptException {
+        ScriptEngineManager manager = new ScriptEngineManager();
+        ScriptEngine engine = manager.getEngineByName("java");
+        JavaScriptEngine javaScriptEngine = (JavaScriptEngine) engine;
+
+        CompiledScriptCache cache = new CompiledScriptCache(10);
+        cache.setInstancePolicy(CacheInstancePolicy.SharedInstance);
+        javaScriptEngine.setCompiledScriptCache(cache);
+
+        String script = "" +
+                "public class Script {" +
+                "   private int counter;" +
+                "   public int getValue() {" +
+                "       return counter++;" +
+                "   }" +
+                "}";
+
+        assertThat(engine.eval(script)).isEqualTo(0);
+        assertThat(engine.eval(script)).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testBytecodeCache() throws ScriptException, IOException {
+        Path directory = Files.createTempDirectory("bytecode-cache");
+        try {
+            String script = "" +
+                    "public class Script {" +
+                    "   public String getMessage() {" +
+                    "       return new Inner().toString();" +
+                    "   }" +
+                    "   private static class Inner {" +
+                    "       public String toString() {" +
+                    "           return \"Hello\";" +
+                    "       }" +
+                    "   }" +
+                    "}";
+
+            DirectoryBytecodeCache bytecodeCache1 = new DirectoryBytecodeCache(directory);
+            JavaScriptEngine engine1 = new JavaScriptEngine();
+            engine1.setBytecodeCache(bytecodeCache1);
+            assertThat(engine1.compile(script).eval()).isEqualTo("Hello");
+            assertThat(bytecodeCache1.getMissCount()).isEqualTo(1);
+
+            // simulates a restart of the application
+            DirectoryBytecodeCache bytecodeCache2 = new DirectoryBytecodeCache(directory);
+            JavaScriptEngine engine2 = new JavaScriptEngine();
+            engine2.setBytecodeCache(bytecodeCache2);
+            assertThat(engine2.compile(script).eval()).isEqualTo("Hello");
+            assertThat(bytecodeCache2.getHitCount()).isEqualTo(1);
+            assertThat(bytecodeCache2.getMissCount()).isEqualTo(0);
+
+            engine2.setIsolation(Isolation.IsolatedClassLoader);
+            assertThat(engine2.compile(script).eval()).isEqualTo("Hello");
+            assertThat(bytecodeCache2.getMissCount()).isEqualTo(1);
+        } finally {
+            new DirectoryBytecodeCache(directory).clear();
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void testCachesChangedDuringCompilation() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        List<String> storedKeys = new ArrayList<>();
+        BytecodeCache bytecodeCache = new BytecodeCache() {
+            @Override
+            public Map<String, byte[]> load(String key) {
+                // disables the caches while the compilation is running
+                engine.setCompiledScriptCache(null);
+                engine.setBytecodeCache(null);
+                return null;
+            }
+
+            @Override
+            public void store(String key, Map<String, byte[]> compiledClasses) {
+                storedKeys.add(key);
+            }
+        };
+
+        engine.setCompiledScriptCache(new CompiledScriptCache(10));
+        engine.setBytecodeCache(bytecodeCache);
+        assertThat(engine.compile("public class Script { public int getValue() { return 1; } }").eval()).isEqualTo(1);
+        assertThat(storedKeys).hasSize(1);
+
+        Map<String, String> scripts = new HashMap<>();
+        scripts.put("a", "public class ScriptA { public int getValue() { return 2; } }");
+        scripts.put("b", "public class ScriptB { public int getValue() { return 3; } }");
+        engine.setCompiledScriptCache(new CompiledScriptCache(10));
+        engine.setBytecodeCache(bytecodeCache);
+        assertThat(engine.compileAll(scripts).get("b").eval()).isEqualTo(3);
+        assertThat(storedKeys).hasSize(3);
+
+        engine.setBytecodeCache(bytecodeCache);
+        engine.put("x", 4);
+        assertThat(engine.compileExpression("x + 1").eval()).isEqualTo(5);
+        assertThat(storedKeys).hasSize(4);
+    }
+
+    @Test
+    public void testFileManagerPool() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        assertThat(engine.getFileManagerPool()).isSameAs(StandardFileManagerPool.getDefault());
+
+        StandardFileManagerPool pool = new StandardFileManagerPool(1);
+        engine.setFileManagerPool(pool);
+
+        assertThat(engine.eval("" +
+                "public class Script {" +
+                "   public int getValue() {" +
+                "       return 1;" +
+                "   }" +
+                "}")).isEqualTo(1);
+        assertThat(engine.eval("" +
+                "public class Script {" +
+                "   public int getValue() {" +
+                "       return 2;" +
+                "   }" +
+                "}")).isEqualTo(2);
+
+        assertThat(pool.getCreatedCount()).isEqualTo(1);
+        assertThat(pool.getReusedCount()).isEqualTo(1);
+        assertThat(pool.getIdleCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testCompileAll() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+
+        Map<String, String> scripts = new LinkedHashMap<>();
+        scripts.put("alpha", "" +
+                "package script;" +
+                "public class Alpha {" +
+                "   public String getMessage() {" +
+                "       return new Inner().toString();" +
+                "   }" +
+                "   private static class Inner {" +
+                "       public String toString() {" +
+                "           return \"Alpha\";" +
+                "       }" +
+                "   }" +
+                "}");
+        scripts.put("beta", "" +
+                "package script;" +
+                "public class Beta {" +
+                "   public String getMessage() {" +
+                "       return \"Beta\" + Alpha.class.getSimpleName();" +
+                "   }" +
+                "}");
+
+        Map<String, JavaCompiledScript> compiledScripts = engine.compileAll(scripts);
+
+        assertThat(compiledScripts).containsOnlyKeys("alpha", "beta");
+        assertThat(compiledScripts.get("alpha").eval()).isEqualTo("Alpha");
+        assertThat(compiledScripts.get("beta").eval()).isEqualTo("BetaAlpha");
+        assertThat(compiledScripts.get("alpha").getCompiledClass().getClassLoader())
+                .isSameAs(compiledScripts.get("beta").getCompiledClass().getClassLoader());
+    }
+
+    @Test
+    public void testCompileAllCached() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        CompiledScriptCache cache = new CompiledScriptCache(10);
+        engine.setCompiledScriptCache(cache);
+
+        String script = "" +
+                "public class Script {" +
+                "   public int getValue() {" +
+                "       return 42;" +
+                "   }" +
+                "}";
+        JavaCompiledScript compiledScript = engine.compile(script);
+
+        Map<String, JavaCompiledScript> compiledScripts = engine.compileAll(Collections.singletonMap("script", script));
+
+        assertThat(compiledScripts.get("script").getCompiledClass()).isSameAs(compiledScript.getCompiledClass());
+        assertThat(cache.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testCompileAllCachedChangedDependency() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        engine.setCompiledScriptCache(new CompiledScriptCache(10));
+
+        String alpha = "" +
+                "public class Alpha {" +
+                "   public String getMessage() {" +
+                "       return \"Alpha\" + Beta.NAME;" +
+                "   }" +
+                "}";
+        Map<String, String> scripts = new LinkedHashMap<>();
+        scripts.put("alpha", alpha);
+        scripts.put("beta", "public class Beta { public static final String NAME = \"Beta1\"; }");
+        assertThat(engine.compileAll(scripts).get("alpha").eval()).isEqualTo("AlphaBeta1");
+        assertThat(engine.compileAll(scripts).get("alpha").eval()).isEqualTo("AlphaBeta1");
+
+        scripts.put("beta", "" +
+                "public class Beta {" +
+                "   public static final String NAME = \"Beta2\";" +
+                "   public String getMessage() {" +
+                "       return new Alpha().getMessage();" +
+                "   }" +
+                "}");
+        Map<String, JavaCompiledScript> compiledScripts = engine.compileAll(scripts);
+
+        assertThat(compiledScripts.get("alpha").eval()).isEqualTo("AlphaBeta2");
+        assertThat(compiledScripts.get("beta").eval()).isEqualTo("AlphaBeta2");
+    }
+
+    @Test
+    public void failCompileAll() {
+        JavaScriptEngine engine = new JavaScriptEngine();
+
+        Map<String, String> scripts = new LinkedHashMap<>();
+        scripts.put("good", "" +
+                "public class Good {" +
+                "   public int getValue() {" +
+                "       return 1;" +
+                "   }" +
+                "}");
+        scripts.put("bad", "" +
+                "public class Bad {" +
+                "   XXX" +
+                "}");
+
+        assertThatThrownBy(() -> {
+            engine.compileAll(scripts);
+        }).isInstanceOfSatisfying(BatchCompilationException.class, e -> {
+            assertThat(e.getFailedScripts()).containsExactly("bad");
+            assertThat(e.getDiagnostics("bad")).isNotEmpty();
+            assertThat(e.getDiagnostics("good")).isEmpty();
+            assertThat(e.getMessage()).startsWith("bad: ");
+        });
+    }
+
+    @Test
+    public void testConcurrentEvalThreadLocalInstance() throws Exception {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        engine.setInstanceStrategyFactory((clazz, compiledInstance, constructorStrategy) -> new ThreadLocalInstanceStrategy(clazz, constructorStrategy));
+        assertConcurrentEval(engine);
+    }
+
+    @Test
+    public void testConcurrentEvalNewInstance() throws Exception {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        engine.setInstanceStrategyFactory((clazz, compiledInstance, constructorStrategy) -> new NewInstanceStrategy(clazz, constructorStrategy));
+        assertConcurrentEval(engine);
+    }
+
+    @Test
+    public void testConcurrentEvalPooledInstance() throws Exception {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        engine.setInstanceStrategyFactory((clazz, compiledInstance, constructorStrategy) -> new PooledInstanceStrategy(clazz, constructorStrategy, 2));
+        assertConcurrentEval(engine);
+    }
+
+    @Test
+    public void testConcurrentEvalStripedInstance() throws Exception {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        engine.setInstanceStrategyFactory((clazz, compiledInstance, constructorStrategy) -> new StripedInstanceStrategy(clazz, constructorStrategy, 2, null));
+        assertConcurrentEval(engine);
+    }
+
+    private void assertConcurrentEval(JavaScriptEngine engine) throws Exception {
+        JavaCompiledScript compiledScript = engine.compile("" +
+                "public class Script {" +
+                "   public int alpha;" +
+                "   public int beta;" +
+                "   public int getResult() {" +
+                "       Thread.yield();" +
+                "       return alpha * 1000 + beta;" +
+                "   }" +
+                "}");
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                int threadIndex = i;
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 500; j++) {
+                        Bindings bindings = engine.createBindings();
+                        bindings.put("alpha", threadIndex);
+                        bindings.put("beta", j);
+                        if (!Integer.valueOf(threadIndex * 1000 + j).equals(compiledScript.eval(bindings))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                assertThat(future.get()).isTrue();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSharedInstanceByDefault() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        JavaCompiledScript compiledScript = engine.compile("" +
+                "public class Script {" +
+                "   public String getResult() {" +
+                "       return String.valueOf(System.identityHashCode(this));" +
+                "   }" +
+                "}");
+
+        assertThat(compiledScript.getInstanceStrategy()).isInstanceOf(SharedInstanceStrategy.class);
+        assertThat(compiledScript.eval()).isEqualTo(String.valueOf(System.identityHashCode(compiledScript.getCompiledInstance())));
+    }
+
+    @Test
+    public void testCompileTo() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+
+        DoubleUnaryOperator function = engine.compileTo("" +
+                "public class Script implements java.util.function.DoubleUnaryOperator {" +
+                "   public double applyAsDouble(double x) {" +
+                "       return x * x + 1;" +
+                "   }" +
+                "}", DoubleUnaryOperator.class);
+
+        assertThat(function.applyAsDouble(3.0)).isEqualTo(10.0);
+    }
+
+    @Test
+    public void testAsDomainInterface() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+
+        JavaCompiledScript compiledScript = engine.compile("" +
+                "public class Script implements ch.obermuhlner.scriptengine.java.JavaScriptEngineTest.PriceRule {" +
+                "   public double price(double base, int quantity) {" +
+                "       return quantity > 10 ? base * quantity * 0.9 : base * quantity;" +
+                "   }" +
+                "}");
+
+        PriceRule rule = compiledScript.as(PriceRule.class);
+        assertThat(rule).isSameAs(compiledScript.getCompiledInstance());
+        assertThat(rule.price(2.0, 5)).isEqualTo(10.0);
+        assertThat(rule.price(2.0, 20)).isEqualTo(36.0);
+    }
+
+    @Test
+    public void testAsFactory() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+
+        JavaCompiledScript compiledScript = engine.compile("" +
+                "public class Script implements java.util.function.IntSupplier {" +
+                "   private int counter;" +
+                "   public int getAsInt() {" +
+                "       return ++counter;" +
+                "   }" +
+                "}");
+
+        InstanceFactory<IntSupplier> factory = compiledScript.asFactory(IntSupplier.class);
+        IntSupplier supplier1 = factory.newInstance();
+        IntSupplier supplier2 = factory.newInstance();
+
+        assertThat(supplier1).isNotSameAs(supplier2);
+        assertThat(supplier1.getAsInt()).isEqualTo(1);
+        assertThat(supplier1.getAsInt()).isEqualTo(2);
+        assertThat(supplier2.getAsInt()).isEqualTo(1);
+    }
+
+    @Test
+    public void failAsNotImplemented() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+
+        JavaCompiledScript compiledScript = engine.compile("" +
+                "public class Script {" +
+                "   public String getMessage() {" +
+                "       return \"Hello\";" +
+                "   }" +
+                "}");
+
+        assertThatThrownBy(() -> {
+            compiledScript.as(DoubleUnaryOperator.class);
+        }).isInstanceOf(ScriptException.class);
+
+        assertThatThrownBy(() -> {
+            compiledScript.asFactory(DoubleUnaryOperator.class);
+        }).isInstanceOf(ScriptException.class);
+    }
+
+    @Test
+    public void failAsWithoutInstance() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        engine.setConstructorStrategy(new NullConstructorStrategy());
+
+        JavaCompiledScript compiledScript = engine.compile("" +
+                "public class Script implements java.util.function.IntSupplier {" +
+                "   public int getAsInt() {" +
+                "       return 42;" +
+                "   }" +
+                "}");
+
+        assertThatThrownBy(() -> {
+            compiledScript.as(IntSupplier.class);
+        }).isInstanceOf(ScriptException.class);
+    }
+
+    public interface PriceRule {
+        double price(double base, int quantity);
+    }
+
+    public static class RecordingBindings extends SimpleBindings {
+        final List<String> putNames = new ArrayList<>();
+
+        @Override
+        public Object put(String name, Object value) {
+            putNames.add(name);
+            return super.put(name, value);
+        }
+    }
+
     public static class PublicClass {
         public String message;
     }
@@ -0,0 +1,134 @@
+package ch.obermuhlner.scriptengine.java;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MemoryClassLoaderTest {
+    @Test
+    public void testLoadClassFromMemory() throws Exception {
+        MemoryClassLoader classLoader = createClassLoader();
+
+        Class<?> clazz = classLoader.loadClass(TestClass.class.getName());
+
+        assertThat(clazz.getClassLoader()).isSameAs(classLoader);
+        assertThat(clazz).isNotSameAs(TestClass.class);
+        assertThat(classLoader.loadClass(TestClass.class.getName())).isSameAs(clazz);
+        assertThat(Class.forName(TestClass.class.getName(), true, classLoader)).isSameAs(clazz);
+    }
+
+    @Test
+    public void testBytecodeReleasedAfterDefinition() throws Exception {
+        MemoryClassLoader classLoader = createClassLoader();
+        assertThat(classLoader.getUndefinedClassCount()).isEqualTo(1);
+        assertThat(classLoader.containsClass(TestClass.class.getName())).isTrue();
+
+        Class<?> clazz = classLoader.loadClass(TestClass.class.getName());
+
+        assertThat(classLoader.getUndefinedClassCount()).isEqualTo(0);
+        assertThat(classLoader.containsClass(TestClass.class.getName())).isTrue();
+        assertThat(classLoader.loadClass(TestClass.class.getName())).isSameAs(clazz);
+    }
+
+    @Test
+    public void testMemoryFileManagerBytes() throws IOException {
+        MemoryFileManager.ClassMemoryJavaFileObject file = new MemoryFileManager.ClassMemoryJavaFileObject(TestClass.class.getName());
+        byte[] bytes = readClassBytes(TestClass.class);
+        try (OutputStream out = file.openOutputStream()) {
+            // the java compiler writes a class file in several chunks
+            int half = bytes.length / 2;
+            out.write(bytes, 0, half);
+            out.write(bytes, half, bytes.length - half);
+        }
+
+        assertThat(file.getBytes()).isEqualTo(bytes);
+    }
+
+    @Test
+    public void testDelegateToParent() throws ClassNotFoundException {
+        MemoryClassLoader classLoader = createClassLoader();
+
+        assertThat(classLoader.loadClass(String.class.getName())).isSameAs(String.class);
+        assertThat(classLoader.loadClass(MemoryClassLoaderTest.class.getName())).isSameAs(MemoryClassLoaderTest.class);
+        assertThatThrownBy(() -> {
+            classLoader.loadClass("does.not.Exist");
+        }).isInstanceOf(ClassNotFoundException.class);
+    }
+
+    @Test
+    public void testConcurrentLoadClass() throws Exception {
+        int threadCount = 8;
+        MemoryClassLoader classLoader = createClassLoader();
+        CyclicBarrier barrier = new CyclicBarrier(threadCount);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<Class<?>>> futures = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                futures.add(executorService.submit(() -> {
+                    barrier.await();
+                    return classLoader.loadClass(TestClass.class.getName());
+                }));
+            }
+
+            Class<?> clazz = futures.get(0).get();
+            for (Future<Class<?>> future : futures) {
+                assertThat(future.get()).isSameAs(clazz);
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelCapable() throws Exception {
+        Method method;
+        try {
+            method = ClassLoader.class.getMethod("isRegisteredAsParallelCapable");
+        } catch (NoSuchMethodException e) {
+            Assume.assumeNoException(e);
+            return;
+        }
+
+        assertThat(method.invoke(createClassLoader())).isEqualTo(true);
+    }
+
+    private static MemoryClassLoader createClassLoader() {
+        Map<String, byte[]> classBytes = Collections.singletonMap(TestClass.class.getName(), readClassBytes(TestClass.class));
+        return new MemoryClassLoader(classBytes, MemoryClassLoaderTest.class.getClassLoader());
+    }
+
+    private static byte[] readClassBytes(Class<?> clazz) {
+        String resourceName = "/" + clazz.getName().replace('.', '/') + ".class";
+        try (InputStream in = clazz.getResourceAsStream(resourceName)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int count;
+            while ((count = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class TestClass {
+    }
+}
@@ -0,0 +1,117 @@
+package ch.obermuhlner.scriptengine.java;
+
+import org.junit.Test;
+
+import javax.script.ScriptException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ScriptGenerationTest {
+    @Test
+    public void testSharedClassLoader() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        ScriptGeneration generation = engine.createGeneration("rules-1");
+
+        JavaCompiledScript compiledScript1 = generation.compile("" +
+                "package rules;" +
+                "public class Alpha {" +
+                "   public String getMessage() {" +
+                "       return \"Alpha\";" +
+                "   }" +
+                "}");
+        JavaCompiledScript compiledScript2 = generation.compile("" +
+                "package rules;" +
+                "public class Beta {" +
+                "   public String getMessage() {" +
+                "       return \"Beta\";" +
+                "   }" +
+                "   public static class Inner {" +
+                "   }" +
+                "}");
+
+        assertThat(compiledScript1.eval()).isEqualTo("Alpha");
+        assertThat(compiledScript2.eval()).isEqualTo("Beta");
+        assertThat(compiledScript1.getCompiledClass().getClassLoader()).isSameAs(generation.getClassLoader());
+        assertThat(compiledScript2.getCompiledClass().getClassLoader()).isSameAs(generation.getClassLoader());
+        assertThat(generation.getCompiledScripts()).containsExactly(compiledScript1, compiledScript2);
+        assertThat(generation.getName()).isEqualTo("rules-1");
+
+        ClassLoaderTracker tracker = engine.getClassLoaderTracker();
+        assertThat(tracker.getLiveClassLoaderCount()).isEqualTo(1);
+        assertThat(tracker.getLiveClassCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void testCompileAll() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        ScriptGeneration generation = engine.createGeneration("rules-1");
+
+        Map<String, String> scripts = new LinkedHashMap<>();
+        scripts.put("alpha", "public class Alpha { public int getValue() { return 1; } }");
+        scripts.put("beta", "public class Beta { public int getValue() { return 2; } }");
+
+        Map<String, JavaCompiledScript> compiledScripts = generation.compileAll(scripts);
+        JavaCompiledScript gamma = generation.compile("public class Gamma { public int getValue() { return 3; } }");
+
+        assertThat(compiledScripts.get("alpha").eval()).isEqualTo(1);
+        assertThat(compiledScripts.get("beta").eval()).isEqualTo(2);
+        assertThat(gamma.eval()).isEqualTo(3);
+        assertThat(compiledScripts.get("alpha").getCompiledClass().getClassLoader()).isSameAs(gamma.getCompiledClass().getClassLoader());
+    }
+
+    @Test
+    public void testClose() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        ScriptGeneration generation = engine.createGeneration("rules-1");
+        JavaCompiledScript compiledScript = generation.compile("public class Alpha { public int getValue() { return 1; } }");
+
+        generation.close();
+
+        assertThat(generation.isClosed()).isTrue();
+        assertThat(compiledScript.isClosed()).isTrue();
+        assertThat(generation.getCompiledScripts()).isEmpty();
+        assertThatThrownBy(() -> {
+            generation.compile("public class Beta {}");
+        }).isInstanceOf(ScriptException.class);
+    }
+
+    @Test
+    public void testGenerationCollected() throws ScriptException, InterruptedException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        ClassLoaderTracker tracker = engine.getClassLoaderTracker();
+
+        compileAndClose(engine);
+        assertThat(tracker.getRegisteredClassLoaderCount()).isEqualTo(1);
+
+        for (int i = 0; i < 100 && tracker.getCollectedClassLoaderCount() < 1; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertThat(tracker.getCollectedClassLoaderCount()).isEqualTo(1);
+        assertThat(tracker.getLiveClassCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void failDuplicateClass() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        ScriptGeneration generation = engine.createGeneration("rules-1");
+        generation.compile("public class Alpha {}");
+
+        assertThatThrownBy(() -> {
+            generation.compile("public class Alpha {}");
+        }).isInstanceOf(ScriptException.class);
+    }
+
+    private static void compileAndClose(JavaScriptEngine engine) throws ScriptException {
+        ScriptGeneration generation = engine.createGeneration("rules-1");
+        for (int i = 0; i < 3; i++) {
+            JavaCompiledScript compiledScript = generation.compile("public class Script" + i + " { public int getValue() { return " + i + "; } }");
+            assertThat(compiledScript.eval()).isEqualTo(i);
+        }
+        generation.close();
+    }
+}
@@ -0,0 +1,72 @@
+package ch.obermuhlner.scriptengine.java.async;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BoundedExecutorTest {
+    @Test
+    public void testRejectWhenFull() throws InterruptedException, ExecutionException {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            BoundedExecutor executor = new BoundedExecutor(executorService, 2);
+            CountDownLatch latch = new CountDownLatch(1);
+
+            CompletableFuture<String> future1 = ScriptExecutors.supplyAsync(() -> { latch.await(); return "1"; }, executor);
+            CompletableFuture<String> future2 = ScriptExecutors.supplyAsync(() -> { latch.await(); return "2"; }, executor);
+            CompletableFuture<String> future3 = ScriptExecutors.supplyAsync(() -> "3", executor);
+
+            assertThat(executor.getPendingCount()).isEqualTo(2);
+            assertThat(future3).isCompletedExceptionally();
+            assertThatThrownBy(future3::get).hasCauseInstanceOf(RejectedExecutionException.class);
+
+            latch.countDown();
+            assertThat(future1.get()).isEqualTo("1");
+            assertThat(future2.get()).isEqualTo("2");
+            while (executor.getPendingCount() > 0) {
+                Thread.sleep(1);
+            }
+
+            assertThat(ScriptExecutors.supplyAsync(() -> "4", executor).get()).isEqualTo("4");
+            assertThat(executor.getExecutedCount()).isEqualTo(3);
+            assertThat(executor.getRejectedCount()).isEqualTo(1);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testExceptionCompletesFuture() {
+        BoundedExecutor executor = ScriptExecutors.newPlatformThreadExecutor(1, 10);
+
+        CompletableFuture<String> future = ScriptExecutors.supplyAsync(() -> {
+            throw new IllegalStateException("failed");
+        }, executor);
+
+        assertThatThrownBy(future::get).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testDefaultExecutor() throws InterruptedException, ExecutionException {
+        BoundedExecutor executor = ScriptExecutors.getDefault();
+        assertThat(executor).isSameAs(ScriptExecutors.getDefault());
+        assertThat(executor.getMaxPending()).isEqualTo(ScriptExecutors.DEFAULT_MAX_PENDING);
+
+        assertThat(ScriptExecutors.supplyAsync(() -> Thread.currentThread().isDaemon(), executor).get()).isTrue();
+    }
+
+    @Test
+    public void failIllegalMaxPending() {
+        assertThatThrownBy(() -> {
+            new BoundedExecutor(Runnable::run, 0);
+        }).isInstanceOf(IllegalArgumentException.class);
+    }
+}
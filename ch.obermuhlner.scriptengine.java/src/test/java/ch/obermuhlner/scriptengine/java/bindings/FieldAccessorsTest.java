@@ -0,0 +1,116 @@
+package ch.obermuhlner.scriptengine.java.bindings;
+
+import org.junit.Test;
+
+import javax.script.ScriptException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FieldAccessorsTest {
+    @Test
+    public void testCached() {
+        assertThat(FieldAccessors.of(TestScript.class)).isSameAs(FieldAccessors.of(TestScript.class));
+    }
+
+    @Test
+    public void testGetSet() throws ScriptException {
+        FieldAccessors accessors = FieldAccessors.of(TestScript.class);
+        TestScript instance = new TestScript();
+
+        int messageIndex = accessors.indexOf("message");
+        int valueIndex = accessors.indexOf("value");
+        assertThat(accessors.getName(messageIndex)).isEqualTo("message");
+        assertThat(accessors.indexOf("hidden")).isEqualTo(-1);
+        assertThat(accessors.indexOf("unknown")).isEqualTo(-1);
+
+        accessors.set(messageIndex, instance, "Hello");
+        accessors.set(valueIndex, instance, 42);
+        assertThat(instance.message).isEqualTo("Hello");
+        assertThat(instance.value).isEqualTo(42.0);
+
+        assertThat(accessors.get(messageIndex, instance)).isEqualTo("Hello");
+        assertThat(accessors.get(valueIndex, instance)).isEqualTo(42.0);
+    }
+
+    @Test
+    public void testStatic() throws ScriptException {
+        FieldAccessors accessors = FieldAccessors.of(TestScript.class);
+        int index = accessors.indexOf("counter");
+
+        accessors.set(index, null, 7);
+        assertThat(TestScript.counter).isEqualTo(7);
+        assertThat(accessors.get(index, new TestScript())).isEqualTo(7);
+    }
+
+    @Test
+    public void testFieldAccessorBindingStrategy() {
+        FieldAccessorBindingStrategy strategy = new FieldAccessorBindingStrategy();
+        TestScript instance = new TestScript();
+
+        Map<String, Object> bindings = new HashMap<>();
+        bindings.put("message", "Hello");
+        bindings.put("unknown", "ignored");
+        strategy.associateBindings(TestScript.class, instance, bindings);
+        assertThat(instance.message).isEqualTo("Hello");
+
+        assertThat(strategy.retrieveBindings(TestScript.class, instance))
+                .containsEntry("message", "Hello")
+                .containsEntry("constant", "Constant")
+                .doesNotContainKey("hidden");
+    }
+
+    @Test
+    public void testSetDouble() throws ScriptException {
+        FieldAccessors accessors = FieldAccessors.of(TestScript.class);
+        TestScript instance = new TestScript();
+
+        accessors.setDouble(accessors.indexOf("value"), instance, 1.5);
+        assertThat(instance.value).isEqualTo(1.5);
+
+        accessors.setDouble(accessors.indexOf("number"), instance, 2.5);
+        assertThat(instance.number).isEqualTo(2.5);
+
+        assertThatThrownBy(() -> {
+            accessors.setDouble(accessors.indexOf("counter"), instance, 3.0);
+        }).isInstanceOf(ScriptException.class);
+
+        assertThatThrownBy(() -> {
+            accessors.setDouble(accessors.indexOf("message"), instance, 3.0);
+        }).isInstanceOf(ScriptException.class);
+    }
+
+    @Test
+    public void failSetFinal() {
+        FieldAccessors accessors = FieldAccessors.of(TestScript.class);
+
+        assertThatThrownBy(() -> {
+            accessors.set(accessors.indexOf("constant"), new TestScript(), "Changed");
+        }).isInstanceOf(ScriptException.class);
+    }
+
+    @Test
+    public void failSetWrongType() {
+        FieldAccessors accessors = FieldAccessors.of(TestScript.class);
+
+        assertThatThrownBy(() -> {
+            accessors.set(accessors.indexOf("message"), new TestScript(), 42);
+        }).isInstanceOf(ScriptException.class);
+
+        assertThatThrownBy(() -> {
+            accessors.set(accessors.indexOf("value"), new TestScript(), null);
+        }).isInstanceOf(ScriptException.class);
+    }
+
+    public static class TestScript {
+        public static int counter;
+
+        public String message;
+        public double value;
+        public Number number;
+        public final String constant = "Constant";
+        private String hidden;
+    }
+}
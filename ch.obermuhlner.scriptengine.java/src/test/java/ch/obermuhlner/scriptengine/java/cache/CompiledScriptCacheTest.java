@@ -0,0 +1,134 @@
+package ch.obermuhlner.scriptengine.java.cache;
+
+import ch.obermuhlner.scriptengine.java.Isolation;
+import ch.obermuhlner.scriptengine.java.MemoryFileManager;
+import ch.obermuhlner.scriptengine.java.constructor.DefaultConstructorStrategy;
+import org.junit.Test;
+
+import javax.script.ScriptException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CompiledScriptCacheTest {
+    @Test
+    public void testKey() throws ScriptException {
+        ClassLoader classLoader = getClass().getClassLoader();
+
+        ScriptCacheKey key1 = key("Script", "public class Script {}", null, Isolation.CallerClassLoader, classLoader);
+        ScriptCacheKey key2 = key("Script", "public class Script {}", null, Isolation.CallerClassLoader, classLoader);
+        assertThat(key1).isEqualTo(key2);
+        assertThat(key1.hashCode()).isEqualTo(key2.hashCode());
+        assertThat(key1.getHash()).hasSize(64);
+
+        assertThat(key("Script", "public class Script { }", null, Isolation.CallerClassLoader, classLoader)).isNotEqualTo(key1);
+        assertThat(key("Script", "public class Script {}", Arrays.asList("-g:none"), Isolation.CallerClassLoader, classLoader)).isNotEqualTo(key1);
+        assertThat(key("Script", "public class Script {}", null, Isolation.IsolatedClassLoader, classLoader)).isNotEqualTo(key1);
+        assertThat(key("Script", "public class Script {}", null, Isolation.CallerClassLoader, null)).isNotEqualTo(key1);
+    }
+
+    @Test
+    public void testHitMiss() throws ScriptException {
+        CompiledScriptCache cache = new CompiledScriptCache(10);
+        ScriptCacheKey key = key("A");
+
+        assertThat(cache.get(key)).isNull();
+        cache.put(key, TestScript.class, 100);
+        assertThat(cache.get(key).getCompiledClass()).isSameAs(TestScript.class);
+
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getWeight()).isEqualTo(100);
+    }
+
+    @Test
+    public void testEvictionByMaxEntries() throws ScriptException {
+        CompiledScriptCache cache = new CompiledScriptCache(2);
+
+        cache.put(key("A"), TestScript.class, 1);
+        cache.put(key("B"), TestScript.class, 1);
+        cache.get(key("A"));
+        cache.put(key("C"), TestScript.class, 1);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(key("A"))).isNotNull();
+        assertThat(cache.get(key("B"))).isNull();
+        assertThat(cache.get(key("C"))).isNotNull();
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testEvictionByMaxWeight() throws ScriptException {
+        CompiledScriptCache cache = new CompiledScriptCache(100, 250);
+
+        cache.put(key("A"), TestScript.class, 100);
+        cache.put(key("B"), TestScript.class, 100);
+        cache.put(key("C"), TestScript.class, 100);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getWeight()).isEqualTo(200);
+        assertThat(cache.get(key("A"))).isNull();
+    }
+
+    @Test
+    public void testInvalidateAndClear() throws ScriptException {
+        CompiledScriptCache cache = new CompiledScriptCache(10);
+
+        cache.put(key("A"), TestScript.class, 10);
+        cache.put(key("B"), TestScript.class, 20);
+
+        cache.invalidate(key("A"));
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getWeight()).isEqualTo(20);
+
+        cache.clear();
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(cache.getWeight()).isEqualTo(0);
+        assertThat(cache.getEvictionCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testInstancePolicy() throws ScriptException {
+        CompiledScriptCache cache = new CompiledScriptCache(10);
+        CompiledScriptCache.Entry entry = cache.put(key("A"), TestScript.class, 10);
+
+        assertThat(cache.getInstancePolicy()).isEqualTo(CacheInstancePolicy.NewInstance);
+        assertThat(entry.getInstance(DefaultConstructorStrategy.byDefaultConstructor()))
+                .isNotSameAs(entry.getInstance(DefaultConstructorStrategy.byDefaultConstructor()));
+
+        cache.setInstancePolicy(CacheInstancePolicy.SharedInstance);
+        assertThat(entry.getInstance(DefaultConstructorStrategy.byDefaultConstructor()))
+                .isSameAs(entry.getInstance(DefaultConstructorStrategy.byDefaultConstructor()));
+    }
+
+    @Test
+    public void failIllegalLimits() {
+        assertThatThrownBy(() -> {
+            new CompiledScriptCache(0);
+        }).isInstanceOf(IllegalArgumentException.class);
+
+        assertThatThrownBy(() -> {
+            new CompiledScriptCache(10, 0);
+        }).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ScriptCacheKey key(String name) throws ScriptException {
+        return key(name, "public class " + name + " {}", null, Isolation.CallerClassLoader, null);
+    }
+
+    private static ScriptCacheKey key(String name, String script, List<String> options, Isolation isolation, ClassLoader classLoader) throws ScriptException {
+        return ScriptCacheKey.of(
+                name,
+                Collections.singletonList(MemoryFileManager.createSourceFileObject(null, name, script)),
+                options,
+                isolation,
+                classLoader);
+    }
+
+    public static class TestScript {
+    }
+}
@@ -0,0 +1,66 @@
+package ch.obermuhlner.scriptengine.java.cache;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DirectoryBytecodeCacheTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testStoreLoad() throws IOException {
+        DirectoryBytecodeCache cache = new DirectoryBytecodeCache(temporaryFolder.getRoot().toPath().resolve("cache"));
+
+        Map<String, byte[]> compiledClasses = new HashMap<>();
+        compiledClasses.put("Script", new byte[] { 1, 2, 3 });
+        compiledClasses.put("Script$Inner", new byte[] { 4, 5 });
+
+        assertThat(cache.load("abc")).isNull();
+        cache.store("abc", compiledClasses);
+
+        Map<String, byte[]> result = cache.load("abc");
+        assertThat(result).containsOnlyKeys("Script", "Script$Inner");
+        assertThat(result.get("Script")).containsExactly(1, 2, 3);
+        assertThat(result.get("Script$Inner")).containsExactly(4, 5);
+
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        assertThat(cache.getFailureCount()).isEqualTo(0);
+
+        DirectoryBytecodeCache otherCache = new DirectoryBytecodeCache(cache.getDirectory());
+        assertThat(otherCache.load("abc")).containsOnlyKeys("Script", "Script$Inner");
+
+        cache.clear();
+        assertThat(cache.load("abc")).isNull();
+    }
+
+    @Test
+    public void testCorruptFile() throws IOException {
+        DirectoryBytecodeCache cache = new DirectoryBytecodeCache(temporaryFolder.getRoot().toPath());
+        Path file = cache.getDirectory().resolve("abc.classes");
+        Files.write(file, new byte[] { 1, 2, 3 });
+
+        assertThat(cache.load("abc")).isNull();
+        assertThat(cache.getFailureCount()).isEqualTo(1);
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    public void failIllegalKey() throws IOException {
+        DirectoryBytecodeCache cache = new DirectoryBytecodeCache(temporaryFolder.getRoot().toPath());
+
+        assertThatThrownBy(() -> {
+            cache.load("../abc");
+        }).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,122 @@
+package ch.obermuhlner.scriptengine.java.compilation;
+
+import ch.obermuhlner.scriptengine.java.JavaCompiledScript;
+import ch.obermuhlner.scriptengine.java.JavaScriptEngine;
+import org.junit.Test;
+
+import javax.script.ScriptException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ParallelCompilerTest {
+    @Test
+    public void testCompile() throws ScriptException {
+        Map<String, String> scripts = new LinkedHashMap<>();
+        for (int i = 0; i < 10; i++) {
+            scripts.put("script" + i, "" +
+                    "public class Script" + i + " {" +
+                    "   public int getValue() {" +
+                    "       return " + i + ";" +
+                    "   }" +
+                    "}");
+        }
+
+        ParallelCompiler compiler = new ParallelCompiler(new JavaScriptEngine(), 3);
+        AtomicInteger progressCount = new AtomicInteger();
+        compiler.setProgressListener((partition, completedPartitions, totalPartitions) -> {
+            progressCount.incrementAndGet();
+            assertThat(totalPartitions).isEqualTo(3);
+            assertThat(completedPartitions).isBetween(1, 3);
+        });
+
+        ParallelCompilationResult result = compiler.compile(scripts);
+
+        assertThat(result.isSuccessful()).isTrue();
+        assertThat(result.getFailedScripts()).isEmpty();
+        assertThat(result.getPartitions()).hasSize(3);
+        assertThat(progressCount.get()).isEqualTo(3);
+        assertThat(result.getCompiledScripts().keySet()).containsExactlyElementsOf(scripts.keySet());
+        for (int i = 0; i < 10; i++) {
+            assertThat(result.getCompiledScripts().get("script" + i).eval()).isEqualTo(i);
+        }
+    }
+
+    @Test
+    public void testCompileDependencies() throws ScriptException {
+        Map<String, String> scripts = new LinkedHashMap<>();
+        scripts.put("alpha", "" +
+                "public class Alpha {" +
+                "   public String getMessage() {" +
+                "       return \"Alpha\";" +
+                "   }" +
+                "}");
+        scripts.put("beta", "" +
+                "public class Beta {" +
+                "   public String getMessage() {" +
+                "       return new Alpha().getMessage() + \"Beta\";" +
+                "   }" +
+                "}");
+        scripts.put("gamma", "" +
+                "public class Gamma {" +
+                "   public String getMessage() {" +
+                "       return \"Gamma\";" +
+                "   }" +
+                "}");
+
+        ParallelCompiler compiler = new ParallelCompiler(new JavaScriptEngine(), 3);
+        ParallelCompilationResult result = compiler.compile(scripts, Collections.singletonMap("beta", Collections.singletonList("alpha")));
+
+        assertThat(result.isSuccessful()).isTrue();
+        assertThat(result.getPartitions()).hasSize(2);
+        Map<String, JavaCompiledScript> compiledScripts = result.getCompiledScripts();
+        assertThat(compiledScripts.get("beta").eval()).isEqualTo("AlphaBeta");
+        assertThat(compiledScripts.get("gamma").eval()).isEqualTo("Gamma");
+        assertThat(compiledScripts.get("beta").getCompiledClass().getClassLoader())
+                .isSameAs(compiledScripts.get("alpha").getCompiledClass().getClassLoader());
+    }
+
+    @Test
+    public void testPartition() {
+        Map<String, String> scripts = new LinkedHashMap<>();
+        scripts.put("a", "xxxxxxxxxx");
+        scripts.put("b", "xxxxx");
+        scripts.put("c", "xxxxx");
+        scripts.put("d", "xxxxxxxxxx");
+
+        List<List<String>> partitions = ParallelCompiler.partition(scripts, Collections.singletonMap("a", Arrays.asList("d")), 2);
+
+        assertThat(partitions).hasSize(2);
+        assertThat(partitions.get(0)).containsExactlyInAnyOrder("a", "d");
+        assertThat(partitions.get(1)).containsExactlyInAnyOrder("b", "c");
+    }
+
+    @Test
+    public void testCompileFailure() throws ScriptException {
+        Map<String, String> scripts = new LinkedHashMap<>();
+        scripts.put("good", "public class Good { public int getValue() { return 1; } }");
+        scripts.put("bad", "public class Bad { this does not compile }");
+
+        ParallelCompiler compiler = new ParallelCompiler(new JavaScriptEngine(), 2);
+        ParallelCompilationResult result = compiler.compile(scripts);
+
+        assertThat(result.isSuccessful()).isFalse();
+        assertThat(result.getFailedScripts()).containsExactly("bad");
+        assertThat(result.getCompiledScripts()).containsOnlyKeys("good");
+    }
+
+    @Test
+    public void failUnknownDependency() {
+        assertThatThrownBy(() -> {
+            new ParallelCompiler(new JavaScriptEngine(), 2).compile(
+                    Collections.singletonMap("alpha", "public class Alpha {}"),
+                    Collections.singletonMap("alpha", Collections.singletonList("unknown")));
+        }).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,70 @@
+package ch.obermuhlner.scriptengine.java.compilation;
+
+import org.junit.Test;
+
+import javax.tools.StandardJavaFileManager;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class StandardFileManagerPoolTest {
+    @Test
+    public void testReuse() {
+        StandardFileManagerPool pool = new StandardFileManagerPool(2);
+
+        StandardJavaFileManager fileManager1 = pool.borrow(null);
+        pool.release(fileManager1, null);
+        StandardJavaFileManager fileManager2 = pool.borrow(null);
+
+        assertThat(fileManager2).isSameAs(fileManager1);
+        assertThat(pool.getCreatedCount()).isEqualTo(1);
+        assertThat(pool.getReusedCount()).isEqualTo(1);
+        assertThat(pool.getIdleCount()).isEqualTo(0);
+
+        pool.release(fileManager2, null);
+        assertThat(pool.getIdleCount()).isEqualTo(1);
+
+        pool.clear();
+        assertThat(pool.getIdleCount()).isEqualTo(0);
+        assertThat(pool.getClosedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testReuseOnlyWithSameOptions() {
+        StandardFileManagerPool pool = new StandardFileManagerPool(2);
+        List<String> options = Arrays.asList("-g:none");
+
+        StandardJavaFileManager fileManager1 = pool.borrow(options);
+        pool.release(fileManager1, options);
+
+        StandardJavaFileManager fileManager2 = pool.borrow(null);
+        assertThat(fileManager2).isNotSameAs(fileManager1);
+
+        StandardJavaFileManager fileManager3 = pool.borrow(Arrays.asList("-g:none"));
+        assertThat(fileManager3).isSameAs(fileManager1);
+        assertThat(pool.getCreatedCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testMaxIdle() {
+        StandardFileManagerPool pool = new StandardFileManagerPool(1);
+
+        StandardJavaFileManager fileManager1 = pool.borrow(null);
+        StandardJavaFileManager fileManager2 = pool.borrow(null);
+        pool.release(fileManager1, null);
+        pool.release(fileManager2, null);
+
+        assertThat(pool.getMaxIdle()).isEqualTo(1);
+        assertThat(pool.getIdleCount()).isEqualTo(1);
+        assertThat(pool.getClosedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void failIllegalMaxIdle() {
+        assertThatThrownBy(() -> {
+            new StandardFileManagerPool(-1);
+        }).isInstanceOf(IllegalArgumentException.class);
+    }
+}
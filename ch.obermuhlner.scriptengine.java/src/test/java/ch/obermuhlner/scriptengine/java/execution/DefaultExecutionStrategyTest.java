@@ -3,6 +3,10 @@ package ch.obermuhlner.scriptengine.java.execution;
 import org.junit.Test;
 
 import javax.script.ScriptException;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -36,6 +40,31 @@ public class DefaultExecutionStrategyTest {
         assertThat(result).isEqualTo("Supplier");
     }
 
+    @Test
+    public void testPrimitiveSupplierDefaultExecution() throws ScriptException {
+        assertThat(new DefaultExecutionStrategy(TestDoubleSupplierExecution.class).executeDouble(new TestDoubleSupplierExecution())).isEqualTo(1.5);
+        assertThat(new DefaultExecutionStrategy(TestIntSupplierExecution.class).executeInt(new TestIntSupplierExecution())).isEqualTo(2);
+        assertThat(new DefaultExecutionStrategy(TestLongSupplierExecution.class).executeLong(new TestLongSupplierExecution())).isEqualTo(3L);
+        assertThat(new DefaultExecutionStrategy(TestBooleanSupplierExecution.class).executeBoolean(new TestBooleanSupplierExecution())).isTrue();
+
+        assertThat(new DefaultExecutionStrategy(TestDoubleSupplierExecution.class).execute(new TestDoubleSupplierExecution())).isEqualTo(1.5);
+        assertThat(new DefaultExecutionStrategy(TestBooleanSupplierExecution.class).execute(new TestBooleanSupplierExecution())).isEqualTo(true);
+    }
+
+    @Test
+    public void testPrimitiveConversionDefaultExecution() throws ScriptException {
+        assertThat(new DefaultExecutionStrategy(TestIntSupplierExecution.class).executeDouble(new TestIntSupplierExecution())).isEqualTo(2.0);
+        assertThat(new DefaultExecutionStrategy(TestDoubleSupplierExecution.class).executeLong(new TestDoubleSupplierExecution())).isEqualTo(1L);
+
+        DefaultExecutionStrategy executionStrategy = new DefaultExecutionStrategy(TestSupplierExecution.class);
+        assertThatThrownBy(() -> {
+            executionStrategy.executeDouble(new TestSupplierExecution());
+        }).isInstanceOf(ScriptException.class);
+        assertThatThrownBy(() -> {
+            executionStrategy.executeBoolean(new TestSupplierExecution());
+        }).isInstanceOf(ScriptException.class);
+    }
+
     @Test
     public void testRunnableDefaultExecution() throws ScriptException {
         DefaultExecutionStrategy executionStrategy = new DefaultExecutionStrategy(TestRunnableExecution.class);
@@ -105,6 +134,34 @@ public class DefaultExecutionStrategyTest {
         }
     }
 
+    public static class TestDoubleSupplierExecution implements DoubleSupplier {
+        @Override
+        public double getAsDouble() {
+            return 1.5;
+        }
+    }
+
+    public static class TestIntSupplierExecution implements IntSupplier {
+        @Override
+        public int getAsInt() {
+            return 2;
+        }
+    }
+
+    public static class TestLongSupplierExecution implements LongSupplier {
+        @Override
+        public long getAsLong() {
+            return 3L;
+        }
+    }
+
+    public static class TestBooleanSupplierExecution implements BooleanSupplier {
+        @Override
+        public boolean getAsBoolean() {
+            return true;
+        }
+    }
+
     public static class TestRunnableExecution implements Runnable {
         public int counter = 0;
         @Override
@@ -94,7 +94,46 @@ public class MethodExecutionStrategyTest {
         }).isInstanceOf(ScriptException.class);
     }
 
+    @Test
+    public void testThrowExceptionCause() throws NoSuchMethodException {
+        Method method = TestMethod.class.getMethod("throwException");
+        MethodExecutionStrategy methodExecutionStrategy = MethodExecutionStrategy.byMethod(method);
+        TestMethod instance = new TestMethod();
+        assertThatThrownBy(() -> {
+            methodExecutionStrategy.execute(instance);
+        }).hasRootCauseInstanceOf(RuntimeException.class).hasStackTraceContaining("some reason");
+    }
+
+    @Test
+    public void testByMainMethod() throws ScriptException {
+        MethodExecutionStrategy methodExecutionStrategy = MethodExecutionStrategy.byMainMethod(TestMainMethod.class, "Hello", "World");
+        Object result = methodExecutionStrategy.execute(null);
+        assertThat(result).isNull();
+        assertThat(TestMainMethod.lastArgs).containsExactly("Hello", "World");
+    }
+
+    @Test
+    public void testStaticMethod() throws ScriptException {
+        MethodExecutionStrategy methodExecutionStrategy = MethodExecutionStrategy.byMatchingArguments(
+                TestMethod.class,
+                "doStatic",
+                2, 3.5);
+        Object result = methodExecutionStrategy.execute(null);
+        assertThat(result).isEqualTo(5.5);
+    }
+
+    public static class TestMainMethod {
+        static String[] lastArgs;
+
+        public static void main(String[] args) {
+            lastArgs = args;
+        }
+    }
+
     public static class TestMethod {
+        public static double doStatic(int a, double b) {
+            return a + b;
+        }
         public String doSomething(String text, int value) {
             return "doSomething(" + text + "," + value + ")";
         }
@@ -0,0 +1,132 @@
+package ch.obermuhlner.scriptengine.java.instance;
+
+import ch.obermuhlner.scriptengine.java.constructor.DefaultConstructorStrategy;
+import org.junit.Test;
+
+import javax.script.ScriptException;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InstanceStrategyTest {
+    @Test
+    public void testSharedInstance() throws ScriptException {
+        TestScript instance = new TestScript();
+        InstanceStrategy strategy = new SharedInstanceStrategy(instance);
+
+        assertThat(strategy.acquire()).isSameAs(instance);
+        assertThat(strategy.acquire()).isSameAs(instance);
+    }
+
+    @Test
+    public void testNewInstance() throws ScriptException {
+        InstanceStrategy strategy = new NewInstanceStrategy(TestScript.class, DefaultConstructorStrategy.byDefaultConstructor());
+
+        Object instance1 = strategy.acquire();
+        strategy.release(instance1);
+        Object instance2 = strategy.acquire();
+
+        assertThat(instance1).isInstanceOf(TestScript.class);
+        assertThat(instance2).isNotSameAs(instance1);
+    }
+
+    @Test
+    public void testThreadLocalInstance() throws Exception {
+        InstanceStrategy strategy = new ThreadLocalInstanceStrategy(TestScript.class, DefaultConstructorStrategy.byDefaultConstructor());
+
+        Object instance1 = strategy.acquire();
+        strategy.release(instance1);
+        Object instance2 = strategy.acquire();
+        strategy.release(instance2);
+        assertThat(instance2).isSameAs(instance1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Object otherThreadInstance = executor.submit(() -> {
+                Object instance = strategy.acquire();
+                strategy.release(instance);
+                return instance;
+            }).get();
+            assertThat(otherThreadInstance).isNotSameAs(instance1);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testThreadLocalInstanceReentrant() throws ScriptException {
+        InstanceStrategy strategy = new ThreadLocalInstanceStrategy(TestScript.class, DefaultConstructorStrategy.byDefaultConstructor());
+
+        Object outer = strategy.acquire();
+        Object inner = strategy.acquire();
+        assertThat(inner).isNotSameAs(outer);
+        strategy.release(inner);
+        strategy.release(outer);
+
+        assertThat(strategy.acquire()).isSameAs(outer);
+    }
+
+    @Test
+    public void testThreadLocalInstanceClose() throws Exception {
+        ThreadLocalInstanceStrategy strategy = new ThreadLocalInstanceStrategy(TestScript.class, DefaultConstructorStrategy.byDefaultConstructor());
+
+        Object instance = strategy.acquire();
+        strategy.release(instance);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> {
+                strategy.release(strategy.acquire());
+                return null;
+            }).get();
+            assertThat(strategy.getInstanceCount()).isEqualTo(2);
+
+            strategy.close();
+            assertThat(strategy.getInstanceCount()).isEqualTo(0);
+
+            Object otherThreadInstance = executor.submit(() -> {
+                Object closedInstance = strategy.acquire();
+                strategy.release(closedInstance);
+                return closedInstance;
+            }).get();
+            assertThat(otherThreadInstance).isInstanceOf(TestScript.class);
+            assertThat(strategy.getInstanceCount()).isEqualTo(0);
+        } finally {
+            executor.shutdown();
+        }
+
+        Object closedInstance = strategy.acquire();
+        strategy.release(closedInstance);
+        assertThat(closedInstance).isNotSameAs(instance);
+        assertThat(strategy.acquire()).isNotSameAs(closedInstance);
+    }
+
+    @Test
+    public void testThreadLocalInstanceClosedDuringConstruction() throws Exception {
+        ThreadLocalInstanceStrategy[] strategy = new ThreadLocalInstanceStrategy[1];
+        strategy[0] = new ThreadLocalInstanceStrategy(TestScript.class, clazz -> {
+            strategy[0].close();
+            return new TestScript();
+        });
+
+        WeakReference<Object> instance = acquireAndRelease(strategy[0]);
+
+        for (int i = 0; i < 100 && instance.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(instance.get()).isNull();
+        assertThat(strategy[0].getInstanceCount()).isEqualTo(0);
+    }
+
+    private static WeakReference<Object> acquireAndRelease(InstanceStrategy strategy) throws ScriptException {
+        Object instance = strategy.acquire();
+        strategy.release(instance);
+        return new WeakReference<>(instance);
+    }
+
+    public static class TestScript {
+    }
+}
@@ -0,0 +1,117 @@
+package ch.obermuhlner.scriptengine.java.instance;
+
+import ch.obermuhlner.scriptengine.java.constructor.DefaultConstructorStrategy;
+import ch.obermuhlner.scriptengine.java.constructor.NullConstructorStrategy;
+import org.junit.Test;
+
+import javax.script.ScriptException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PooledInstanceStrategyTest {
+    @Test
+    public void testReuse() throws ScriptException {
+        PooledInstanceStrategy strategy = new PooledInstanceStrategy(TestScript.class, DefaultConstructorStrategy.byDefaultConstructor(), 2);
+
+        Object instance1 = strategy.acquire();
+        Object instance2 = strategy.acquire();
+        assertThat(instance2).isNotSameAs(instance1);
+        strategy.release(instance1);
+        assertThat(strategy.acquire()).isSameAs(instance1);
+
+        assertThat(strategy.getMaxSize()).isEqualTo(2);
+        assertThat(strategy.getSize()).isEqualTo(2);
+        assertThat(strategy.getIdleCount()).isEqualTo(0);
+        assertThat(strategy.getCreatedCount()).isEqualTo(2);
+        assertThat(strategy.getBorrowCount()).isEqualTo(3);
+        assertThat(strategy.getWaitCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testWaitForInstance() throws Exception {
+        PooledInstanceStrategy strategy = new PooledInstanceStrategy(TestScript.class, DefaultConstructorStrategy.byDefaultConstructor(), 1);
+        Object instance = strategy.acquire();
+
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                // ignore
+            }
+            strategy.release(instance);
+        });
+        releaser.start();
+
+        assertThat(strategy.acquire()).isSameAs(instance);
+        releaser.join();
+
+        assertThat(strategy.getWaitCount()).isEqualTo(1);
+        assertThat(strategy.getTotalWaitNanos()).isGreaterThan(0);
+        assertThat(strategy.getMaxWaitNanos()).isEqualTo(strategy.getTotalWaitNanos());
+    }
+
+    @Test
+    public void testReset() throws ScriptException {
+        PooledInstanceStrategy strategy = new PooledInstanceStrategy(TestScript.class, DefaultConstructorStrategy.byDefaultConstructor(), 1, 1, TimeUnit.SECONDS, "reset");
+
+        TestScript instance = (TestScript) strategy.acquire();
+        instance.value = 42;
+        strategy.release(instance);
+
+        assertThat(strategy.acquire()).isSameAs(instance);
+        assertThat(instance.value).isEqualTo(0);
+    }
+
+    @Test
+    public void testResetFailureDiscardsInstance() throws ScriptException {
+        PooledInstanceStrategy strategy = new PooledInstanceStrategy(TestScript.class, DefaultConstructorStrategy.byDefaultConstructor(), 1, 1, TimeUnit.SECONDS, "reset");
+
+        TestScript instance = (TestScript) strategy.acquire();
+        instance.value = -1;
+        strategy.release(instance);
+
+        assertThat(strategy.getDiscardedCount()).isEqualTo(1);
+        assertThat(strategy.getSize()).isEqualTo(0);
+        assertThat(strategy.acquire()).isNotSameAs(instance);
+    }
+
+    @Test
+    public void failTimeout() throws ScriptException {
+        PooledInstanceStrategy strategy = new PooledInstanceStrategy(TestScript.class, DefaultConstructorStrategy.byDefaultConstructor(), 1, 10, TimeUnit.MILLISECONDS, null);
+        strategy.acquire();
+
+        assertThatThrownBy(() -> {
+            strategy.acquire();
+        }).isInstanceOf(ScriptException.class);
+    }
+
+    @Test
+    public void failUnknownResetMethod() {
+        assertThatThrownBy(() -> {
+            new PooledInstanceStrategy(TestScript.class, DefaultConstructorStrategy.byDefaultConstructor(), 1, 1, TimeUnit.SECONDS, "unknown");
+        }).isInstanceOf(ScriptException.class);
+    }
+
+    @Test
+    public void failNullInstance() {
+        PooledInstanceStrategy strategy = new PooledInstanceStrategy(TestScript.class, new NullConstructorStrategy(), 1);
+
+        assertThatThrownBy(() -> {
+            strategy.acquire();
+        }).isInstanceOf(ScriptException.class);
+        assertThat(strategy.getSize()).isEqualTo(0);
+    }
+
+    public static class TestScript {
+        public int value;
+
+        public void reset() {
+            if (value < 0) {
+                throw new IllegalStateException("Cannot reset");
+            }
+            value = 0;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package ch.obermuhlner.scriptengine.java.instance;
+
+import ch.obermuhlner.scriptengine.java.constructor.DefaultConstructorStrategy;
+import org.junit.Test;
+
+import javax.script.ScriptException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StripedInstanceStrategyTest {
+    @Test
+    public void testStripes() throws ScriptException {
+        StripedInstanceStrategy strategy = new StripedInstanceStrategy(PooledInstanceStrategyTest.TestScript.class, DefaultConstructorStrategy.byDefaultConstructor(), 2, null);
+
+        Object instance1 = strategy.acquire();
+        Object instance2 = strategy.acquire();
+        assertThat(instance2).isNotSameAs(instance1);
+
+        strategy.release(instance1);
+        strategy.release(instance2);
+        Object instance3 = strategy.acquire();
+        assertThat(instance3).isIn(instance1, instance2);
+
+        assertThat(strategy.getStripeCount()).isEqualTo(2);
+        assertThat(strategy.getCreatedCount()).isEqualTo(2);
+        assertThat(strategy.getBorrowCount()).isEqualTo(3);
+        assertThat(strategy.getWaitCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testReset() throws ScriptException {
+        StripedInstanceStrategy strategy = new StripedInstanceStrategy(PooledInstanceStrategyTest.TestScript.class, DefaultConstructorStrategy.byDefaultConstructor(), 1, "reset");
+
+        PooledInstanceStrategyTest.TestScript instance = (PooledInstanceStrategyTest.TestScript) strategy.acquire();
+        instance.value = 42;
+        strategy.release(instance);
+        assertThat(strategy.acquire()).isSameAs(instance);
+        assertThat(instance.value).isEqualTo(0);
+
+        instance.value = -1;
+        strategy.release(instance);
+        assertThat(strategy.acquire()).isNotSameAs(instance);
+        assertThat(strategy.getCreatedCount()).isEqualTo(2);
+    }
+}
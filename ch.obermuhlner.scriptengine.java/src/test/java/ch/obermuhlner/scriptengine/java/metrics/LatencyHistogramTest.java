@@ -0,0 +1,71 @@
+package ch.obermuhlner.scriptengine.java.metrics;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LatencyHistogramTest {
+    @Test
+    public void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertThat(histogram.getCount()).isEqualTo(0);
+        assertThat(histogram.getMeanNanos()).isEqualTo(0);
+        assertThat(histogram.getMaxNanos()).isEqualTo(0);
+        assertThat(histogram.getPercentileNanos(99)).isEqualTo(0);
+    }
+
+    @Test
+    public void testRecord() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(1000);
+        assertThat(histogram.getTotalNanos()).isEqualTo(500500000L);
+        assertThat(histogram.getMeanNanos()).isEqualTo(500500L);
+        assertThat(histogram.getMaxNanos()).isEqualTo(1000000L);
+        assertThat(histogram.getPercentileNanos(50)).isBetween(500000L, 562500L);
+        assertThat(histogram.getPercentileNanos(99)).isBetween(990000L, 1000000L);
+        assertThat(histogram.getPercentileNanos(100)).isEqualTo(1000000L);
+        assertThat(histogram.getPercentileNanos(0)).isBetween(1000L, 1125L);
+    }
+
+    @Test
+    public void testReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(42);
+        histogram.record(-1);
+
+        assertThat(histogram.getCount()).isEqualTo(2);
+        assertThat(histogram.getPercentileNanos(50)).isEqualTo(0);
+
+        histogram.reset();
+
+        assertThat(histogram.getCount()).isEqualTo(0);
+        assertThat(histogram.getMaxNanos()).isEqualTo(0);
+        assertThat(histogram.getPercentileNanos(50)).isEqualTo(0);
+    }
+
+    @Test
+    public void testBuckets() {
+        for (long value : new long[] { 0, 1, 7, 8, 9, 15, 16, 17, 1000, 123456789, Long.MAX_VALUE }) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertThat(LatencyHistogram.bucketUpperBound(index)).isGreaterThanOrEqualTo(value);
+            if (index > 0) {
+                assertThat(LatencyHistogram.bucketUpperBound(index - 1)).isLessThan(value);
+            }
+        }
+    }
+
+    @Test
+    public void failPercentile() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertThatThrownBy(() -> {
+            histogram.getPercentileNanos(101);
+        }).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,160 @@
+package ch.obermuhlner.scriptengine.java.metrics;
+
+import ch.obermuhlner.scriptengine.java.JavaCompiledScript;
+import ch.obermuhlner.scriptengine.java.JavaScriptEngine;
+import ch.obermuhlner.scriptengine.java.cache.CompiledScriptCache;
+import org.junit.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.script.Bindings;
+import javax.script.ScriptException;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ScriptEngineMetricsTest {
+    private static final String SCRIPT_ALPHA_TIMES_BETA = "" +
+            "public class Script implements java.util.function.DoubleSupplier {" +
+            "   public double alpha;" +
+            "   public double beta;" +
+            "   public double getAsDouble() {" +
+            "       return alpha * beta;" +
+            "   }" +
+            "}";
+
+    @Test
+    public void testCompileAndEval() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        engine.setCompiledScriptCache(new CompiledScriptCache(10));
+        ScriptEngineMetrics metrics = new ScriptEngineMetrics(engine.getClassLoaderTracker());
+        engine.setMetricsListener(metrics);
+
+        JavaCompiledScript compiledScript = engine.compile(SCRIPT_ALPHA_TIMES_BETA);
+        engine.compile(SCRIPT_ALPHA_TIMES_BETA);
+
+        Bindings bindings = engine.createBindings();
+        bindings.put("alpha", 2.0);
+        bindings.put("beta", 3.0);
+        assertThat(compiledScript.eval(bindings)).isEqualTo(6.0);
+        assertThat(compiledScript.evalDouble(bindings)).isEqualTo(6.0);
+
+        assertThat(metrics.getCompilationCount()).isEqualTo(2);
+        assertThat(metrics.getCacheHitCount()).isEqualTo(1);
+        assertThat(metrics.getCompilationFailureCount()).isEqualTo(0);
+        assertThat(metrics.getCompilationMaxNanos()).isGreaterThan(0);
+        assertThat(metrics.getEvaluationCount()).isEqualTo(2);
+        assertThat(metrics.getEvaluationFailureCount()).isEqualTo(0);
+        assertThat(metrics.getEvaluation50thPercentileNanos()).isLessThanOrEqualTo(metrics.getEvaluationMaxNanos());
+
+        assertThat(metrics.getPhaseCounts())
+                .containsEntry("Interception", 2L)
+                .containsEntry("NameResolution", 2L)
+                .containsEntry("Compilation", 1L)
+                .containsEntry("ClassLoading", 1L)
+                .containsEntry("Construction", 2L)
+                .containsEntry("Push", 2L)
+                .containsEntry("Execution", 2L)
+                .containsEntry("Pull", 2L);
+        assertThat(metrics.getPhaseHistogram(MetricsPhase.Compilation).getTotalNanos()).isGreaterThan(0);
+
+        assertThat(metrics.getLiveClassLoaderCount()).isEqualTo(1);
+        assertThat(metrics.getLiveClassCount()).isEqualTo(1);
+        assertThat(metrics.getLiveBytecodeSize()).isGreaterThan(0);
+        assertThat(metrics.getEstimatedMetaspaceSize()).isGreaterThan(metrics.getLiveBytecodeSize());
+
+        metrics.reset();
+
+        assertThat(metrics.getCompilationCount()).isEqualTo(0);
+        assertThat(metrics.getEvaluationCount()).isEqualTo(0);
+        assertThat(metrics.getPhaseCounts()).containsEntry("Compilation", 0L);
+        assertThat(metrics.getLiveClassCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testFailures() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        ScriptEngineMetrics metrics = new ScriptEngineMetrics(null);
+        engine.setMetricsListener(metrics);
+
+        assertThatThrownBy(() -> {
+            engine.compile("public class Script { public int getValue() { return unknown; } }");
+        }).isInstanceOf(ScriptException.class);
+
+        JavaCompiledScript compiledScript = engine.compile("public class Script { public int getValue() { throw new IllegalStateException(); } }");
+        assertThatThrownBy(() -> {
+            compiledScript.eval();
+        }).isInstanceOf(ScriptException.class);
+
+        assertThat(metrics.getCompilationCount()).isEqualTo(1);
+        assertThat(metrics.getCompilationFailureCount()).isEqualTo(1);
+        assertThat(metrics.getDiagnosticCount()).isEqualTo(1);
+        assertThat(metrics.getEvaluationCount()).isEqualTo(0);
+        assertThat(metrics.getEvaluationFailureCount()).isEqualTo(1);
+        assertThat(metrics.getLiveClassCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testBatchCompilation() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        engine.setCompiledScriptCache(new CompiledScriptCache(10));
+        ScriptEngineMetrics metrics = new ScriptEngineMetrics(null);
+        engine.setMetricsListener(metrics);
+
+        Map<String, String> scripts = new LinkedHashMap<>();
+        scripts.put("alpha", "public class Alpha { public int getValue() { return 1; } }");
+        scripts.put("beta", "public class Beta { public int getValue() { return 2; } }");
+        engine.compileAll(scripts);
+        engine.compileAll(scripts);
+
+        engine.put("x", 1);
+        engine.compileExpressions(Collections.singletonMap("increment", "x + 1"));
+        assertThatThrownBy(() -> {
+            engine.compileExpression("x + unknown");
+        }).isInstanceOf(ScriptException.class);
+
+        assertThat(metrics.getCompilationCount()).isEqualTo(3);
+        assertThat(metrics.getCacheHitCount()).isEqualTo(1);
+        assertThat(metrics.getCompilationFailureCount()).isEqualTo(1);
+        assertThat(metrics.getPhaseCounts()).containsEntry("Compilation", 2L);
+    }
+
+    @Test
+    public void testRegisterJmx() throws ScriptException, JMException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        ScriptEngineMetrics metrics = ScriptEngineMetrics.register(engine, "test-engine");
+        try {
+            assertThat(engine.getMetricsListener()).isSameAs(metrics);
+
+            engine.eval("public class Script { public int getValue() { return 1; } }");
+
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = metrics.getObjectName();
+            assertThat(objectName.getDomain()).isEqualTo(ScriptEngineMetrics.JMX_DOMAIN);
+            assertThat(server.getAttribute(objectName, "CompilationCount")).isEqualTo(1L);
+            assertThat(server.getAttribute(objectName, "EvaluationCount")).isEqualTo(1L);
+            assertThat(server.getAttribute(objectName, "LiveClassLoaderCount")).isEqualTo(1L);
+            assertThat(server.getAttribute(objectName, "PhaseCounts")).isNotNull();
+
+            server.invoke(objectName, "reset", new Object[0], new String[0]);
+            assertThat(server.getAttribute(objectName, "CompilationCount")).isEqualTo(0L);
+        } finally {
+            metrics.unregister();
+        }
+
+        assertThat(metrics.getObjectName()).isNull();
+    }
+
+    @Test
+    public void testDisabled() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+
+        assertThat(engine.getMetricsListener()).isNull();
+        assertThat(engine.eval("public class Script { public int getValue() { return 1; } }")).isEqualTo(1);
+    }
+}
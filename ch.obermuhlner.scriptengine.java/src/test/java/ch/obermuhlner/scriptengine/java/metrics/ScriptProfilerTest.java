@@ -0,0 +1,117 @@
+package ch.obermuhlner.scriptengine.java.metrics;
+
+import ch.obermuhlner.scriptengine.java.JavaCompiledScript;
+import ch.obermuhlner.scriptengine.java.JavaScriptEngine;
+import org.junit.Test;
+
+import javax.script.ScriptException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ScriptProfilerTest {
+    @Test
+    public void testProfile() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        ScriptProfiler profiler = new ScriptProfiler(true);
+        engine.setScriptProfiler(profiler);
+
+        JavaCompiledScript fast = engine.compile("public class Fast { public int getValue() { return 1; } }");
+        JavaCompiledScript slow = engine.compile("" +
+                "public class Slow {" +
+                "   public int getValue() throws InterruptedException {" +
+                "       Thread.sleep(50);" +
+                "       return new int[1000].length;" +
+                "   }" +
+                "}");
+        JavaCompiledScript failing = engine.compile("public class Failing { public double getValue() { throw new IllegalStateException(); } }");
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(fast.eval()).isEqualTo(1);
+        }
+        assertThat(slow.evalInt()).isEqualTo(1000);
+        assertThatThrownBy(() -> {
+            failing.evalDouble();
+        }).isInstanceOf(ScriptException.class);
+
+        ScriptProfile fastProfile = profiler.getProfile("Fast");
+        assertThat(fastProfile.getScriptName()).isEqualTo("Fast");
+        assertThat(fastProfile.getInvocationCount()).isEqualTo(10);
+        assertThat(fastProfile.getExceptionCount()).isEqualTo(0);
+        assertThat(fastProfile.getMaxNanos()).isLessThanOrEqualTo(fastProfile.getTotalNanos());
+
+        ScriptProfile slowProfile = profiler.getProfile("Slow");
+        assertThat(slowProfile.getInvocationCount()).isEqualTo(1);
+        assertThat(slowProfile.getTotalNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+        if (profiler.isAllocationTracking()) {
+            assertThat(slowProfile.getAllocatedBytes()).isGreaterThanOrEqualTo(4000);
+        }
+
+        ScriptProfile failingProfile = profiler.getProfile("Failing");
+        assertThat(failingProfile.getInvocationCount()).isEqualTo(1);
+        assertThat(failingProfile.getExceptionCount()).isEqualTo(1);
+
+        assertThat(profiler.getHottestScripts(1)).extracting(ScriptProfile::getScriptName).containsExactly("Slow");
+        assertThat(profiler.getTopScripts(2, Comparator.comparingLong(ScriptProfile::getInvocationCount).reversed()))
+                .extracting(ScriptProfile::getScriptName)
+                .containsExactly("Fast", "Slow");
+        assertThat(profiler.snapshot()).hasSize(3);
+    }
+
+    @Test
+    public void testSnapshotAndReset() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+        ScriptProfiler profiler = new ScriptProfiler();
+        engine.setScriptProfiler(profiler);
+        JavaCompiledScript compiledScript = engine.compile("public class Script { public int getValue() { return 1; } }");
+
+        compiledScript.eval();
+        List<ScriptProfile> snapshot = profiler.snapshotAndReset();
+        compiledScript.eval();
+        compiledScript.eval();
+
+        assertThat(snapshot).hasSize(1);
+        assertThat(snapshot.get(0).getInvocationCount()).isEqualTo(1);
+        assertThat(snapshot.get(0).getAllocatedBytes()).isEqualTo(0);
+        assertThat(profiler.getProfile("Script").getInvocationCount()).isEqualTo(2);
+
+        profiler.reset();
+
+        assertThat(profiler.getProfile("Script")).isNull();
+        assertThat(profiler.snapshot()).isEmpty();
+    }
+
+    @Test
+    public void testScheduleSnapshots() throws Exception {
+        ScriptProfiler profiler = new ScriptProfiler();
+        profiler.record("Script", 100, 0, false);
+        CompletableFuture<List<ScriptProfile>> future = new CompletableFuture<>();
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            ScheduledFuture<?> scheduledFuture = profiler.scheduleSnapshots(scheduler, 10, TimeUnit.MILLISECONDS, future::complete);
+            List<ScriptProfile> snapshot = future.get(10, TimeUnit.SECONDS);
+            scheduledFuture.cancel(false);
+
+            assertThat(snapshot).extracting(ScriptProfile::getScriptName).containsExactly("Script");
+            assertThat(snapshot.get(0).getMeanNanos()).isEqualTo(100);
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testDisabled() throws ScriptException {
+        JavaScriptEngine engine = new JavaScriptEngine();
+
+        assertThat(engine.getScriptProfiler()).isNull();
+        assertThat(engine.compile("public class Script { public int getValue() { return 1; } }").evalInt()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,43 @@
+package ch.obermuhlner.scriptengine.java.util;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SourceUtilTest {
+    @Test
+    public void testMaskComments() {
+        assertThat(SourceUtil.mask("a // b {\nc /* d\n} */ e"))
+                .isEqualTo("a       \nc     \n     e");
+    }
+
+    @Test
+    public void testMaskLiterals() {
+        assertThat(SourceUtil.mask("a = \"{\\\"this.b\" + '}' + '\\'';"))
+                .isEqualTo("a = \"         \" + ' ' + '  ';");
+    }
+
+    @Test
+    public void testMaskTextBlock() {
+        String source = "" +
+                "String text = \"\"\"\n" +
+                "    this.alpha { \"quoted\" \\\"\"\" }\n" +
+                "    \"\"\";\n" +
+                "int beta = this.alpha;";
+
+        String masked = SourceUtil.mask(source);
+
+        assertThat(masked).hasSameSizeAs(source);
+        assertThat(masked).isEqualTo("" +
+                "String text = \"\"\"\n" +
+                "                                \n" +
+                "    \"\"\";\n" +
+                "int beta = this.alpha;");
+    }
+
+    @Test
+    public void testMaskUnterminated() {
+        assertThat(SourceUtil.mask("a \"b\nc /* d")).isEqualTo("a \" \nc     ");
+        assertThat(SourceUtil.mask("a \"\"\"\nb")).isEqualTo("a \"\"\"\n ");
+    }
+}